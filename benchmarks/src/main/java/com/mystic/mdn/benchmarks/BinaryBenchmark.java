@@ -0,0 +1,59 @@
+package com.mystic.mdn.benchmarks;
+
+import com.mystic.mdn.MDN;
+import com.mystic.mdn.MDNDocument;
+import com.mystic.mdn.MDNLexerError;
+import com.mystic.mdn.MDNParseError;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link MDN#formatBinary(MDNDocument)} and {@link MDN#parseBinary(byte[])} against the text format
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BinaryBenchmark {
+
+    @Param({"1", "100"})
+    public int size;
+
+    @Param({"8", "256"})
+    public int valueLength;
+
+    private MDNDocument document;
+    private String text;
+    private byte[] binary;
+
+    @Setup
+    public void setup() {
+        document = MDNDocuments.generate(size, 4, 4, valueLength);
+        text = MDN.format(document);
+        binary = MDN.formatBinary(document);
+    }
+
+    @Benchmark
+    public String formatText() {
+        return MDN.format(document);
+    }
+
+    @Benchmark
+    public byte[] formatBinary() {
+        return MDN.formatBinary(document);
+    }
+
+    @Benchmark
+    public MDNDocument parseText() throws MDNLexerError, MDNParseError {
+        return MDN.parse(text);
+    }
+
+    @Benchmark
+    public MDNDocument parseBinary() throws MDNParseError {
+        return MDN.parseBinary(binary);
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.mystic.mdn.benchmarks;
+
+import com.mystic.mdn.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link MDNBinder} against the same binding written by hand, <code>size</code> records are bound per op
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BindBenchmark {
+
+    public enum Kind { USER, ADMIN, GUEST }
+
+    public record Address(String city, int zip) {}
+
+    public record User(long id, String name, Kind kind, double score, boolean active, List<String> tags, List<Address> addresses) {}
+
+    private static final MDNBinder<User> BINDER = MDNBinder.of(User.class);
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private MDNDocument document;
+    private List<User> users;
+
+    @Setup
+    public void setup() {
+        users = new ArrayList<>(size);
+        for(int i = 0; i < size; i++) {
+            users.add(new User(i, "user" + i, Kind.values()[i % 3], i * 0.5, i % 2 == 0, List.of("a" + i, "b" + i),
+                    List.of(new Address("city" + i, 10000 + i), new Address("town" + i, 20000 + i))));
+        }
+        document = BINDER.unbindAll(users);
+    }
+
+    @Benchmark
+    public List<User> bind() {
+        return BINDER.bindAll(document);
+    }
+
+    @Benchmark
+    public List<User> bindByHand() {
+        MDNElement[] elements = document.getElementsByName("User");
+        ArrayList<User> result = new ArrayList<>(elements.length);
+        for(MDNElement element : elements) {
+            ArrayList<Address> addresses = new ArrayList<>();
+            for(MDNElement address : element.getElementsByName("addresses")) {
+                addresses.add(new Address(address.getParamByName("city").getValue(0, null), address.getParamByName("zip").getInt(0, 0)));
+            }
+            result.add(new User(element.getParamByName("id").getLong(0, 0),
+                    element.getParamByName("name").getValue(0, null),
+                    element.getParamByName("kind").getEnumValue(0, null, Kind.class),
+                    element.getParamByName("score").getDouble(0, 0),
+                    "true".equals(element.getParamByName("active").getValue(0, null)),
+                    new ArrayList<>(element.getParamByName("tags").getValues()),
+                    addresses));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public MDNDocument unbind() {
+        return BINDER.unbindAll(users);
+    }
+
+    @Benchmark
+    public StringBuilder format() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        BINDER.format(users, builder);
+        return builder;
+    }
+
+}
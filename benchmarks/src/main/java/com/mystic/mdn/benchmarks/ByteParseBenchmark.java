@@ -0,0 +1,49 @@
+package com.mystic.mdn.benchmarks;
+
+import com.mystic.mdn.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the parse of UTF-8 bytes, decoded into a String for {@link MDN#parse(String)} or lexed as they are
+ * by {@link MDN#parse(byte[])} and {@link MDN#parse(ByteBuffer)}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ByteParseBenchmark {
+
+    @Param({"1", "100"})
+    public int size;
+
+    private byte[] bytes;
+    private ByteBuffer direct;
+
+    @Setup
+    public void setup() {
+        bytes = MDN.format(MDNDocuments.generate(size, 2, 4, 16)).getBytes(StandardCharsets.UTF_8);
+        direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+    }
+
+    @Benchmark
+    public MDNDocument decodeAndParse() throws MDNLexerError, MDNParseError {
+        return MDN.parse(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public MDNDocument parseBytes() throws MDNLexerError, MDNParseError {
+        return MDN.parse(bytes);
+    }
+
+    @Benchmark
+    public MDNDocument parseDirect() throws MDNLexerError, MDNParseError {
+        return MDN.parse(direct);
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.mystic.mdn.benchmarks;
+
+import com.mystic.mdn.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of three readers and one writer sharing a {@link MDNConcurrentDocument}, against the same threads
+ * sharing a {@link MDNDocument} behind a lock
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class ConcurrentBenchmark {
+
+    @Param({"10", "100"})
+    public int size;
+
+    private MDNConcurrentDocument concurrent;
+    private MDNDocument locked;
+    private int counter = 0;
+
+    @Setup
+    public void setup() {
+        MDNDocument document = MDNDocuments.generate(size, 2, 4, 8);
+        concurrent = new MDNConcurrentDocument(document);
+        locked = document;
+    }
+
+    @Benchmark
+    @Group("concurrent")
+    @GroupThreads(3)
+    public int read() {
+        MDNFrozenElement element = concurrent.getElementByName("Element");
+        return element.getElementByName("Sub-Element_1").getParamByName("id").getInt(0, 0);
+    }
+
+    @Benchmark
+    @Group("concurrent")
+    @GroupThreads(1)
+    public MDNFrozenDocument update() {
+        String value = Integer.toString(counter++);
+        return concurrent.update(document -> document.getElementByName("Element").getParamByName("text").getValues().set(0, value));
+    }
+
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(3)
+    public int readLocked() {
+        synchronized(locked) {
+            MDNElement element = locked.getElementByName("Element");
+            return element.getElementByName("Sub-Element_1").getParamByName("id").getInt(0, 0);
+        }
+    }
+
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(1)
+    public MDNDocument updateLocked() {
+        String value = Integer.toString(counter++);
+        synchronized(locked) {
+            locked.getElementByName("Element").getParamByName("text").getValues().set(0, value);
+        }
+        return locked;
+    }
+
+}
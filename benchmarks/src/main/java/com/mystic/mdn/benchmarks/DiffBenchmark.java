@@ -0,0 +1,66 @@
+package com.mystic.mdn.benchmarks;
+
+import com.mystic.mdn.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link MDN#diff(MDNDocument, MDNDocument)} between two versions of a document that differ by one value,
+ * against formatting the whole new version
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DiffBenchmark {
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private MDNDocument from;
+    private MDNDocument to;
+    private MDNParam changed;
+    private MDNPatch patch;
+    private int version = 0;
+
+    @Setup
+    public void setup() {
+        from = MDNDocuments.generate(size, 2, 8, 8);
+        to = MDNDocuments.generate(size, 2, 8, 8);
+        MDNElement element = to.getElements().get(size / 2);
+        while(!element.getElements().isEmpty()) {
+            element = element.getElements().get(0);
+        }
+        changed = element.getParams().get(0);
+        changed.getValues().set(0, "changed");
+        patch = MDN.diff(from, to);
+    }
+
+    @Benchmark
+    public MDNPatch diff() {
+        return MDN.diff(from, to);
+    }
+
+    /**
+     * Change the value again before each diff, so the hashes on its path are computed again
+     */
+    @Benchmark
+    public MDNPatch changeAndDiff() {
+        changed.getValues().set(0, "changed" + (version++ & 7));
+        return MDN.diff(from, to);
+    }
+
+    @Benchmark
+    public byte[] patchBytes() {
+        return patch.toByteArray();
+    }
+
+    @Benchmark
+    public String format() {
+        return MDN.format(to);
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.mystic.mdn.benchmarks;
+
+import com.mystic.mdn.MDN;
+import com.mystic.mdn.MDNDocument;
+import com.mystic.mdn.MDNDocumentCache;
+import com.mystic.mdn.MDNLexerError;
+import com.mystic.mdn.MDNParseError;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the hits of {@link MDNDocumentCache} against parsing the file with {@link MDN#parse(Path)}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DocumentCacheBenchmark {
+
+    private static final long MAX_WEIGHT = 1L << 30;
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private Path file;
+    private MDNDocumentCache cache;
+    private MDNDocumentCache verifyingCache;
+
+    @Setup
+    public void setup() throws IOException {
+        file = Files.createTempFile("mdn-benchmark", ".mdn");
+        Files.writeString(file, MDN.format(MDNDocuments.generate(size, 2, 8, 8)), StandardCharsets.UTF_8);
+        cache = new MDNDocumentCache(MAX_WEIGHT, false);
+        verifyingCache = new MDNDocumentCache(MAX_WEIGHT, true);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public MDNDocument parse() throws IOException, MDNLexerError, MDNParseError {
+        return MDN.parse(file);
+    }
+
+    @Benchmark
+    public MDNDocument cached() throws IOException, MDNLexerError, MDNParseError {
+        return cache.get(file);
+    }
+
+    @Benchmark
+    public MDNDocument cachedVerifyingContent() throws IOException, MDNLexerError, MDNParseError {
+        return verifyingCache.get(file);
+    }
+
+}
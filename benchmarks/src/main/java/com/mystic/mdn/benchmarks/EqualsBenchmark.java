@@ -0,0 +1,64 @@
+package com.mystic.mdn.benchmarks;
+
+import com.mystic.mdn.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link MDNDocument#equals(Object)} and {@link MDNDocument#hashCode()} on documents whose hashes are
+ * cached, as in a reload-if-changed check
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EqualsBenchmark {
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private MDNDocument document;
+    private MDNDocument same;
+    private MDNDocument changed;
+    private MDNParam param;
+    private int version = 0;
+
+    @Setup
+    public void setup() {
+        document = MDNDocuments.generate(size, 2, 8, 8);
+        same = MDNDocuments.generate(size, 2, 8, 8);
+        changed = MDNDocuments.generate(size, 2, 8, 8);
+        MDNElement element = changed.getElements().get(size / 2);
+        while(!element.getElements().isEmpty()) {
+            element = element.getElements().get(0);
+        }
+        param = element.getParams().get(0);
+        param.getValues().set(0, "changed");
+        document.hashCode();
+        same.hashCode();
+        changed.hashCode();
+    }
+
+    @Benchmark
+    public boolean equalsSame() {
+        return document.equals(same);
+    }
+
+    @Benchmark
+    public boolean equalsChanged() {
+        return document.equals(changed);
+    }
+
+    /**
+     * Change a value and hash the document again, only the hashes on the path of the value are computed again
+     */
+    @Benchmark
+    public int changeAndHash() {
+        param.getValues().set(0, "changed" + (version++ & 7));
+        return changed.hashCode();
+    }
+
+}
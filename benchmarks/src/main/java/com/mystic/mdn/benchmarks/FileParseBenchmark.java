@@ -0,0 +1,55 @@
+package com.mystic.mdn.benchmarks;
+
+import com.mystic.mdn.MDN;
+import com.mystic.mdn.MDNDocument;
+import com.mystic.mdn.MDNLexerError;
+import com.mystic.mdn.MDNParseError;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link MDN#parse(Path)} against reading the file into a String and calling {@link MDN#parse(String)}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileParseBenchmark {
+
+    @Param({"100", "1000"})
+    public int size;
+
+    @Param({"8", "256"})
+    public int valueLength;
+
+    private Path file;
+
+    @Setup
+    public void setup() throws IOException {
+        file = Files.createTempFile("mdn-benchmark", ".mdn");
+        Files.writeString(file, MDN.format(MDNDocuments.generate(size, 2, 8, valueLength)), StandardCharsets.UTF_8);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public MDNDocument readString() throws IOException, MDNLexerError, MDNParseError {
+        return MDN.parse(Files.readString(file, StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public MDNDocument mapped() throws IOException, MDNLexerError, MDNParseError {
+        return MDN.parse(file);
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.mystic.mdn.benchmarks;
+
+import com.mystic.mdn.MDN;
+import com.mystic.mdn.MDNDocument;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link MDN#format(MDNDocument)} and {@link MDN#format(MDNDocument, Writer)}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FormatBenchmark {
+
+    @Param({"1", "100"})
+    public int size;
+
+    @Param({"1", "4"})
+    public int depth;
+
+    @Param({"2", "8"})
+    public int fanout;
+
+    @Param({"8", "256"})
+    public int valueLength;
+
+    private MDNDocument document;
+    private final Writer writer = Writer.nullWriter();
+
+    @Setup
+    public void setup() {
+        document = MDNDocuments.generate(size, depth, fanout, valueLength);
+    }
+
+    @Benchmark
+    public String format() {
+        return MDN.format(document);
+    }
+
+    @Benchmark
+    public void formatToWriter() throws IOException {
+        MDN.format(document, writer);
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.mystic.mdn.benchmarks;
+
+import com.mystic.mdn.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the reads of a {@link MDNFrozenDocument} against the same reads of a {@link MDNDocument}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FrozenBenchmark {
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private MDNDocument document;
+    private MDNFrozenDocument frozen;
+
+    @Setup
+    public void setup() {
+        document = MDNDocuments.generate(size, 2, 8, 8);
+        frozen = document.freeze();
+    }
+
+    @Benchmark
+    public MDNFrozenDocument freeze() {
+        return document.freeze();
+    }
+
+    @Benchmark
+    public MDNDocument thaw() {
+        return frozen.thaw();
+    }
+
+    @Benchmark
+    public long walk() {
+        long sum = 0;
+        for(MDNElement element : document.getElements()) {
+            sum += walk(element);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long walkFrozen() {
+        long sum = 0;
+        for(MDNFrozenElement element : frozen.getElements()) {
+            sum += walk(element);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long lookup() {
+        long sum = 0;
+        for(MDNElement element : document.getElements()) {
+            MDNElement child = element.getElementByName("Sub-Element_3");
+            sum += child.getParamByName("id").getInt(0, 0);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long lookupFrozen() {
+        long sum = 0;
+        for(MDNFrozenElement element : frozen.getElements()) {
+            MDNFrozenElement child = element.getElementByName("Sub-Element_3");
+            sum += child.getParamByName("id").getInt(0, 0);
+        }
+        return sum;
+    }
+
+    private static long walk(MDNElement element) {
+        long sum = element.getName().length();
+        for(MDNParam param : element.getParams()) {
+            for(String value : param.getValues()) {
+                sum += value.length();
+            }
+        }
+        for(MDNElement child : element.getElements()) {
+            sum += walk(child);
+        }
+        return sum;
+    }
+
+    private static long walk(MDNFrozenElement element) {
+        long sum = element.getName().length();
+        List<MDNFrozenParam> params = element.getParams();
+        for(int i = 0; i < params.size(); i++) {
+            List<String> values = params.get(i).getValues();
+            for(int j = 0; j < values.size(); j++) {
+                sum += values.get(j).length();
+            }
+        }
+        List<MDNFrozenElement> children = element.getElements();
+        for(int i = 0; i < children.size(); i++) {
+            sum += walk(children.get(i));
+        }
+        return sum;
+    }
+
+}
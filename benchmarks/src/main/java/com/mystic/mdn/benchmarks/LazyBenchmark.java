@@ -0,0 +1,65 @@
+package com.mystic.mdn.benchmarks;
+
+import com.mystic.mdn.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of reading one value of a document parsed by {@link MDN#parseLazy(String)} against
+ * {@link MDN#parse(String)}, and of reading every value of the lazy document
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LazyBenchmark {
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private String source;
+
+    @Setup
+    public void setup() {
+        source = MDN.format(MDNDocuments.generate(size, 3, 4, 16));
+    }
+
+    @Benchmark
+    public int readOne() throws MDNLexerError, MDNParseError {
+        return read(MDN.parse(source));
+    }
+
+    @Benchmark
+    public int readOneLazy() throws MDNLexerError, MDNParseError {
+        return read(MDN.parseLazy(source));
+    }
+
+    @Benchmark
+    public long readAllLazy() throws MDNLexerError, MDNParseError {
+        long sum = 0;
+        for(MDNElement element : MDN.parseLazy(source).getElements()) {
+            sum += walk(element);
+        }
+        return sum;
+    }
+
+    private int read(MDNDocument document) {
+        MDNElement element = document.getElements().get(document.getElements().size() / 2);
+        return element.getElements().get(0).getParams().get(0).getValue(0, "").length();
+    }
+
+    private static long walk(MDNElement element) {
+        long sum = element.getName().length();
+        for(MDNParam param : element.getParams()) {
+            sum += param.getValueCount();
+        }
+        for(MDNElement child : element.getElements()) {
+            sum += walk(child);
+        }
+        return sum;
+    }
+
+}
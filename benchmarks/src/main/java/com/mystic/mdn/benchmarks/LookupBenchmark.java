@@ -0,0 +1,83 @@
+package com.mystic.mdn.benchmarks;
+
+import com.mystic.mdn.MDNDocument;
+import com.mystic.mdn.MDNElement;
+import com.mystic.mdn.MDNParam;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the by-name lookups of {@link MDNElement} and {@link MDNDocument}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LookupBenchmark {
+
+    private static final int GROUPS = 8;
+
+    @Param({"16", "1024"})
+    public int children;
+
+    private MDNDocument document;
+    private MDNElement unique;
+    private MDNElement grouped;
+    private String lastName;
+    private String lastParam;
+
+    @Setup
+    public void setup() {
+        document = new MDNDocument();
+        unique = new MDNElement("Unique");
+        grouped = new MDNElement("Grouped");
+        for(int i = 0; i < children; i++) {
+            unique.addElement(new MDNElement("child" + i));
+            unique.addParam(new MDNParam("param" + i).addValue(Integer.toString(i)));
+            grouped.addElement(new MDNElement("group" + (i % GROUPS)));
+            grouped.addParam(new MDNParam("group" + (i % GROUPS)).addValue(Integer.toString(i)));
+            document.addElement(new MDNElement("child" + i));
+        }
+        lastName = "child" + (children - 1);
+        lastParam = "param" + (children - 1);
+    }
+
+    @Benchmark
+    public MDNElement elementByName() {
+        return unique.getElementByName(lastName);
+    }
+
+    @Benchmark
+    public MDNElement elementByNameMissing() {
+        return unique.getElementByName("missing");
+    }
+
+    @Benchmark
+    public MDNElement[] elementsByName() {
+        return grouped.getElementsByName("group3");
+    }
+
+    @Benchmark
+    public MDNParam paramByName() {
+        return unique.getParamByName(lastParam);
+    }
+
+    @Benchmark
+    public MDNParam[] paramsByName() {
+        return grouped.getParamsByName("group3");
+    }
+
+    @Benchmark
+    public MDNElement documentElementByName() {
+        return document.getElementByName(lastName);
+    }
+
+    @Benchmark
+    public MDNElement[] documentElementsByName() {
+        return document.getElementsByName(lastName);
+    }
+
+}
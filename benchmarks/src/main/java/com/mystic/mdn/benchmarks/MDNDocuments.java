@@ -0,0 +1,55 @@
+package com.mystic.mdn.benchmarks;
+
+import com.mystic.mdn.MDNDocument;
+import com.mystic.mdn.MDNElement;
+import com.mystic.mdn.MDNParam;
+
+/**
+ * This class is used to create the synthetic documents used by the benchmarks
+ */
+final class MDNDocuments {
+
+    private MDNDocuments() {
+    }
+
+    /**
+     * Create a document, the same arguments always give the same document
+     * @param size the number of top level elements
+     * @param depth the number of levels of children under each top level element
+     * @param fanout the number of children of each element that is not a leaf
+     * @param valueLength the length of the text value of each element
+     * @return the document created
+     */
+    static MDNDocument generate(int size, int depth, int fanout, int valueLength) {
+        MDNDocument document = new MDNDocument();
+        int[] counter = new int[1];
+        for(int i = 0; i < size; i++) {
+            document.addElement(element("Element", depth, fanout, valueLength, counter));
+        }
+        return document;
+    }
+
+    private static MDNElement element(String name, int depth, int fanout, int valueLength, int[] counter) {
+        int id = counter[0]++;
+        MDNElement element = new MDNElement(name)
+                .addParam(new MDNParam("id").addValue(Integer.toString(id)))
+                .addParam(new MDNParam("ratio").addValue(Double.toString(id / 7.0)))
+                .addParam(new MDNParam("text").addValue(text(id, valueLength)))
+                .addParam(new MDNParam("flags").addValue("true").addValue("false").addValue("ENABLED"));
+        if(depth > 0) {
+            for(int i = 0; i < fanout; i++) {
+                element.addElement(element("Sub-Element_" + (i % 4), depth - 1, fanout, valueLength, counter));
+            }
+        }
+        return element;
+    }
+
+    private static String text(int seed, int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for(int i = 0; i < length; i++) {
+            builder.append((char) ('a' + (seed + i * 7) % 26));
+        }
+        return builder.toString();
+    }
+
+}
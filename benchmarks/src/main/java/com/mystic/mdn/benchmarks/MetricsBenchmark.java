@@ -0,0 +1,75 @@
+package com.mystic.mdn.benchmarks;
+
+import com.mystic.mdn.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the cost of the {@link MDNMetrics}: {@link MDN#parse(String, MDNStringPool)} and
+ * {@link MDN#format(MDNDocument)} with and without a {@link MDNListener}, against the parser and formatter used
+ * directly. Without a listener (and without a JFR recording) the results should be the same as the direct calls.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+
+    @Param({"10", "1000"})
+    public int size;
+
+    @Param({"false", "true"})
+    public boolean listener;
+
+    private String source;
+    private MDNDocument document;
+    private long elements;
+
+    @Setup
+    public void setup() {
+        document = MDNDocuments.generate(size, 3, 4, 16);
+        source = MDN.format(document);
+        if(listener) {
+            MDN.setListener(new MDNListener() {
+                @Override
+                public void parsed(MDNMetrics metrics) {
+                    elements += metrics.getElements();
+                }
+
+                @Override
+                public void formatted(MDNMetrics metrics) {
+                    elements += metrics.getElements();
+                }
+            });
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        MDN.setListener(null);
+    }
+
+    @Benchmark
+    public MDNDocument parse() throws MDNLexerError, MDNParseError {
+        return MDN.parse(source, null);
+    }
+
+    @Benchmark
+    public MDNDocument parseDirect() throws MDNParseError {
+        return new MDNParser(new MDNLexer(source)).parse();
+    }
+
+    @Benchmark
+    public String format() {
+        return MDN.format(document);
+    }
+
+    @Benchmark
+    public String formatDirect() {
+        return MDNFormatter.formatDocument(document);
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.mystic.mdn.benchmarks;
+
+import com.mystic.mdn.MDN;
+import com.mystic.mdn.MDNDocument;
+import com.mystic.mdn.MDNLexerError;
+import com.mystic.mdn.MDNParseError;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link MDN#parseParallel(String)} against {@link MDN#parse(String)} on large documents
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelParseBenchmark {
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    @Param({"8", "256"})
+    public int valueLength;
+
+    private String source;
+
+    @Setup
+    public void setup() {
+        source = MDN.format(MDNDocuments.generate(size, 2, 8, valueLength));
+    }
+
+    @Benchmark
+    public MDNDocument sequential() throws MDNLexerError, MDNParseError {
+        return MDN.parse(source);
+    }
+
+    @Benchmark
+    public MDNDocument parallel() throws MDNLexerError, MDNParseError {
+        return MDN.parseParallel(source);
+    }
+
+}
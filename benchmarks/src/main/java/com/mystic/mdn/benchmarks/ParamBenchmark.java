@@ -0,0 +1,106 @@
+package com.mystic.mdn.benchmarks;
+
+import com.mystic.mdn.MDNParam;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the typed accessors of {@link MDNParam}, boxed and primitive, with valid, malformed and missing values
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParamBenchmark {
+
+    public enum Mode {
+        FAST,
+        SAFE,
+        ENABLED,
+    }
+
+    private static final int INT = 0, LONG = 1, DOUBLE = 2, HEX = 3, BIN = 4, ENUM = 5, MALFORMED = 6, MISSING = 7;
+
+    private MDNParam param;
+
+    @Setup
+    public void setup() {
+        param = new MDNParam("values")
+                .addValue("12345")
+                .addValue("-9876543210")
+                .addValue("3.14159")
+                .addValue("ff")
+                .addValue("101101")
+                .addValue("ENABLED")
+                .addValue("not-a-number");
+    }
+
+    @Benchmark
+    public Integer intValue() {
+        return param.getIntValue(INT, 0);
+    }
+
+    @Benchmark
+    public Long longValue() {
+        return param.getLongValue(LONG, 0L);
+    }
+
+    @Benchmark
+    public Double doubleValue() {
+        return param.getDoubleValue(DOUBLE, 0.0);
+    }
+
+    @Benchmark
+    public Long hexValue() {
+        return param.getHexValue(HEX, 0L);
+    }
+
+    @Benchmark
+    public Long binValue() {
+        return param.getBinValue(BIN, 0L);
+    }
+
+    @Benchmark
+    public Mode enumValue() {
+        return param.getEnumValue(ENUM, Mode.FAST, Mode.class);
+    }
+
+    @Benchmark
+    public Integer malformedIntValue() {
+        return param.getIntValue(MALFORMED, 0);
+    }
+
+    @Benchmark
+    public Integer missingIntValue() {
+        return param.getIntValue(MISSING, 0);
+    }
+
+    @Benchmark
+    public int intPrimitive() {
+        return param.getInt(INT, 0);
+    }
+
+    @Benchmark
+    public long longPrimitive() {
+        return param.getLong(LONG, 0L);
+    }
+
+    @Benchmark
+    public double doublePrimitive() {
+        return param.getDouble(DOUBLE, 0.0);
+    }
+
+    @Benchmark
+    public int malformedIntPrimitive() {
+        return param.getInt(MALFORMED, 0);
+    }
+
+    @Benchmark
+    public int missingIntPrimitive() {
+        return param.getInt(MISSING, 0);
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.mystic.mdn.benchmarks;
+
+import com.mystic.mdn.MDN;
+import com.mystic.mdn.MDNDocument;
+import com.mystic.mdn.MDNFileResult;
+import com.mystic.mdn.MDNLexerError;
+import com.mystic.mdn.MDNParseError;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link MDN#parseAll(java.util.Collection)} against calling {@link MDN#parse(Path)} on each file in turn
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParseAllBenchmark {
+
+    @Param({"10", "200"})
+    public int files;
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private Path directory;
+    private List<Path> paths;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("mdn-benchmark");
+        paths = new ArrayList<>();
+        String content = MDN.format(MDNDocuments.generate(size, 2, 8, 16));
+        for(int i = 0; i < files; i++) {
+            Path file = directory.resolve(i + ".mdn");
+            Files.writeString(file, content, StandardCharsets.UTF_8);
+            paths.add(file);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        for(Path file : paths) {
+            Files.deleteIfExists(file);
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public List<MDNDocument> sequential() throws IOException, MDNLexerError, MDNParseError {
+        List<MDNDocument> documents = new ArrayList<>(paths.size());
+        for(Path file : paths) {
+            documents.add(MDN.parse(file));
+        }
+        return documents;
+    }
+
+    @Benchmark
+    public List<MDNFileResult> parseAll() throws InterruptedException {
+        return MDN.parseAll(paths);
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.mystic.mdn.benchmarks;
+
+import com.mystic.mdn.MDN;
+import com.mystic.mdn.MDNDocument;
+import com.mystic.mdn.MDNLexerError;
+import com.mystic.mdn.MDNParseError;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link MDN#parse(String)}, with and without a {@link com.mystic.mdn.MDNStringPool}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParseBenchmark {
+
+    @Param({"1", "100"})
+    public int size;
+
+    @Param({"1", "4"})
+    public int depth;
+
+    @Param({"2", "8"})
+    public int fanout;
+
+    @Param({"8", "256"})
+    public int valueLength;
+
+    private String source;
+
+    @Setup
+    public void setup() {
+        source = MDN.format(MDNDocuments.generate(size, depth, fanout, valueLength));
+    }
+
+    @Benchmark
+    public MDNDocument parse() throws MDNLexerError, MDNParseError {
+        return MDN.parse(source);
+    }
+
+    @Benchmark
+    public MDNDocument parseWithoutPool() throws MDNLexerError, MDNParseError {
+        return MDN.parse(source, null);
+    }
+
+}
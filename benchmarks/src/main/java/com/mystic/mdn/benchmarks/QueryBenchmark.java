@@ -0,0 +1,64 @@
+package com.mystic.mdn.benchmarks;
+
+import com.mystic.mdn.MDNDocument;
+import com.mystic.mdn.MDNElement;
+import com.mystic.mdn.MDNParam;
+import com.mystic.mdn.MDNQuery;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link MDNQuery} against the same lookups written with {@link MDNElement#getElementByName(String)}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueryBenchmark {
+
+    private static final MDNQuery PATH = MDNQuery.compile("Element/Sub-Element_3/Sub-Element_1/@id");
+    private static final MDNQuery PREDICATE = MDNQuery.compile("Element/*[flags=\"ENABLED\"]");
+    private static final MDNQuery DESCENDANTS = MDNQuery.compile("//Sub-Element_2");
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private MDNDocument document;
+
+    @Setup
+    public void setup() {
+        document = MDNDocuments.generate(size, 2, 8, 8);
+    }
+
+    @Benchmark
+    public MDNParam path() {
+        return PATH.firstParam(document);
+    }
+
+    @Benchmark
+    public MDNParam pathByHand() {
+        for(MDNElement element : document.getElementsByName("Element")) {
+            MDNElement child = element.getElementByName("Sub-Element_3");
+            if(child == null) continue;
+            MDNElement leaf = child.getElementByName("Sub-Element_1");
+            if(leaf == null) continue;
+            MDNParam param = leaf.getParamByName("id");
+            if(param != null) return param;
+        }
+        return null;
+    }
+
+    @Benchmark
+    public long predicate() {
+        return PREDICATE.elements(document).count();
+    }
+
+    @Benchmark
+    public long descendants() {
+        return DESCENDANTS.elements(document).count();
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.mystic.mdn.benchmarks;
+
+import com.mystic.mdn.MDN;
+import com.mystic.mdn.MDNDocument;
+import com.mystic.mdn.MDNLexerError;
+import com.mystic.mdn.MDNParseError;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link MDN#reparse(MDNDocument, String, int, int, String)} against {@link MDN#parse(String)} for a
+ * one character edit in the middle of the document, the character is inserted then removed again
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReparseBenchmark {
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private String source;
+    private String edited;
+    private int offset;
+    private MDNDocument document;
+
+    @Setup
+    public void setup() throws MDNLexerError, MDNParseError {
+        source = MDN.format(MDNDocuments.generate(size, 2, 8, 8));
+        offset = source.indexOf("text(\"", source.length() / 2) + 6;
+        edited = source.substring(0, offset) + "x" + source.substring(offset);
+        document = MDN.parse(source);
+    }
+
+    @Benchmark
+    public MDNDocument reparse() throws MDNLexerError, MDNParseError {
+        MDN.reparse(document, source, offset, 0, "x");
+        return MDN.reparse(document, edited, offset, 1, "");
+    }
+
+    @Benchmark
+    public MDNDocument parse() throws MDNLexerError, MDNParseError {
+        MDN.parse(edited);
+        return MDN.parse(source);
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.mystic.mdn.benchmarks;
+
+import com.mystic.mdn.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the parse of small messages by {@link MDN#parse(String)}, which creates a lexer and a parser for each
+ * message, against a {@link MDNParser} reused with {@link MDNParser#reset(CharSequence)}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReusableParserBenchmark {
+
+    @Param({"1", "4"})
+    public int size;
+
+    private String source;
+    private MDNParser parser;
+
+    @Setup
+    public void setup() {
+        source = MDN.format(MDNDocuments.generate(size, 1, 2, 8));
+        parser = new MDNParser();
+    }
+
+    @Benchmark
+    public MDNDocument parse() throws MDNLexerError, MDNParseError {
+        return MDN.parse(source);
+    }
+
+    @Benchmark
+    public MDNDocument reused() throws MDNParseError {
+        return parser.reset(source).parse();
+    }
+
+}
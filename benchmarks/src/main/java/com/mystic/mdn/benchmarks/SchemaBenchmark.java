@@ -0,0 +1,67 @@
+package com.mystic.mdn.benchmarks;
+
+import com.mystic.mdn.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the three ways to check a source against a {@link MDNSchema}: while parsing it, while reading it
+ * without building a document, and over the parsed document, against a plain {@link MDN#parse(String)}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SchemaBenchmark {
+
+    private static final String SCHEMA = "<Schema[root(\"Element\")]>\n" +
+            "    <Element[name(\"Element\"), children(\"Sub-Element_0\", \"Sub-Element_1\", \"Sub-Element_2\", \"Sub-Element_3\"), closed()]>\n" +
+            "        <Param[name(\"id\"), type(\"int\"), required(), count(\"1\")]/>\n" +
+            "        <Param[name(\"ratio\"), type(\"double\"), count(\"1\")]/>\n" +
+            "        <Param[name(\"text\"), required()]/>\n" +
+            "        <Param[name(\"flags\"), type(\"enum\"), values(\"true\", \"false\", \"ENABLED\")]/>\n" +
+            "    </>\n" +
+            "    <Element[name(\"Sub-Element_0\")]>\n" +
+            "        <Param[name(\"id\"), type(\"int\"), required(), count(\"1\")]/>\n" +
+            "    </>\n" +
+            "</>";
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private MDNSchema schema;
+    private String source;
+    private MDNDocument document;
+
+    @Setup
+    public void setup() throws MDNLexerError, MDNParseError {
+        schema = MDNSchema.compile(SCHEMA);
+        document = MDNDocuments.generate(size, 2, 8, 16);
+        source = MDN.format(document);
+    }
+
+    @Benchmark
+    public MDNDocument parse() throws MDNLexerError, MDNParseError {
+        return MDN.parse(source);
+    }
+
+    @Benchmark
+    public MDNDocument parseValidated() throws MDNLexerError, MDNParseError {
+        return schema.parse(source);
+    }
+
+    @Benchmark
+    public void check() throws MDNLexerError, MDNParseError {
+        schema.check(source);
+    }
+
+    @Benchmark
+    public List<MDNViolation> validateDocument() {
+        return schema.validate(document);
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.mystic.examples;
+
+import com.mystic.mdn.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Example of how to encode a {@link MDNDocument} in BMDN and decode it, the decoded document is formatted back
+ * into the same text as the original one
+ * @see MDNBinaryWriter
+ * @see MDNBinaryReader
+ */
+public class MDNBinaryExample {
+
+    public static void main(String[] args) throws Exception {
+        String src = "# This is a comment\n" +
+                "<Element[param1(\"125\", \"135\"), param2(\"Hello\")]>\n" +
+                "    <Sub-Element[param1(\"Value1\"), empty()]/>\n" +
+                "    <Sub-Element[param2(\"Multi\\nline\", \"\u00e9\u20ac\ud83d\ude00\")]/>\n" +
+                "</>\n" +
+                "<Element[param1(\"\\\"quoted\\\"\")]/>";
+        MDNDocument document = MDN.parse(src);
+        String text = MDN.format(document);
+
+        byte[] bytes = MDN.formatBinary(document);
+        String decoded = MDN.format(MDN.parseBinary(bytes));
+        System.out.println(text.length() + " chars as text, " + bytes.length + " bytes as BMDN");
+        if(!decoded.equals(text)) throw new IllegalStateException("Round trip failed:\n" + decoded);
+
+        // Several documents can be streamed one after the other
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try(MDNBinaryWriter writer = new MDNBinaryWriter(out)) {
+            writer.write(document);
+            writer.write(new MDNDocument());
+            writer.write(document);
+        }
+        int count = 0;
+        try(MDNBinaryReader reader = new MDNBinaryReader(new ByteArrayInputStream(out.toByteArray()))) {
+            MDNDocument read;
+            while((read = reader.read()) != null) {
+                if(count != 1 && !MDN.format(read).equals(text)) throw new IllegalStateException("Round trip failed:\n" + MDN.format(read));
+                count++;
+            }
+        }
+        System.out.println(count + " documents streamed, " + out.size() + " bytes");
+        System.out.println(decoded);
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.mystic.examples;
+
+import com.mystic.mdn.*;
+
+import java.util.List;
+
+/**
+ * Example of how to bind elements to records and back with a {@link MDNBinder}
+ * @see MDNBinder
+ */
+public class MDNBindExample {
+
+    public record SubElement(@MDNName("param1") String value, List<Integer> numbers) {}
+
+    @MDNName("Element")
+    public record Element(List<Integer> param1, String param2, @MDNName("Sub-Element") List<SubElement> subElements) {}
+
+    private static final MDNBinder<Element> BINDER = MDNBinder.of(Element.class);
+
+    public static void main(String[] args) throws MDNLexerError, MDNParseError {
+        String src = "<Element[param1(\"125\", \"135\"), param2(\"Hello\")]>\n" +
+                "    <Sub-Element[param1(\"Value1\"), numbers(\"1\", \"2\")]/>\n" +
+                "    <Sub-Element[param1(\"Value2\")]/>\n" +
+                "</>";
+        List<Element> elements = BINDER.bindAll(MDN.parse(src));
+        System.out.println(elements);
+
+        Element element = new Element(List.of(1, 2, 3), "World", List.of(new SubElement("Value3", List.of(4))));
+        System.out.println(MDN.format(BINDER.unbindAll(List.of(element))));
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.mystic.examples;
+
+import com.mystic.mdn.*;
+
+/**
+ * Example of how to compute the {@link MDNPatch} between two versions of a document, send it as bytes and apply it
+ * to another copy of the old version
+ * @see MDN#diff(MDNDocument, MDNDocument)
+ */
+public class MDNDiffExample {
+
+    public static void main(String[] args) throws Exception {
+        String src = "<Server[host(\"localhost\"), port(\"8080\")]>\n" +
+                "    <Route[path(\"/\"), target(\"index\")]/>\n" +
+                "    <Route[path(\"/api\"), target(\"api\")]/>\n" +
+                "</>\n" +
+                "<Logging[level(\"info\")]/>";
+        MDNDocument local = MDN.parse(src);
+        MDNDocument remote = MDN.parse(src);
+
+        MDNDocument edited = MDN.parse(src);
+        MDNElement server = edited.getElementByName("Server");
+        server.getParamByName("port").getValues().set(0, "9090");
+        server.addElement(new MDNElement("Route").addParam(new MDNParam("path").addValue("/health")).addParam(new MDNParam("target").addValue("health")));
+        edited.getElementByName("Logging").setName("Log");
+
+        MDNPatch patch = MDN.diff(local, edited);
+        byte[] bytes = patch.toByteArray();
+        System.out.println(patch + ", " + bytes.length + " bytes instead of " + MDN.format(edited).length() + " chars");
+
+        MDNPatch.parse(bytes).apply(remote);
+        if(!MDN.format(remote).equals(MDN.format(edited))) throw new IllegalStateException("Patch failed:\n" + MDN.format(remote));
+        System.out.println(MDN.format(remote));
+
+        // Changes made through the views of the lists are seen by the cached hashes the diff relies on
+        MDNDocument viewed = MDN.parse(src);
+        viewed.hashCode();
+        viewed.getElementByName("Server").getElements().get(1).getParamByName("target").getValues().subList(0, 1).set(0, "v2");
+        MDNPatch viewPatch = MDN.diff(MDN.parse(src), viewed);
+        if(viewPatch.isEmpty() || !viewPatch.apply(MDN.parse(src)).equals(viewed)) throw new IllegalStateException("Patch failed: " + viewPatch);
+        System.out.println(viewPatch);
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.mystic.examples;
+
+import com.mystic.mdn.*;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Example of how to edit the lists of a {@link MDNElement} in place, also through their {@link List#subList(int, int)}
+ * views, without the lookups by name getting out of date, and how to move an element to another parent
+ * @see MDNElement#getElements()
+ * @see MDNElement#getParams()
+ */
+public class MDNEditExample {
+
+    public static void main(String[] args) {
+        MDNElement root = new MDNElement("Root");
+        for(int i = 0; i < 10; i++) {
+            root.addElement(new MDNElement("E" + i));
+            root.addParam(new MDNParam("p" + i).addValue(Integer.toString(i)));
+        }
+        check(root.getElementByName("E3") != null && root.getParamByName("p3") != null, "lookup");
+
+        root.getElements().subList(0, 5).set(3, new MDNElement("X"));
+        check(root.getElementByName("E3") == null && root.getElementByName("X") != null, "children set through a view");
+        root.getElements().subList(5, 10).removeIf(element -> element.getName().equals("E7"));
+        check(root.getElementByName("E7") == null && root.getElements().size() == 9, "children removed through a view");
+
+        root.getParams().subList(2, 6).sort(Comparator.comparing(MDNParam::getName).reversed());
+        check(root.getParams().get(2).getName().equals("p5") && root.getParamByName("p5") == root.getParams().get(2), "params sorted through a view");
+        root.getParams().subList(0, 2).clear();
+        check(root.getParamByName("p0") == null && root.getParamByName("p9") != null, "params cleared through a view");
+
+        MDNElement other = new MDNElement("Other");
+        MDNElement child = root.getElementByName("E1");
+        try {
+            other.addElement(child);
+            check(false, "an element added to a second parent");
+        } catch (IllegalArgumentException e) {
+            check(other.getElements().isEmpty(), "an element refused by a second parent");
+        }
+        root.removeElement("E1");
+        other.addElement(child);
+        int hashCode = root.hashCode();
+        child.setName("Moved");
+        check(other.getElementByName("Moved") == child && root.hashCode() == hashCode, "an element moved to another parent");
+
+        MDNParam param = new MDNParam("values").addValue("1").addValue("2");
+        check(param.getInt(0, -1) == 1, "typed value");
+        param.getValues().subList(0, 1).set(0, "9");
+        check(param.getInt(0, -1) == 9, "typed value after a change through a view");
+        root.addParam(param);
+
+        System.out.println(MDN.format(documentOf(root)));
+    }
+
+    private static MDNDocument documentOf(MDNElement root) {
+        MDNDocument document = new MDNDocument();
+        document.addElement(root);
+        return document;
+    }
+
+    private static void check(boolean condition, String what) {
+        if(!condition) throw new IllegalStateException("Edit failed: " + what);
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.mystic.examples;
+
+import com.mystic.mdn.*;
+
+/**
+ * Example of how to find elements and params with a {@link MDNQuery}
+ * @see MDNQuery
+ */
+public class MDNQueryExample {
+
+    private static final MDNQuery SUB_ELEMENTS = MDNQuery.compile("Element/Sub-Element");
+    private static final MDNQuery PARAM2 = MDNQuery.compile("Element/Sub-Element[param1=\"Value1\"]/@param2");
+    private static final MDNQuery LEAVES = MDNQuery.compile("//Leaf");
+
+    public static void main(String[] args) throws MDNLexerError, MDNParseError {
+        String src = "# This is a comment\n" +
+                "<Element[param1(\"125\", \"135\"), param2(\"Hello\")]>\n" +
+                "    <Sub-Element[param1(\"Value1\"), param2(\"Value2\")]>\n" +
+                "        <Leaf[id(\"1\")]/>\n" +
+                "    </>\n" +
+                "    <Sub-Element[param2(\"Value3\")]>\n" +
+                "        <Leaf[id(\"2\")]/>\n" +
+                "    </>\n" +
+                "</>";
+        MDNDocument document = MDN.parse(src);
+        SUB_ELEMENTS.elements(document).forEach(element -> System.out.println(element.getParamByName("param2")));
+        System.out.println(PARAM2.firstParam(document).getValue(0, null));
+        System.out.println(LEAVES.elements(document).mapToInt(leaf -> leaf.getParamByName("id").getInt(0, 0)).sum());
+    }
+
+}
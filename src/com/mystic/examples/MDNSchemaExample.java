@@ -0,0 +1,43 @@
+package com.mystic.examples;
+
+import com.mystic.mdn.*;
+
+/**
+ * Example of how to compile a {@link MDNSchema} and check documents against it
+ * @see MDNSchema
+ */
+public class MDNSchemaExample {
+
+    public static void main(String[] args) throws Exception {
+        MDNSchema schema = MDNSchema.compile("<Schema[root(\"Server\")]>\n" +
+                "    <Element[name(\"Server\"), children(\"Route\"), closed()]>\n" +
+                "        <Param[name(\"host\"), required(), count(\"1\")]/>\n" +
+                "        <Param[name(\"port\"), type(\"int\"), count(\"1\")]/>\n" +
+                "    </>\n" +
+                "    <Element[name(\"Route\")]>\n" +
+                "        <Param[name(\"path\"), required()]/>\n" +
+                "        <Param[name(\"method\"), type(\"enum\"), values(\"GET\", \"POST\")]/>\n" +
+                "    </>\n" +
+                "</>");
+
+        String valid = "<Server[host(\"localhost\"), port(\"8080\")]>\n" +
+                "    <Route[path(\"/\"), method(\"GET\")]/>\n" +
+                "</>";
+        MDNDocument document = schema.parse(valid);
+        System.out.println("Valid: " + schema.validate(document).isEmpty());
+
+        String invalid = "<Server[port(\"eighty\"), debug(\"true\")]>\n" +
+                "    <Route[method(\"PUT\")]/>\n" +
+                "    <Logging/>\n" +
+                "</>";
+        for(MDNViolation violation : schema.validate(invalid)) {
+            System.out.println(violation);
+        }
+        try {
+            schema.check(invalid);
+        } catch (MDNParseError e) {
+            System.out.println("First: " + e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.mystic.examples;
+
+import com.mystic.mdn.*;
+
+import java.io.StringReader;
+
+/**
+ * Example of how to read a MDN source event by event with a {@link MDNReader}
+ * @see MDNReader
+ */
+public class MDNStreamExample {
+
+    public static void main(String[] args) throws Exception {
+        String src = "# This is a comment\n" +
+                "<Element[param1(\"125\", \"135\"), param2(\"Hello\")]>\n" +
+                "    <Sub-Element[param1(\"Value1\")]/>\n" +
+                "    <Sub-Element[param2(\"Value2\")]/>\n" +
+                "</>";
+        try(MDNReader reader = new MDNReader(new StringReader(src))) {
+            while(reader.hasNext()) {
+                MDNEventType event = reader.next();
+                switch (event) {
+                    case START_ELEMENT:
+                    case PARAM:
+                        System.out.println(event + " " + reader.getName() + " at " + reader.getLine() + ":" + reader.getColumn());
+                        break;
+                    case VALUE:
+                        System.out.println(event + " " + reader.getValue());
+                        break;
+                    default:
+                        System.out.println(event);
+                }
+            }
+        }
+    }
+
+}
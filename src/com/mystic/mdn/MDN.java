@@ -1,22 +1,337 @@
 package com.mystic.mdn;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 /**
  * This class is used to format and parse {@link MDNDocument}
  */
 public class MDN {
 
+    private static final long MAPPING_SIZE = 1L << 30;
+    private static final int POOL_THRESHOLD = 1 << 14;
+
+    private static volatile MDNListener listener = null;
+
+    /**
+     * Set the listener receiving the {@link MDNMetrics} of every parse and format. <br>
+     * The metrics are also recorded as the JFR events <code>com.mystic.mdn.Parse</code> and
+     * <code>com.mystic.mdn.Format</code> when they are enabled. When there is no listener and the events are
+     * disabled, nothing is counted or measured.
+     * @param listener the listener or null to remove it
+     */
+    public static void setListener(MDNListener listener) {
+        MDN.listener = listener;
+    }
+
+    /**
+     * @return the listener set by {@link #setListener(MDNListener)} or null
+     */
+    public static MDNListener getListener() {
+        return listener;
+    }
+
     /**
-     * Parse a string into a {@link MDNDocument}
+     * Parse a string into a {@link MDNDocument}. <br>
+     * The names and short values of large sources are shared through a {@link MDNStringPool} created for this parse.
      * @param src the string you want to parse
      * @return the {@link MDNDocument} created
      * @throws NullPointerException if {@code src} is null
-     * @throws MDNLexerError if any error occurs during {@link MDNLexer#makeTokens()}
+     * @throws MDNLexerError if any error occurs during {@link MDNLexer#nextToken()}
      * @throws MDNParseError if any error occurs during {@link MDNParser#parse()}
      */
     public static MDNDocument parse(String src) throws NullPointerException, MDNLexerError, MDNParseError {
+        if(src == null) throw new NullPointerException("Failed to create MDNLexer");
+        return parse(src, defaultPool(src.length()));
+    }
+
+    /**
+     * Parse a string into a {@link MDNDocument}, the names and values are shared through <code>pool</code>
+     * @param src the string you want to parse
+     * @param pool the pool used for the names and values, or null to create a new String for each of them
+     * @return the {@link MDNDocument} created
+     * @throws NullPointerException if {@code src} is null
+     * @throws MDNLexerError if any error occurs during {@link MDNLexer#nextToken()}
+     * @throws MDNParseError if any error occurs during {@link MDNParser#parse()}
+     */
+    public static MDNDocument parse(String src, MDNStringPool pool) throws NullPointerException, MDNLexerError, MDNParseError {
+        MDNLexer lexer = new MDNLexer(src);
+        lexer.setPool(pool);
+        return parse(lexer, src.length(), 0, null);
+    }
+
+    /**
+     * See {@link MDNSchema#parse(String)}
+     */
+    static MDNDocument parseValidated(String src, MDNValidator validator) throws MDNLexerError, MDNParseError {
         MDNLexer lexer = new MDNLexer(src);
-        MDNParser parser = new MDNParser(lexer.makeTokens());
-        return parser.parse();
+        lexer.setPool(defaultPool(src.length()));
+        return parse(lexer, src.length(), 0, validator);
+    }
+
+    /**
+     * Parse the tokens of <code>source</code>, with the metrics when there is a listener or the JFR event is enabled
+     * @param chars the number of characters of the source
+     * @param bytes the number of bytes of the source
+     * @param validator the validator checking the document while it is parsed, or null
+     */
+    private static MDNDocument parse(MDNTokenSource source, long chars, long bytes, MDNValidator validator) throws MDNLexerError, MDNParseError {
+        MDNListener listener = MDN.listener;
+        if(listener == null && !MDNEvents.isParseEnabled()) {
+            MDNParser parser = new MDNParser(source);
+            parser.setValidator(validator);
+            return parser.parseDocument();
+        }
+
+        MDNMetrics metrics = new MDNMetrics();
+        metrics.chars = chars;
+        metrics.bytes = bytes;
+        Object event = MDNEvents.beginParse();
+        long start = System.nanoTime();
+        MDNParser parser = new MDNParser(new MDNMeteredSource(source, metrics));
+        parser.setMetrics(metrics);
+        parser.setValidator(validator);
+        MDNDocument document = parser.parseDocument();
+        metrics.parseNanos = System.nanoTime() - start - metrics.lexNanos;
+        MDNEvents.end(event, metrics);
+        if(listener != null) listener.parsed(metrics);
+        return document;
+    }
+
+    /**
+     * Parse a string into a {@link MDNDocument} whose elements are only built when they are used. <br>
+     * The string is only scanned to find where the top-level elements start and end, the params and children of an
+     * element are built the first time one of them is used, and its children are built the same way. Reading one
+     * element of a large source therefore costs about one scan of the source, and the unused elements only keep
+     * their name and span. <br>
+     * The elements are the same as {@link #parse(String)}, but the syntax errors inside an element are only found
+     * when it is built: they are then thrown as an {@link IllegalStateException} whose cause is the
+     * {@link MDNLexerError} or {@link MDNParseError}. The document keeps a reference to <code>src</code>, and must not
+     * be read from several threads until its elements are built.
+     * @param src the string you want to parse
+     * @return the {@link MDNDocument} created
+     * @throws NullPointerException if {@code src} is null
+     * @throws MDNLexerError if any error occurs during {@link MDNLexer#nextToken()} outside of the elements
+     * @throws MDNParseError if any error occurs during {@link MDNParser#parse()} outside of the elements
+     */
+    public static MDNDocument parseLazy(String src) throws NullPointerException, MDNLexerError, MDNParseError {
+        if(src == null) throw new NullPointerException("Failed to parse");
+        return MDNLazyParser.parse(src, defaultPool(src.length()));
+    }
+
+    /**
+     * Parse a UTF-8 file into a {@link MDNDocument} whose elements are only built when they are used, see
+     * {@link #parseLazy(String)}. The file is read into a String, which is kept by the document.
+     * @param path the path of the file you want to parse
+     * @return the {@link MDNDocument} created
+     * @throws NullPointerException if {@code path} is null
+     * @throws IOException if the file could not be read
+     * @throws MDNLexerError if any error occurs during {@link MDNLexer#nextToken()} outside of the elements
+     * @throws MDNParseError if any error occurs during {@link MDNParser#parse()} outside of the elements
+     */
+    public static MDNDocument parseLazy(Path path) throws NullPointerException, IOException, MDNLexerError, MDNParseError {
+        if(path == null) throw new NullPointerException("Failed to parse file");
+        return parseLazy(Files.readString(path));
+    }
+
+    /**
+     * @param length the length of the source
+     * @return a new pool if the source is large enough for the pool to pay off, otherwise null
+     */
+    static MDNStringPool defaultPool(long length) {
+        return length >= POOL_THRESHOLD ? new MDNStringPool() : null;
+    }
+
+    /**
+     * Update a document after an edit of the string it was parsed from. <br>
+     * Only the smallest element enclosing the edit is parsed again and put in place of the old one, the other
+     * elements are kept. The document is updated in place and ends up the same as {@link #parse(String)} of the new
+     * string, including the spans of its elements and params. If the new string is invalid, the document isn't changed. <br>
+     * The document must not have been modified since it was parsed from <code>oldSrc</code>.
+     * @param document the document parsed from <code>oldSrc</code>
+     * @param oldSrc the string before the edit
+     * @param offset the index of the edit in <code>oldSrc</code>
+     * @param removedLength the number of characters removed at <code>offset</code>
+     * @param insertedText the text inserted at <code>offset</code>
+     * @return <code>document</code>
+     * @throws NullPointerException if an argument is null
+     * @throws IndexOutOfBoundsException if the edit isn't inside <code>oldSrc</code>
+     * @throws MDNLexerError if any error occurs during {@link MDNLexer#nextToken()}
+     * @throws MDNParseError if any error occurs during {@link MDNParser#parse()}
+     * @see MDNElement#getSourceStart()
+     */
+    public static MDNDocument reparse(MDNDocument document, String oldSrc, int offset, int removedLength, String insertedText) throws NullPointerException, IndexOutOfBoundsException, MDNLexerError, MDNParseError {
+        if(document == null || oldSrc == null || insertedText == null) throw new NullPointerException("Failed to reparse");
+        return MDNReparser.reparse(document, oldSrc, offset, removedLength, insertedText);
+    }
+
+    /**
+     * Compute the changes that turn <code>from</code> into <code>to</code>: the elements added, removed and renamed
+     * and the params changed. <br>
+     * The subtrees that are the same in both documents are recognized by their structural hashes, which are cached
+     * on the elements until they are modified, so comparing two versions of a large document only walks the parts
+     * that changed (and the lists containing them). <br>
+     * The structural hashes are 64-bit hashes built on FNV-1a, not cryptographic ones: two different subtrees with the
+     * same hash are taken as unchanged and the patch misses that change. The odds are negligible for documents
+     * that aren't crafted to collide, but a diff of untrusted documents must not be relied on to find every change.
+     * @param from the old document
+     * @param to the new document
+     * @return the patch, {@link MDNPatch#apply(MDNDocument) applying} it to a document equal to <code>from</code>
+     * makes it equal to <code>to</code>
+     * @throws NullPointerException if <code>from</code> or <code>to</code> is null
+     * @see MDNPatch
+     */
+    public static MDNPatch diff(MDNDocument from, MDNDocument to) throws NullPointerException {
+        if(from == null || to == null) throw new NullPointerException("Failed to diff");
+        return MDNDiff.diff(from, to);
+    }
+
+    /**
+     * Parse a string into a {@link MDNDocument} on the threads of the common {@link ForkJoinPool}. <br>
+     * The result and the errors are the same as {@link #parse(String)}.
+     * @param src the string you want to parse
+     * @return the {@link MDNDocument} created
+     * @throws NullPointerException if {@code src} is null
+     * @throws MDNLexerError if any error occurs during {@link MDNLexer#nextToken()}
+     * @throws MDNParseError if any error occurs during {@link MDNParser#parse()}
+     * @see #parseParallel(String, ForkJoinPool)
+     */
+    public static MDNDocument parseParallel(String src) throws NullPointerException, MDNLexerError, MDNParseError {
+        return parseParallel(src, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parse a string into a {@link MDNDocument} on the threads of <code>pool</code>. <br>
+     * The source is split between its top level elements, each part is parsed on its own and the elements are
+     * added to the document in their original order. Small sources are parsed on the calling thread. <br>
+     * The names and short values are shared through a {@link MDNStringPool} created for this parse. <br>
+     * The result and the errors (with their line and column) are the same as {@link #parse(String)}.
+     * @param src the string you want to parse
+     * @param pool the pool used to parse the parts of the source
+     * @return the {@link MDNDocument} created
+     * @throws NullPointerException if {@code src} or {@code pool} is null
+     * @throws MDNLexerError if any error occurs during {@link MDNLexer#nextToken()}
+     * @throws MDNParseError if any error occurs during {@link MDNParser#parse()}
+     */
+    public static MDNDocument parseParallel(String src, ForkJoinPool pool) throws NullPointerException, MDNLexerError, MDNParseError {
+        if(src == null || pool == null) throw new NullPointerException("Failed to parse");
+        return MDNParallelParser.parse(src, pool);
+    }
+
+    /**
+     * Parse a UTF-8 file into a {@link MDNDocument}. <br>
+     * The file is mapped into memory and lexed byte by byte, only the values are decoded,
+     * so the content of the file is never copied into a String. Files larger than 2GB are mapped in several parts. <br>
+     * The names and short values of large files are shared through a {@link MDNStringPool} created for this parse.
+     * @param path the path of the file you want to parse
+     * @return the {@link MDNDocument} created
+     * @throws NullPointerException if {@code path} is null
+     * @throws IOException if the file could not be opened or mapped
+     * @throws MDNLexerError if any error occurs during {@link MDNLexer#nextToken()}
+     * @throws MDNParseError if any error occurs during {@link MDNParser#parse()}
+     */
+    public static MDNDocument parse(Path path) throws NullPointerException, IOException, MDNLexerError, MDNParseError {
+        if(path == null) throw new NullPointerException("Failed to parse file");
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer[] chunks = new ByteBuffer[(int) ((size + MAPPING_SIZE - 1) / MAPPING_SIZE)];
+            for(int i = 0; i < chunks.length; i++) {
+                long position = i * MAPPING_SIZE;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAPPING_SIZE, size - position));
+            }
+            MDNByteLexer lexer = new MDNByteLexer(chunks);
+            lexer.setPool(defaultPool(size));
+            return parse(lexer, 0, size, null);
+        }
+    }
+
+    /**
+     * Parse UTF-8 bytes into a {@link MDNDocument}, see {@link #parse(ByteBuffer)}
+     * @param bytes the bytes you want to parse
+     * @return the {@link MDNDocument} created
+     * @throws NullPointerException if {@code bytes} is null
+     * @throws MDNLexerError if any error occurs during {@link MDNByteLexer#nextToken()}
+     * @throws MDNParseError if any error occurs during {@link MDNParser#parse()}
+     */
+    public static MDNDocument parse(byte[] bytes) throws NullPointerException, MDNLexerError, MDNParseError {
+        if(bytes == null) throw new NullPointerException("Failed to create MDNByteLexer");
+        return parse(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Parse the UTF-8 bytes of a buffer into a {@link MDNDocument}, from its position to its limit. <br>
+     * The bytes are lexed as they are, without decoding the source into a String first: only the identifiers and
+     * values are converted, when the document is built. The buffer can be a heap or direct buffer, its position
+     * isn't changed. The document and the errors are the same as {@link #parse(String)} of the decoded source, but
+     * like {@link #parse(Path)} the elements and params have no span (see {@link MDNElement#getSourceStart()}).
+     * @param bytes the buffer you want to parse
+     * @return the {@link MDNDocument} created
+     * @throws NullPointerException if {@code bytes} is null
+     * @throws MDNLexerError if any error occurs during {@link MDNByteLexer#nextToken()}
+     * @throws MDNParseError if any error occurs during {@link MDNParser#parse()}
+     */
+    public static MDNDocument parse(ByteBuffer bytes) throws NullPointerException, MDNLexerError, MDNParseError {
+        if(bytes == null) throw new NullPointerException("Failed to create MDNByteLexer");
+        long size = bytes.remaining();
+        MDNByteLexer lexer = new MDNByteLexer(bytes);
+        lexer.setPool(defaultPool(size));
+        return parse(lexer, 0, size, null);
+    }
+
+    /**
+     * Parse many UTF-8 files into {@link MDNDocument}s. <br>
+     * The files are read concurrently, on virtual threads when the runtime has them, and parsed on a pool with one
+     * thread per processor, so reading a file overlaps with parsing the others. A file that can't be read or parsed
+     * doesn't stop the others, its error is kept in its {@link MDNFileResult}.
+     * @param paths the paths of the files you want to parse
+     * @return the result of each file, in the order of <code>paths</code>
+     * @throws NullPointerException if <code>paths</code> or one of the paths is null
+     * @throws InterruptedException if the calling thread is interrupted while waiting for the files
+     */
+    public static List<MDNFileResult> parseAll(Collection<? extends Path> paths) throws NullPointerException, InterruptedException {
+        if(paths == null) throw new NullPointerException("Failed to parse files");
+        return MDNBulkParser.parseAll(new ArrayList<>(paths));
+    }
+
+    /**
+     * Parse many UTF-8 files into {@link MDNDocument}s, see {@link #parseAll(Collection)}
+     * @param paths the paths of the files you want to parse, the stream is consumed before any file is read
+     * @return the result of each file, in the order of <code>paths</code>
+     * @throws NullPointerException if <code>paths</code> or one of the paths is null
+     * @throws InterruptedException if the calling thread is interrupted while waiting for the files
+     */
+    public static List<MDNFileResult> parseAll(Stream<? extends Path> paths) throws NullPointerException, InterruptedException {
+        if(paths == null) throw new NullPointerException("Failed to parse files");
+        return MDNBulkParser.parseAll(paths.collect(Collectors.toList()));
+    }
+
+    /**
+     * Parse many UTF-8 files into {@link MDNDocument}s, see {@link #parseAll(Collection)}, and give each result to
+     * <code>consumer</code> as soon as its file is parsed. <br>
+     * <code>consumer</code> is called on the calling thread, in the order the files complete. If it throws, the files
+     * that are still being read or parsed are abandoned.
+     * @param paths the paths of the files you want to parse
+     * @param consumer what to do with each result
+     * @throws NullPointerException if <code>paths</code>, one of the paths or <code>consumer</code> is null
+     * @throws InterruptedException if the calling thread is interrupted while waiting for the files
+     */
+    public static void parseAll(Collection<? extends Path> paths, Consumer<? super MDNFileResult> consumer) throws NullPointerException, InterruptedException {
+        if(paths == null || consumer == null) throw new NullPointerException("Failed to parse files");
+        MDNBulkParser.parseAll(new ArrayList<>(paths), consumer);
     }
 
     /**
@@ -25,7 +340,87 @@ public class MDN {
      * @return the formatted string
      */
     public static String format(MDNDocument document) {
-        return MDNFormatter.formatDocument(document);
+        MDNListener listener = MDN.listener;
+        if(listener == null && !MDNEvents.isFormatEnabled()) return MDNFormatter.formatDocument(document);
+
+        StringBuilder builder = new StringBuilder();
+        try {
+            format(document, builder, listener);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Format the {@link MDNDocument} into an {@link Appendable}, the output is the same as {@link #format(MDNDocument)}
+     * @param document the document you want to format
+     * @param out where the formatted document is written
+     * @throws IOException if <code>out</code> failed
+     */
+    public static void format(MDNDocument document, Appendable out) throws IOException {
+        MDNListener listener = MDN.listener;
+        if(listener == null && !MDNEvents.isFormatEnabled()) MDNFormatter.formatDocument(document, out);
+        else format(document, out, listener);
+    }
+
+    /**
+     * Format the {@link MDNDocument} into a {@link Writer}, the output is the same as {@link #format(MDNDocument)}. <br>
+     * The writer is neither flushed nor closed.
+     * @param document the document you want to format
+     * @param writer where the formatted document is written
+     * @throws IOException if <code>writer</code> failed
+     */
+    public static void format(MDNDocument document, Writer writer) throws IOException {
+        format(document, (Appendable) writer);
+    }
+
+    /**
+     * Format the document with the metrics
+     */
+    private static void format(MDNDocument document, Appendable out, MDNListener listener) throws IOException {
+        MDNMetrics metrics = new MDNMetrics();
+        Object event = MDNEvents.beginFormat();
+        long start = System.nanoTime();
+        MDNFormatter.formatDocument(document, out, metrics);
+        metrics.formatNanos = System.nanoTime() - start;
+        MDNEvents.end(event, metrics);
+        if(listener != null) listener.formatted(metrics);
+    }
+
+    /**
+     * Encode the {@link MDNDocument} in BMDN, the binary encoding of MDN
+     * @param document the document you want to encode
+     * @return the encoded document
+     * @see MDNBinaryWriter
+     */
+    public static byte[] formatBinary(MDNDocument document) {
+        MDNBinaryWriter writer = new MDNBinaryWriter();
+        try {
+            writer.write(document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * Decode a {@link MDNDocument} encoded in BMDN, the binary encoding of MDN
+     * @param bytes the encoded document
+     * @return the {@link MDNDocument} decoded
+     * @throws NullPointerException if {@code bytes} is null
+     * @throws MDNParseError if {@code bytes} isn't a valid BMDN document
+     * @see MDNBinaryReader
+     */
+    public static MDNDocument parseBinary(byte[] bytes) throws NullPointerException, MDNParseError {
+        if(bytes == null) throw new NullPointerException("Failed to parse");
+        try(MDNBinaryReader reader = new MDNBinaryReader(new ByteArrayInputStream(bytes))) {
+            MDNDocument document = reader.read();
+            if(document == null) throw new MDNParseError("Invalid BMDN, missing document!");
+            return document;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
 }
@@ -0,0 +1,253 @@
+package com.mystic.mdn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * This class is used to read the {@link MDNDocument} written by a {@link MDNBinaryWriter}. <br>
+ * The bytes are pulled from the stream through a buffer, so documents are read one at a time. <br>
+ * The short ASCII values are shared through a {@link MDNStringPool}, like the names.
+ * @see MDNBinaryWriter
+ */
+public class MDNBinaryReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final InputStream in;
+    private final ArrayList<String> names = new ArrayList<>();
+    private final MDNStringPool pool = new MDNStringPool();
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    private ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT);
+    private int ptr = 0, length = 0;
+    private boolean started = false;
+
+    /**
+     * Constructor for MDNBinaryReader
+     * @param in the stream you want to read, it is closed by {@link #close()}
+     * @throws NullPointerException if <code>in</code> is null
+     */
+    public MDNBinaryReader(InputStream in) throws NullPointerException {
+        if(in == null) throw new NullPointerException("Failed to create MDNBinaryReader");
+        this.in = in;
+    }
+
+    /**
+     * Read the next document of the stream
+     * @return the document or null if the end of the stream is reached
+     * @throws IOException if the stream failed
+     * @throws MDNParseError if the stream isn't valid BMDN
+     */
+    public MDNDocument read() throws IOException, MDNParseError {
+        readHeader();
+        if(!available(1)) return null;
+        MDNDocument document = new MDNDocument();
+        int count = readCount();
+        for(int i = 0; i < count; i++) {
+            document.addElement(readElement());
+        }
+        return document;
+    }
+
+    /**
+     * Read and check the header of the stream if it hasn't been read yet
+     * @throws IOException if the stream failed
+     * @throws MDNParseError if the stream doesn't start with a supported BMDN header
+     */
+    void readHeader() throws IOException, MDNParseError {
+        if(started) return;
+        started = true;
+        if(!available(MDNBinaryWriter.MAGIC.length + 1)) throw new MDNParseError("Invalid BMDN, missing header!");
+        for(byte b : MDNBinaryWriter.MAGIC) {
+            if(buffer[ptr++] != b) throw new MDNParseError("Invalid BMDN, wrong magic number!");
+        }
+        int version = buffer[ptr++];
+        if(version != MDNBinaryWriter.VERSION) throw new MDNParseError("Unsupported BMDN version " + version + "!");
+    }
+
+    /**
+     * Read an element and its children
+     * @return the element
+     * @throws IOException if the stream failed
+     * @throws MDNParseError if the element is invalid
+     */
+    MDNElement readElement() throws IOException, MDNParseError {
+        MDNElement element = new MDNElement(readName());
+        int params = readCount();
+        for(int i = 0; i < params; i++) {
+            element.addParam(readParam());
+        }
+        int children = readCount();
+        for(int i = 0; i < children; i++) {
+            element.addElement(readElement());
+        }
+        return element;
+    }
+
+    /**
+     * Read a param and its values
+     * @return the param
+     * @throws IOException if the stream failed
+     * @throws MDNParseError if the param is invalid
+     */
+    MDNParam readParam() throws IOException, MDNParseError {
+        MDNParam param = new MDNParam(readName());
+        int values = readCount();
+        for(int i = 0; i < values; i++) {
+            param.addValue(readString());
+        }
+        return param;
+    }
+
+    /**
+     * Read a name through the table of names
+     * @return the name
+     * @throws IOException if the stream failed
+     * @throws MDNParseError if the name is invalid
+     */
+    String readName() throws IOException, MDNParseError {
+        int index = readCount();
+        if(index == 0) {
+            String name = readString();
+            if(name != null && names.size() < MDNBinaryWriter.MAX_NAMES) names.add(name);
+            return name;
+        }
+        if(index > names.size()) throw new MDNParseError("Invalid BMDN, unknown name " + (index - 1) + "!");
+        return names.get(index - 1);
+    }
+
+    /**
+     * Read a count, which can't be negative
+     * @return the count
+     * @throws IOException if the stream failed
+     * @throws MDNParseError if the count is invalid
+     */
+    int readCount() throws IOException, MDNParseError {
+        int count = readVarint();
+        if(count < 0) throw new MDNParseError("Invalid BMDN, negative count!");
+        return count;
+    }
+
+    /**
+     * Read an unsigned varint
+     * @return the value
+     * @throws IOException if the stream failed
+     * @throws MDNParseError if the varint is truncated or longer than 5 bytes
+     */
+    int readVarint() throws IOException, MDNParseError {
+        int value = 0;
+        for(int shift = 0; shift < 35; shift += 7) {
+            if(ptr == length && !available(1)) throw new MDNParseError("Invalid BMDN, unexpected end of stream!");
+            byte b = buffer[ptr++];
+            value |= (b & 0x7F) << shift;
+            if(b >= 0) return value;
+        }
+        throw new MDNParseError("Invalid BMDN, varint too long!");
+    }
+
+    /**
+     * Read a String, or null, written by {@link MDNBinaryWriter#writeString(String)}
+     * @return the String
+     * @throws IOException if the stream failed
+     * @throws MDNParseError if the String is truncated or isn't valid UTF-8
+     */
+    String readString() throws IOException, MDNParseError {
+        int header = readVarint();
+        if(header == 0) return null;
+        header--;
+        if(header < 0) throw new MDNParseError("Invalid BMDN, string too long!");
+        int bytes = header >>> 1;
+        if(!available(bytes)) throw new MDNParseError("Invalid BMDN, unexpected end of stream!");
+        String value;
+        if((header & 1) != 0) value = decodeRaw(buffer, ptr, bytes);
+        else {
+            value = pool.internAscii(wrapped, ptr, bytes);
+            if(value == null) value = decode(ptr, bytes);
+        }
+        ptr += bytes;
+        return value;
+    }
+
+    /**
+     * Decode strict UTF-8, the malformed sequences are errors instead of being replaced
+     */
+    private String decode(int offset, int count) throws MDNParseError {
+        for(int i = offset; i < offset + count; i++) {
+            if(buffer[i] >= 0) continue;
+            try {
+                return decoder.decode(ByteBuffer.wrap(buffer, offset, count)).toString();
+            } catch (CharacterCodingException e) {
+                throw new MDNParseError("Invalid BMDN, malformed string!", e);
+            }
+        }
+        return new String(buffer, offset, count, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Decode UTF-8 where surrogates may be encoded on their own on 3 bytes
+     */
+    private static String decodeRaw(byte[] bytes, int offset, int count) throws MDNParseError {
+        char[] chars = new char[count];
+        int length = 0;
+        int end = offset + count;
+        int i = offset;
+        while(i < end) {
+            int b = bytes[i++] & 0xFF;
+            int size = b < 0x80 ? 0 : b >= 0xF0 ? 3 : b >= 0xE0 ? 2 : b >= 0xC0 ? 1 : -1;
+            if(size < 0 || i + size > end) throw new MDNParseError("Invalid BMDN, malformed string!");
+            int codePoint = size == 0 ? b : b & (0x3F >> size);
+            for(int j = 0; j < size; j++) {
+                int c = bytes[i++] & 0xFF;
+                if((c & 0xC0) != 0x80) throw new MDNParseError("Invalid BMDN, malformed string!");
+                codePoint = (codePoint << 6) | (c & 0x3F);
+            }
+            if(codePoint > Character.MAX_CODE_POINT) throw new MDNParseError("Invalid BMDN, malformed string!");
+            length += Character.toChars(codePoint, chars, length);
+        }
+        return new String(chars, 0, length);
+    }
+
+    /**
+     * Make sure <code>count</code> bytes can be read from the buffer, the buffer only grows as the bytes arrive
+     * @return {@code false} if the stream ends before
+     */
+    private boolean available(int count) throws IOException {
+        if(length - ptr >= count) return true;
+        if(ptr > 0) {
+            System.arraycopy(buffer, ptr, buffer, 0, length - ptr);
+            length -= ptr;
+            ptr = 0;
+        }
+        while(length < count) {
+            if(length == buffer.length) {
+                byte[] grown = new byte[(int) Math.min(count, buffer.length * 2L)];
+                System.arraycopy(buffer, 0, grown, 0, length);
+                buffer = grown;
+                wrapped = ByteBuffer.wrap(buffer);
+            }
+            int read = in.read(buffer, length, buffer.length - length);
+            if(read < 0) return false;
+            length += read;
+        }
+        return true;
+    }
+
+    /**
+     * Close the underlying stream
+     * @throws IOException if the stream failed to close
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+}
@@ -0,0 +1,270 @@
+package com.mystic.mdn;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * This class is used to write {@link MDNDocument} in BMDN, the binary encoding of MDN. <br>
+ * A BMDN stream holds any number of documents and is read back by {@link MDNBinaryReader}. <br>
+ * <br>
+ * Format:<br>
+ * <pre>
+ * stream   = 'B' 'M' 'D' 'N' version(1) document*
+ * document = count(elements) element*
+ * element  = name count(params) param* count(children) element*
+ * param    = name count(values) string*
+ * name     = varint(0) string    (a new name, added to the table of names)
+ *          | varint(index + 1)   (the name at index in the table of names)
+ * string   = varint(0)           (null)
+ *          | varint((bytes &lt;&lt; 1 | raw) + 1) UTF-8 bytes
+ * count    = varint
+ * </pre>
+ * Varints are unsigned, 7 bits per byte, low bits first. Strings holding unpaired surrogates are flagged
+ * <code>raw</code> and their surrogates are encoded on 3 bytes each, so every String is written losslessly.
+ * The table of names is shared by all the documents of a stream and holds at most {@link #MAX_NAMES} names,
+ * the names that don't fit are always written as new names.
+ * @see MDNBinaryReader
+ */
+public class MDNBinaryWriter implements Closeable, Flushable {
+
+    static final byte[] MAGIC = {'B', 'M', 'D', 'N'};
+    static final int VERSION = 1;
+
+    /**
+     * Number of names kept in the table of names of a stream
+     */
+    public static final int MAX_NAMES = 1 << 16;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final OutputStream out;
+    private final HashMap<String, Integer> names = new HashMap<>();
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    private int length = 0;
+    private boolean started = false;
+
+    /**
+     * Constructor for MDNBinaryWriter
+     * @param out the stream you want to write to, it is closed by {@link #close()}
+     * @throws NullPointerException if <code>out</code> is null
+     */
+    public MDNBinaryWriter(OutputStream out) throws NullPointerException {
+        if(out == null) throw new NullPointerException("Failed to create MDNBinaryWriter");
+        this.out = out;
+    }
+
+    /**
+     * Constructor for a MDNBinaryWriter keeping everything in memory, the bytes are then given by {@link #toByteArray()}
+     */
+    MDNBinaryWriter() {
+        this.out = null;
+    }
+
+    /**
+     * Write a document, the header of the stream is written before the first document
+     * @param document the document you want to write
+     * @throws IOException if the stream failed
+     */
+    public void write(MDNDocument document) throws IOException {
+        writeHeader();
+        ArrayList<MDNElement> elements = document.getElements();
+        int count = elements.size();
+        writeVarint(count);
+        for(int i = 0; i < count; i++) {
+            writeElement(elements.get(i));
+        }
+    }
+
+    /**
+     * Write the header of the stream if it hasn't been written yet
+     * @throws IOException if the stream failed
+     */
+    void writeHeader() throws IOException {
+        if(started) return;
+        started = true;
+        ensure(MAGIC.length + 1);
+        System.arraycopy(MAGIC, 0, buffer, length, MAGIC.length);
+        length += MAGIC.length;
+        buffer[length++] = VERSION;
+    }
+
+    /**
+     * Write an element and its children
+     * @param element the element
+     * @throws IOException if the stream failed
+     */
+    void writeElement(MDNElement element) throws IOException {
+        writeName(element.getName());
+        ArrayList<MDNParam> params = element.getParams();
+        int paramCount = params.size();
+        writeVarint(paramCount);
+        for(int i = 0; i < paramCount; i++) {
+            writeParam(params.get(i));
+        }
+        ArrayList<MDNElement> children = element.getElements();
+        int childCount = children.size();
+        writeVarint(childCount);
+        for(int i = 0; i < childCount; i++) {
+            writeElement(children.get(i));
+        }
+    }
+
+    /**
+     * Write a param and its values
+     * @param param the param
+     * @throws IOException if the stream failed
+     */
+    void writeParam(MDNParam param) throws IOException {
+        writeName(param.getName());
+        ArrayList<String> values = param.getValues();
+        int valueCount = values.size();
+        writeVarint(valueCount);
+        for(int i = 0; i < valueCount; i++) {
+            writeString(values.get(i));
+        }
+    }
+
+    /**
+     * Write a name through the table of names
+     * @param name the name
+     * @throws IOException if the stream failed
+     */
+    void writeName(String name) throws IOException {
+        Integer index = name == null ? null : names.get(name);
+        if(index != null) {
+            writeVarint(index + 1);
+            return;
+        }
+        writeVarint(0);
+        writeString(name);
+        if(name != null && names.size() < MAX_NAMES) names.put(name, names.size());
+    }
+
+    /**
+     * Write an unsigned varint
+     * @param value the value, treated as unsigned
+     * @throws IOException if the stream failed
+     */
+    void writeVarint(int value) throws IOException {
+        ensure(5);
+        while((value & ~0x7F) != 0) {
+            buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[length++] = (byte) value;
+    }
+
+    /**
+     * Write a String, or null, as length-prefixed UTF-8
+     * @param value the String
+     * @throws IOException if the stream failed or the String is longer than 1GB once encoded
+     */
+    void writeString(String value) throws IOException {
+        if(value == null) {
+            writeVarint(0);
+            return;
+        }
+        int chars = value.length();
+        int bytes = 0;
+        boolean raw = false;
+        for(int i = 0; i < chars; i++) {
+            char c = value.charAt(i);
+            if(c < 0x80) bytes++;
+            else if(c < 0x800) bytes += 2;
+            else if(Character.isHighSurrogate(c) && i + 1 < chars && Character.isLowSurrogate(value.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                if(Character.isSurrogate(c)) raw = true;
+                bytes += 3;
+            }
+        }
+        if(bytes < 0 || bytes > (Integer.MAX_VALUE - 1) >> 1) throw new IOException("String too long for BMDN");
+        writeVarint(((bytes << 1) | (raw ? 1 : 0)) + 1);
+        ensure(bytes);
+        byte[] buffer = this.buffer;
+        int length = this.length;
+        if(bytes == chars) {
+            for(int i = 0; i < chars; i++) {
+                buffer[length++] = (byte) value.charAt(i);
+            }
+        } else {
+            for(int i = 0; i < chars; i++) {
+                char c = value.charAt(i);
+                if(c < 0x80) {
+                    buffer[length++] = (byte) c;
+                } else if(c < 0x800) {
+                    buffer[length++] = (byte) (0xC0 | (c >> 6));
+                    buffer[length++] = (byte) (0x80 | (c & 0x3F));
+                } else if(Character.isHighSurrogate(c) && i + 1 < chars && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    buffer[length++] = (byte) (0xF0 | (codePoint >> 18));
+                    buffer[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    buffer[length++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    buffer[length++] = (byte) (0xE0 | (c >> 12));
+                    buffer[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buffer[length++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+        }
+        this.length = length;
+    }
+
+    /**
+     * Make room for <code>count</code> bytes in the buffer, flushing it or growing it if needed
+     */
+    private void ensure(int count) throws IOException {
+        if(length + count <= buffer.length) return;
+        if(out == null) {
+            buffer = Arrays.copyOf(buffer, Math.max(length + count, buffer.length * 2));
+            return;
+        }
+        flushBuffer();
+        if(count > buffer.length) buffer = new byte[Math.max(count, buffer.length * 2)];
+    }
+
+    /**
+     * @return the bytes written by a writer created without stream
+     */
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, length);
+    }
+
+    private void flushBuffer() throws IOException {
+        if(out != null && length > 0) {
+            out.write(buffer, 0, length);
+            length = 0;
+        }
+    }
+
+    /**
+     * Write the buffered bytes and flush the stream
+     * @throws IOException if the stream failed
+     */
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        if(out != null) out.flush();
+    }
+
+    /**
+     * Write the buffered bytes and close the stream
+     * @throws IOException if the stream failed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            if(out != null) out.close();
+        }
+    }
+
+}
@@ -0,0 +1,437 @@
+package com.mystic.mdn;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This class binds {@link MDNElement}s to instances of a class or a record and back. <br>
+ * The element of an object is named after its class, every field of a class (including the inherited ones, except
+ * the static, transient and final ones) or component of a record is mapped by its name: <br>
+ * - strings, primitives, their boxed types and enums map to a param with one value <br>
+ * - lists of those map to a param with a value per item <br>
+ * - other classes and records map to the first child element with that name, and lists of them to every child
+ * element with that name <br>
+ * The names can be changed with {@link MDNName}. A param or a child element that is missing, or a value that can't
+ * be converted, leaves the field to its initial value, or to its default value for a record. <br>
+ * The fields, accessors and constructors are resolved once per class into method handles, so binding an element
+ * doesn't use reflection. Classes need a constructor without arguments, and both classes and records must be
+ * accessible to this module (see {@link MethodHandles#privateLookupIn(Class, MethodHandles.Lookup)}). <br>
+ * Binders are thread safe.
+ * @param <T> the type of the bound objects
+ */
+public final class MDNBinder<T> {
+
+    private static final int STRING = 0, INT = 1, LONG = 2, SHORT = 3, BYTE = 4, FLOAT = 5, DOUBLE = 6, BOOLEAN = 7,
+            CHAR = 8, ENUM = 9, LIST = 10, ELEMENT = 11, ELEMENTS = 12;
+
+    private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * Returned by {@link #read(MDNElement, Property)} when a field has no valid value
+     */
+    private static final Object MISSING = new Object();
+
+    private static final ClassValue<MDNBinder<?>> BINDERS = new ClassValue<MDNBinder<?>>() {
+        @Override
+        protected MDNBinder<?> computeValue(Class<?> type) {
+            return new MDNBinder<>(type);
+        }
+    };
+
+    private final Class<T> type;
+    private final String name;
+    private final boolean record;
+
+    /**
+     * The constructor without arguments of a class as <code>()Object</code>, or the canonical constructor of a
+     * record as <code>(Object[])Object</code>
+     */
+    private final MethodHandle constructor;
+    private final Property[] properties;
+
+    /**
+     * Get the binder of a class, it is created on the first call and cached
+     * @param type the class or record to bind
+     * @param <T> the type of the bound objects
+     * @return the binder of <code>type</code>
+     * @throws NullPointerException if <code>type</code> is null
+     * @throws IllegalArgumentException if <code>type</code> can't be bound
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> MDNBinder<T> of(Class<T> type) throws NullPointerException, IllegalArgumentException {
+        return (MDNBinder<T>) BINDERS.get(type);
+    }
+
+    private MDNBinder(Class<T> type) {
+        checkBindable(type);
+        this.type = type;
+        MDNName annotation = type.getAnnotation(MDNName.class);
+        this.name = annotation != null ? annotation.value() : type.getSimpleName();
+        this.record = type.isRecord();
+
+        MethodHandles.Lookup lookup;
+        try {
+            lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Can't access " + type.getName() + ", its package must be opened to " + MDNBinder.class.getModule(), e);
+        }
+
+        ArrayList<Property> properties = new ArrayList<>();
+        try {
+            if(record) {
+                RecordComponent[] components = type.getRecordComponents();
+                Class<?>[] types = new Class<?>[components.length];
+                for(int i = 0; i < components.length; i++) {
+                    RecordComponent component = components[i];
+                    types[i] = component.getType();
+                    MDNName componentName = component.getAnnotation(MDNName.class);
+                    properties.add(new Property(componentName != null ? componentName.value() : component.getName(),
+                            component.getType(), component.getGenericType(),
+                            lookup.unreflect(component.getAccessor()).asType(GETTER), null));
+                }
+                Constructor<T> canonical = type.getDeclaredConstructor(types);
+                this.constructor = lookup.unreflectConstructor(canonical)
+                        .asType(MethodType.genericMethodType(components.length))
+                        .asSpreader(Object[].class, components.length);
+            } else {
+                Constructor<T> empty;
+                try {
+                    empty = type.getDeclaredConstructor();
+                } catch (NoSuchMethodException e) {
+                    throw new IllegalArgumentException(type.getName() + " has no constructor without arguments", e);
+                }
+                this.constructor = lookup.unreflectConstructor(empty).asType(MethodType.methodType(Object.class));
+                addFields(type, lookup, properties);
+            }
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            throw new IllegalArgumentException("Can't bind " + type.getName(), e);
+        }
+        this.properties = properties.toArray(new Property[0]);
+    }
+
+    /**
+     * Add the fields of a class, the fields of its superclasses first
+     */
+    private static void addFields(Class<?> type, MethodHandles.Lookup lookup, ArrayList<Property> properties) throws IllegalAccessException {
+        Class<?> superclass = type.getSuperclass();
+        if(superclass != null && superclass != Object.class) {
+            addFields(superclass, MethodHandles.privateLookupIn(superclass, lookup), properties);
+        }
+        for(Field field : type.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if(Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || Modifier.isFinal(modifiers) || field.isSynthetic()) continue;
+            MDNName fieldName = field.getAnnotation(MDNName.class);
+            properties.add(new Property(fieldName != null ? fieldName.value() : field.getName(),
+                    field.getType(), field.getGenericType(),
+                    lookup.unreflectGetter(field).asType(GETTER), lookup.unreflectSetter(field).asType(SETTER)));
+        }
+    }
+
+    private static void checkBindable(Class<?> type) {
+        if(type.isPrimitive() || type.isArray() || type.isInterface() || type.isEnum()
+                || Modifier.isAbstract(type.getModifiers()) || type.getName().startsWith("java.")) {
+            throw new IllegalArgumentException(type.getName() + " can't be bound to an element");
+        }
+    }
+
+    /**
+     * @param type a class
+     * @return the kind of the values of <code>type</code> or -1 if it isn't a value
+     */
+    private static int valueKind(Class<?> type) {
+        if(type == String.class) return STRING;
+        if(type == int.class || type == Integer.class) return INT;
+        if(type == long.class || type == Long.class) return LONG;
+        if(type == short.class || type == Short.class) return SHORT;
+        if(type == byte.class || type == Byte.class) return BYTE;
+        if(type == float.class || type == Float.class) return FLOAT;
+        if(type == double.class || type == Double.class) return DOUBLE;
+        if(type == boolean.class || type == Boolean.class) return BOOLEAN;
+        if(type == char.class || type == Character.class) return CHAR;
+        if(type.isEnum()) return ENUM;
+        return -1;
+    }
+
+    /**
+     * @return the class or record bound by this binder
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * @return the name of the elements of the bound objects
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Create an object from an element, the name of the element isn't checked
+     * @param element the element to bind
+     * @return the new object
+     * @throws NullPointerException if <code>element</code> is null
+     */
+    public T bind(MDNElement element) throws NullPointerException {
+        return type.cast(read(Objects.requireNonNull(element)));
+    }
+
+    /**
+     * Create an object from each top-level element named {@link #getName()}
+     * @param document the document to bind
+     * @return the new objects in the order of the document
+     * @throws NullPointerException if <code>document</code> is null
+     */
+    public List<T> bindAll(MDNDocument document) throws NullPointerException {
+        MDNElement[] elements = document.getElementsByName(name);
+        ArrayList<T> objects = new ArrayList<>(elements.length);
+        for(MDNElement element : elements) {
+            objects.add(type.cast(read(element)));
+        }
+        return objects;
+    }
+
+    /**
+     * Create the element of an object, named {@link #getName()}
+     * @param value the object
+     * @return the new element
+     * @throws NullPointerException if <code>value</code> is null
+     */
+    public MDNElement unbind(T value) throws NullPointerException {
+        return write(Objects.requireNonNull(value), name);
+    }
+
+    /**
+     * Create a document with the element of each object, null objects are skipped
+     * @param values the objects
+     * @return the new document
+     * @throws NullPointerException if <code>values</code> is null
+     */
+    public MDNDocument unbindAll(Iterable<? extends T> values) throws NullPointerException {
+        MDNDocument document = new MDNDocument();
+        for(T value : values) {
+            if(value != null) document.addElement(write(value, name));
+        }
+        return document;
+    }
+
+    /**
+     * Format the elements of objects, see {@link #unbindAll(Iterable)} and {@link MDN#format(MDNDocument, Appendable)}
+     * @param values the objects
+     * @param out where the source is appended
+     * @throws NullPointerException if <code>values</code> or <code>out</code> is null
+     * @throws IOException if <code>out</code> throws one
+     */
+    public void format(Iterable<? extends T> values, Appendable out) throws NullPointerException, IOException {
+        MDN.format(unbindAll(values), out);
+    }
+
+    private Object read(MDNElement element) {
+        try {
+            if(record) {
+                Object[] arguments = new Object[properties.length];
+                for(int i = 0; i < properties.length; i++) {
+                    Object value = read(element, properties[i]);
+                    arguments[i] = value != MISSING ? value : properties[i].defaultValue;
+                }
+                return (Object) constructor.invokeExact(arguments);
+            }
+            Object object = (Object) constructor.invokeExact();
+            for(Property property : properties) {
+                Object value = read(element, property);
+                if(value != MISSING) property.setter.invokeExact(object, value);
+            }
+            return object;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Can't create " + type.getName(), e);
+        }
+    }
+
+    private static Object read(MDNElement element, Property property) {
+        switch(property.kind) {
+            case LIST: {
+                MDNParam param = element.getParamByName(property.name);
+                if(param == null) return MISSING;
+                int count = param.getValueCount();
+                ArrayList<Object> list = new ArrayList<>(count);
+                for(int i = 0; i < count; i++) {
+                    list.add(value(param, i, property.valueKind, property.type));
+                }
+                return list;
+            }
+            case ELEMENT: {
+                MDNElement child = element.getElementByName(property.name);
+                return child != null ? BINDERS.get(property.type).read(child) : MISSING;
+            }
+            case ELEMENTS: {
+                MDNElement[] children = element.getElementsByName(property.name);
+                if(children.length == 0) return MISSING;
+                MDNBinder<?> binder = BINDERS.get(property.type);
+                ArrayList<Object> list = new ArrayList<>(children.length);
+                for(MDNElement child : children) {
+                    list.add(binder.read(child));
+                }
+                return list;
+            }
+            default: {
+                MDNParam param = element.getParamByName(property.name);
+                if(param == null) return MISSING;
+                Object value = value(param, 0, property.kind, property.type);
+                return value != null ? value : MISSING;
+            }
+        }
+    }
+
+    /**
+     * Convert a value of a param
+     * @return the value or null if it is missing or invalid
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object value(MDNParam param, int index, int kind, Class<?> type) {
+        switch(kind) {
+            case STRING: return param.getValue(index, null);
+            case INT: return param.getIntValue(index, null);
+            case LONG: return param.getLongValue(index, null);
+            case SHORT: return param.getShortValue(index, null);
+            case BYTE: return param.getByteValue(index, null);
+            case FLOAT: return param.getFloatValue(index, null);
+            case DOUBLE: return param.getDoubleValue(index, null);
+            case CHAR: return param.getCharValue(index, null);
+            case ENUM: return param.getEnumValue(index, null, (Class) type);
+            case BOOLEAN: {
+                String value = param.getValue(index, null);
+                if("true".equals(value)) return Boolean.TRUE;
+                if("false".equals(value)) return Boolean.FALSE;
+                return null;
+            }
+            default: throw new IllegalStateException();
+        }
+    }
+
+    private MDNElement write(Object value, String name) {
+        MDNElement element = new MDNElement(name);
+        try {
+            for(Property property : properties) {
+                Object field = (Object) property.getter.invokeExact(value);
+                if(field != null) write(element, property, field);
+            }
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Can't read " + type.getName(), e);
+        }
+        return element;
+    }
+
+    private static void write(MDNElement element, Property property, Object value) {
+        switch(property.kind) {
+            case LIST: {
+                MDNParam param = new MDNParam(property.name);
+                for(Object item : (List<?>) value) {
+                    if(item != null) param.addValue(text(item));
+                }
+                element.addParam(param);
+                break;
+            }
+            case ELEMENT:
+                element.addElement(BINDERS.get(property.type).write(value, property.name));
+                break;
+            case ELEMENTS: {
+                MDNBinder<?> binder = BINDERS.get(property.type);
+                for(Object item : (List<?>) value) {
+                    if(item != null) element.addElement(binder.write(item, property.name));
+                }
+                break;
+            }
+            default:
+                element.addParam(new MDNParam(property.name).addValue(text(value)));
+        }
+    }
+
+    private static String text(Object value) {
+        return value instanceof Enum<?> ? ((Enum<?>) value).name() : value.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "MDNBinder[" + type.getName() + "]";
+    }
+
+    /**
+     * A field of a class or a component of a record
+     */
+    private static final class Property {
+
+        private final String name;
+        private final int kind;
+
+        /**
+         * The kind of the items of a {@link #LIST}
+         */
+        private final int valueKind;
+
+        /**
+         * The enum of an {@link #ENUM}, or the class of an {@link #ELEMENT} or of the items of a list
+         */
+        private final Class<?> type;
+
+        /**
+         * The value given to a record when the field is missing
+         */
+        private final Object defaultValue;
+
+        /**
+         * <code>(Object)Object</code>
+         */
+        private final MethodHandle getter;
+
+        /**
+         * <code>(Object, Object)void</code>, null for a record
+         */
+        private final MethodHandle setter;
+
+        private Property(String name, Class<?> raw, Type generic, MethodHandle getter, MethodHandle setter) {
+            this.name = name;
+            this.getter = getter;
+            this.setter = setter;
+            this.defaultValue = raw.isPrimitive() ? Array.get(Array.newInstance(raw, 1), 0) : null;
+            int kind = valueKind(raw);
+            if(kind >= 0) {
+                this.kind = kind;
+                this.valueKind = -1;
+                this.type = raw;
+            } else if(raw == List.class) {
+                Type argument = generic instanceof ParameterizedType ? ((ParameterizedType) generic).getActualTypeArguments()[0] : null;
+                if(!(argument instanceof Class<?>)) {
+                    throw new IllegalArgumentException("The list " + name + " must have a class as its type argument");
+                }
+                this.type = (Class<?>) argument;
+                this.valueKind = valueKind(type);
+                if(valueKind < 0) checkBindable(type);
+                this.kind = valueKind >= 0 ? LIST : ELEMENTS;
+            } else {
+                checkBindable(raw);
+                this.kind = ELEMENT;
+                this.valueKind = -1;
+                this.type = raw;
+            }
+        }
+
+    }
+
+}
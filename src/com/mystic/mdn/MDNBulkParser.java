@@ -0,0 +1,147 @@
+package com.mystic.mdn;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+
+/**
+ * This class is used to parse many files at once. <br>
+ * Each file is read on its own thread, a virtual thread when the runtime has them (Java 21 and later) or a thread
+ * of a fixed pool otherwise, and its bytes are parsed on a pool with one thread per processor. The number of files
+ * read or waiting to be parsed at the same time is limited, so the open files and the memory stay bounded.
+ * @see MDN#parseAll(java.util.Collection)
+ */
+final class MDNBulkParser {
+
+    /**
+     * The maximum number of files read or waiting to be parsed at the same time
+     */
+    static final int MAX_PENDING = 256;
+
+    /**
+     * The number of threads reading the files when there are no virtual threads
+     */
+    static final int IO_THREADS = 32;
+
+    private static final Method NEW_VIRTUAL_EXECUTOR = virtualExecutorFactory();
+
+    private MDNBulkParser() {
+    }
+
+    private static Method virtualExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * See {@link MDN#parseAll(java.util.Collection)}
+     */
+    static List<MDNFileResult> parseAll(List<? extends Path> paths) throws InterruptedException {
+        MDNFileResult[] results = new MDNFileResult[paths.size()];
+        parseAll(paths, result -> results[result.index] = result);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * See {@link MDN#parseAll(java.util.Collection, Consumer)}
+     */
+    static void parseAll(List<? extends Path> paths, Consumer<? super MDNFileResult> consumer) throws InterruptedException {
+        for(Path path : paths) {
+            if(path == null) throw new NullPointerException("Failed to parse file");
+        }
+        if(paths.isEmpty()) return;
+
+        LinkedBlockingQueue<Object> completed = new LinkedBlockingQueue<>();
+        Semaphore pending = new Semaphore(MAX_PENDING);
+        ExecutorService parsers = Executors.newFixedThreadPool(Math.min(paths.size(), Runtime.getRuntime().availableProcessors()), daemon("MDNBulkParser-parse"));
+        ExecutorService readers = readers(paths.size());
+        try {
+            for(int i = 0; i < paths.size(); i++) {
+                Path path = paths.get(i);
+                int index = i;
+                readers.execute(() -> read(path, index, pending, parsers, completed));
+            }
+            for(int i = 0; i < paths.size(); i++) {
+                Object result = completed.take();
+                if(result instanceof Error) throw (Error) result;
+                consumer.accept((MDNFileResult) result);
+            }
+        } finally {
+            readers.shutdownNow();
+            parsers.shutdownNow();
+        }
+    }
+
+    /**
+     * Read a file and give its bytes to the parsers
+     */
+    private static void read(Path path, int index, Semaphore pending, ExecutorService parsers, LinkedBlockingQueue<Object> completed) {
+        try {
+            pending.acquire();
+        } catch (InterruptedException e) {
+            return;
+        }
+        boolean submitted = false;
+        try {
+            byte[] bytes = Files.readAllBytes(path);
+            parsers.execute(() -> {
+                try {
+                    completed.add(parse(path, index, bytes));
+                } finally {
+                    pending.release();
+                }
+            });
+            submitted = true;
+        } catch (IOException | RuntimeException e) {
+            completed.add(new MDNFileResult(path, index, null, e));
+        } catch (Error e) {
+            completed.add(e);
+        } finally {
+            if(!submitted) pending.release();
+        }
+    }
+
+    private static Object parse(Path path, int index, byte[] bytes) {
+        try {
+            return new MDNFileResult(path, index, MDN.parse(bytes), null);
+        } catch (MDNLexerError | MDNParseError | RuntimeException e) {
+            return new MDNFileResult(path, index, null, e);
+        } catch (Error e) {
+            return e;
+        }
+    }
+
+    /**
+     * @return a virtual thread per task if the runtime has them, otherwise a fixed pool
+     */
+    private static ExecutorService readers(int files) {
+        if(NEW_VIRTUAL_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException | RuntimeException ignored) {
+            }
+        }
+        return Executors.newFixedThreadPool(Math.min(files, IO_THREADS), daemon("MDNBulkParser-read"));
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return task -> {
+            Thread thread = new Thread(task, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+}
@@ -0,0 +1,492 @@
+package com.mystic.mdn;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * This class is used to convert UTF-8 encoded bytes into tokens, it produces the same tokens as {@link MDNLexer}. <br>
+ * The bytes are read straight from one or more {@link ByteBuffer} (for example the mapped regions of a file),
+ * every structural character of MDN is ASCII so only identifiers and values are ever copied, and only values
+ * are decoded from UTF-8. The String of a token is only created when {@link #getValue()} is called. <br>
+ * The positions are counted in UTF-16 characters, like {@link MDNLexer}, and the errors are the same. Malformed
+ * UTF-8 inside a value is replaced the same way as {@link String#String(byte[], Charset)} does.
+ * @see MDN#parse(ByteBuffer)
+ * @see MDN#parse(java.nio.file.Path)
+ */
+public class MDNByteLexer implements MDNTokenSource {
+
+    private static final byte IDENTIFIER_START = 1;
+    private static final byte IDENTIFIER_BODY = 2;
+    private static final byte VALUE_SPECIAL = 4;
+    private static final byte[] BYTE_CLASS = new byte[256];
+
+    static {
+        for(char c = 'a'; c <= 'z'; c++) BYTE_CLASS[c] = IDENTIFIER_START | IDENTIFIER_BODY;
+        for(char c = 'A'; c <= 'Z'; c++) BYTE_CLASS[c] = IDENTIFIER_START | IDENTIFIER_BODY;
+        BYTE_CLASS['_'] = IDENTIFIER_START | IDENTIFIER_BODY;
+        for(char c = '0'; c <= '9'; c++) BYTE_CLASS[c] = IDENTIFIER_BODY;
+        BYTE_CLASS['-'] = IDENTIFIER_BODY;
+        BYTE_CLASS['"'] = VALUE_SPECIAL;
+        BYTE_CLASS['\\'] = VALUE_SPECIAL;
+        BYTE_CLASS['\n'] = VALUE_SPECIAL;
+        BYTE_CLASS[0] = VALUE_SPECIAL;
+    }
+
+    private final ByteBuffer[] chunks;
+    private int chunk = -1;
+
+    private ByteBuffer buffer = null;
+    private int length = 0;
+    private int ptr = -1;
+    private int mark = -1;
+    private int line = 0;
+    private int linePos = -1;
+    private int current = 0;
+
+    private byte[] scratch = new byte[0];
+    private int scratchLength = 0;
+    private byte[] decodeBuffer = new byte[0];
+
+    private boolean afterIdentifier = false;
+    private MDNTokenType type = null;
+    private String value = "";
+    private ByteBuffer valueBuffer = null;
+    private byte[] valueBytes = null;
+    private int valueOffset = 0, valueLength = 0;
+    private Charset valueCharset = StandardCharsets.UTF_8;
+    private int tokenLine = 0, tokenStart = 0, tokenEnd = 0;
+    private MDNStringPool pool = null;
+
+    /**
+     * Constructor for MDNByteLexer
+     * @param bytes the UTF-8 bytes you want to convert
+     * @throws NullPointerException if <code>bytes</code> is null
+     */
+    public MDNByteLexer(byte[] bytes) throws NullPointerException {
+        this(wrap(bytes));
+    }
+
+    private static ByteBuffer wrap(byte[] bytes) throws NullPointerException {
+        if(bytes == null) throw new NullPointerException("Failed to create MDNByteLexer");
+        return ByteBuffer.wrap(bytes);
+    }
+
+    /**
+     * Constructor for MDNByteLexer, the buffers can be heap or direct buffers and their position isn't changed
+     * @param chunks the consecutive parts of the UTF-8 source, from their position to their limit
+     * @throws NullPointerException if <code>chunks</code> or one of the chunks is null
+     */
+    public MDNByteLexer(ByteBuffer... chunks) throws NullPointerException {
+        if(chunks == null) throw new NullPointerException("Failed to create MDNByteLexer");
+        this.chunks = new ByteBuffer[chunks.length];
+        for(int i = 0; i < chunks.length; i++) {
+            if(chunks[i] == null) throw new NullPointerException("Failed to create MDNByteLexer");
+            this.chunks[i] = chunks[i].slice();
+        }
+    }
+
+    private static boolean isIdentifierStart(int b) {
+        return (BYTE_CLASS[b] & IDENTIFIER_START) != 0;
+    }
+
+    private static boolean isIdentifierBody(int b) {
+        return (BYTE_CLASS[b] & IDENTIFIER_BODY) != 0;
+    }
+
+    private static boolean isPlainValue(int b) {
+        return (BYTE_CLASS[b] & VALUE_SPECIAL) == 0;
+    }
+
+    /**
+     * @param b the byte
+     * @param previous the byte before <code>b</code>
+     * @return the number of UTF-16 characters <code>b</code> adds to the line, the first continuation byte of a
+     * 4 bytes sequence counts for its low surrogate and the other continuation bytes count for nothing
+     */
+    private static int width(int b, int previous) {
+        if((b & 0xC0) == 0x80) return previous >= 0xF0 ? 1 : 0;
+        return 1;
+    }
+
+    /**
+     * Move to the next chunk, the bytes of the current token (from {@link #mark}) are first copied into {@link #scratch}
+     */
+    private void nextChunk() {
+        if(mark >= 0) {
+            appendScratch(buffer, mark, length - mark);
+            mark = 0;
+        }
+        while(chunk + 1 < chunks.length) {
+            chunk++;
+            buffer = chunks[chunk];
+            length = buffer.limit();
+            ptr = 0;
+            if(length > 0) return;
+        }
+        length = 0;
+        ptr = 0;
+    }
+
+    /**
+     * Advance to the next byte
+     */
+    private void advance() {
+        int previous = current;
+        ptr++;
+        if(ptr >= length) nextChunk();
+        if(ptr < length) current = buffer.get(ptr) & 0xFF;
+        else current = 0;
+        if(current == '\n') {
+            line++;
+            linePos = 0;
+        } else linePos += width(current, previous);
+    }
+
+    /**
+     * Skip the bytes of the current chunk up to (excluding) <code>end</code> that are known not to be a linebreak,
+     * and advance to the byte at <code>end</code>
+     * @param end the index of the next byte to read
+     * @param columns the number of UTF-16 characters skipped, excluding the current one
+     */
+    private void skipTo(int end, int columns) {
+        linePos += columns;
+        if(end - 1 > ptr) current = buffer.get(end - 1) & 0xFF;
+        ptr = end - 1;
+        advance();
+    }
+
+    private void appendScratch(ByteBuffer bytes, int offset, int count) {
+        ensureScratch(count);
+        bytes.get(offset, scratch, scratchLength, count);
+        scratchLength += count;
+    }
+
+    private void appendScratch(int b) {
+        ensureScratch(1);
+        scratch[scratchLength++] = (byte) b;
+    }
+
+    private void ensureScratch(int count) {
+        if(scratchLength + count > scratch.length) {
+            byte[] grown = new byte[Math.max(16, Math.max(scratchLength + count, scratch.length * 2))];
+            System.arraycopy(scratch, 0, grown, 0, scratchLength);
+            scratch = grown;
+        }
+    }
+
+    /**
+     * @return the current character, as {@link MDNLexer} would see it, for error messages
+     */
+    private char currentChar() {
+        if(current < 0x80 || ptr >= length) return (char) current;
+        byte[] bytes = new byte[current >= 0xF0 ? 4 : current >= 0xE0 ? 3 : 2];
+        int count = 0;
+        ByteBuffer from = buffer;
+        int index = ptr;
+        int next = chunk + 1;
+        while(count < bytes.length) {
+            if(index < from.limit()) bytes[count++] = from.get(index++);
+            else if(next < chunks.length) {
+                from = chunks[next++];
+                index = 0;
+            } else break;
+        }
+        String decoded = new String(bytes, 0, count, StandardCharsets.UTF_8);
+        return decoded.isEmpty() ? (char) current : decoded.charAt(0);
+    }
+
+    private MDNTokenType token(MDNTokenType type, int line, int start, int end) {
+        this.type = type;
+        this.value = "";
+        this.valueBuffer = null;
+        this.valueBytes = null;
+        this.valueOffset = 0;
+        this.valueLength = 0;
+        this.tokenLine = line;
+        this.tokenStart = start;
+        this.tokenEnd = end;
+        return type;
+    }
+
+    /**
+     * Set the value of the token to the bytes from {@link #mark} to <code>end</code>, or to {@link #scratch}
+     * if the token started in a previous chunk
+     */
+    private MDNTokenType token(MDNTokenType type, int end, Charset charset, int line, int start, int tokenEnd) {
+        token(type, line, start, tokenEnd);
+        this.value = null;
+        this.valueCharset = charset;
+        if(scratchLength > 0) {
+            appendScratch(buffer, mark, end - mark);
+            this.valueBytes = scratch;
+            this.valueLength = scratchLength;
+        } else {
+            this.valueBuffer = buffer;
+            this.valueOffset = mark;
+            this.valueLength = end - mark;
+        }
+        return type;
+    }
+
+    /**
+     * Read the next token, its value and position are then available through {@link #getValue()},
+     * {@link #getLine()}, {@link #getStart()} and {@link #getEnd()}
+     * @return the type of the token or null if the end of the source is reached
+     * @throws MDNLexerError if there is a syntax error
+     */
+    @Override
+    public MDNTokenType nextToken() throws MDNLexerError {
+        mark = -1;
+        scratchLength = 0;
+        if(ptr < 0) advance();
+
+        while(current != 0) {
+            if(afterIdentifier) {
+                afterIdentifier = false;
+                if(current == '"') {
+                    advance();
+                    continue;
+                }
+            }
+            if(isIdentifierStart(current)) {
+                int startPos = linePos;
+                mark = ptr;
+                do {
+                    int end = ptr + 1;
+                    while(end < length && isIdentifierBody(buffer.get(end) & 0xFF)) end++;
+                    skipTo(end, end - 1 - ptr);
+                } while(isIdentifierBody(current));
+                afterIdentifier = true;
+                return token(MDNTokenType.IDENTIFIER, ptr, StandardCharsets.ISO_8859_1, line, startPos, linePos + 1);
+            }
+            switch (current) {
+                case '"':
+                    return makeValue();
+                case '#':
+                    while(current != '\n' && current != 0) {
+                        advance();
+                    }
+                    continue;
+                case ',':
+                    token(MDNTokenType.COMMA, line, linePos, linePos + 1);
+                    advance();
+                    return type;
+                case '(':
+                    token(MDNTokenType.L_PARENT, line, linePos, linePos + 1);
+                    advance();
+                    return type;
+                case ')':
+                    token(MDNTokenType.R_PARENT, line, linePos, linePos + 1);
+                    advance();
+                    return type;
+                case '[':
+                    token(MDNTokenType.L_BRACKET, line, linePos, linePos + 1);
+                    advance();
+                    return type;
+                case ']':
+                    token(MDNTokenType.R_BRACKET, line, linePos, linePos + 1);
+                    advance();
+                    return type;
+                case '<':
+                    advance();
+                    if(current == '/') {
+                        advance();
+                        if(current == '>') return token(MDNTokenType.MARK_END, line, linePos, linePos + 1);
+                        else throw new MDNLexerError("Unexpected '" + currentChar() + "', should be '>' at " + line + ":" + linePos + "!");
+                    } else return token(MDNTokenType.L_ANGLE, line, linePos, linePos + 1);
+                case '/':
+                    advance();
+                    if(current == '>') return token(MDNTokenType.MARK_END, line, linePos, linePos + 1);
+                    else throw new MDNLexerError("Unexpected '" + currentChar() + "', should be '>' at " + line + ":" + linePos + "!");
+                case '>':
+                    token(MDNTokenType.R_ANGLE, line, linePos, linePos + 1);
+                    advance();
+                    return type;
+            }
+            advance();
+        }
+
+        return token(null, line, linePos, linePos);
+    }
+
+    /**
+     * Read a value starting at the current '"'. The value is a slice of the chunk unless it contains escape
+     * sequences or spans several chunks, in which case it is copied into {@link #scratch}
+     * @return {@link MDNTokenType#VALUE}
+     * @throws MDNLexerError if the value is not closed on the same line
+     */
+    private MDNTokenType makeValue() throws MDNLexerError {
+        int startPos = linePos;
+        advance();
+        mark = ptr;
+        boolean escaped = false;
+        boolean skip = false;
+        while(true) {
+            if(!skip) {
+                int end = ptr;
+                int columns = 0;
+                int previous = current;
+                if(isPlainValue(current) && ptr < length) {
+                    end++;
+                    while(end < length) {
+                        int b = buffer.get(end) & 0xFF;
+                        if(!isPlainValue(b)) break;
+                        columns += width(b, previous);
+                        previous = b;
+                        end++;
+                    }
+                }
+                if(end > ptr) {
+                    if(escaped) appendScratch(buffer, ptr, end - ptr);
+                    skipTo(end, columns);
+                    continue;
+                }
+                if(current == '"') break;
+            }
+            if(current == 0) {
+                throw new MDNLexerError("Unexpected EOF, should be '\"' at " + line + ":" + linePos + "!");
+            } else if(current == '\n') {
+                throw new MDNLexerError("Unexpected '\n' (linebreak), at " + line + ":" + linePos + "!");
+            }
+            if(!escaped) {
+                appendScratch(buffer, mark, ptr - mark);
+                escaped = true;
+                mark = -1;
+            }
+            if(current == '\\') {
+                if(skip) {
+                    appendScratch('\\');
+                    skip = false;
+                } else skip = true;
+            } else if(skip) {
+                switch (current) {
+                    case 't': appendScratch('\t'); break;
+                    case 'r': appendScratch('\r'); break;
+                    case 'n': appendScratch('\n'); break;
+                    case 'f': appendScratch('\f'); break;
+                    default: appendScratch(current);
+                }
+                skip = false;
+            } else appendScratch(current);
+            advance();
+        }
+        int endLine = line, endPos = linePos + 1;
+        if(escaped) {
+            token(MDNTokenType.VALUE, endLine, startPos, endPos);
+            this.value = null;
+            this.valueCharset = StandardCharsets.UTF_8;
+            this.valueBytes = scratch;
+            this.valueLength = scratchLength;
+        } else token(MDNTokenType.VALUE, ptr, StandardCharsets.UTF_8, endLine, startPos, endPos);
+        mark = -1;
+        advance();
+        return type;
+    }
+
+    /**
+     * Convert the bytes into a list of tokens
+     * @return the list of tokens created
+     * @throws MDNLexerError if there is a syntax error
+     */
+    public ArrayList<MDNToken> makeTokens() throws MDNLexerError {
+        ArrayList<MDNToken> tokens = new ArrayList<>();
+
+        while(nextToken() != null) {
+            tokens.add(toToken());
+        }
+
+        return tokens;
+    }
+
+    /**
+     * @return the type of the last token read by {@link #nextToken()} or null if there is none
+     */
+    public MDNTokenType getType() {
+        return type;
+    }
+
+    /**
+     * @return the value of the last token read by {@link #nextToken()} (empty for everything but identifiers and values)
+     */
+    @Override
+    public String getValue() {
+        if(value == null) {
+            if(pool != null) {
+                if(valueBytes != null) value = pool.internAscii(ByteBuffer.wrap(valueBytes), 0, valueLength);
+                else value = pool.internAscii(valueBuffer, valueOffset, valueLength);
+                if(value != null) return value;
+            }
+            if(valueBytes != null) {
+                value = new String(valueBytes, 0, valueLength, valueCharset);
+            } else if(valueBuffer.hasArray()) {
+                value = new String(valueBuffer.array(), valueBuffer.arrayOffset() + valueOffset, valueLength, valueCharset);
+            } else {
+                if(decodeBuffer.length < valueLength) decodeBuffer = new byte[Math.max(valueLength, decodeBuffer.length * 2)];
+                valueBuffer.get(valueOffset, decodeBuffer, 0, valueLength);
+                value = new String(decodeBuffer, 0, valueLength, valueCharset);
+            }
+            if(pool != null) value = pool.intern(value);
+        }
+        return value;
+    }
+
+    /**
+     * Set the pool used by {@link #getValue()} to share the identifiers and values
+     * @param pool the pool or null to create a new String for every value
+     */
+    void setPool(MDNStringPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * @return the line of the last token read by {@link #nextToken()}
+     */
+    @Override
+    public int getLine() {
+        return tokenLine;
+    }
+
+    /**
+     * @return the index of the start of the last token read by {@link #nextToken()} on its line
+     */
+    @Override
+    public int getStart() {
+        return tokenStart;
+    }
+
+    /**
+     * @return the index of the end of the last token read by {@link #nextToken()} on its line
+     */
+    @Override
+    public int getEnd() {
+        return tokenEnd;
+    }
+
+    /**
+     * @return -1, the bytes are not counted as characters
+     */
+    @Override
+    public int getOffset() {
+        return -1;
+    }
+
+    /**
+     * @return -1, the bytes are not counted as characters
+     */
+    @Override
+    public int getEndOffset() {
+        return -1;
+    }
+
+    /**
+     * Create a {@link MDNToken} from the last token read by {@link #nextToken()}
+     * @return the token created
+     */
+    @Override
+    public MDNToken toToken() {
+        return new MDNToken(type, getValue(), tokenLine, tokenStart, tokenEnd);
+    }
+
+}
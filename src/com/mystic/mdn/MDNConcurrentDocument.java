@@ -0,0 +1,150 @@
+package com.mystic.mdn;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * This class holds a document shared between threads, it is read through immutable {@link MDNFrozenDocument}
+ * snapshots and updated by replacing the snapshot. <br>
+ * A read takes the current snapshot without locking, so readers never wait for writers and a reader that keeps
+ * its snapshot sees the same document for as long as it uses it, even if the document is updated in the meantime.
+ * An update is applied to a mutable copy of the current snapshot, which is then frozen and published at once,
+ * so readers see either all of an update or none of it. Updates are applied one at a time, each one sees the
+ * result of the previous ones. <br>
+ * An update copies the whole document, this class is meant for documents that are read much more often than
+ * they are changed.
+ * @see MDNFrozenDocument
+ */
+public final class MDNConcurrentDocument {
+
+    private volatile MDNFrozenDocument snapshot;
+    private long version = 0;
+
+    /**
+     * Constructor for an empty MDNConcurrentDocument
+     */
+    public MDNConcurrentDocument() {
+        this.snapshot = new MDNDocument().freeze();
+    }
+
+    /**
+     * Constructor for MDNConcurrentDocument, holding a copy of <code>document</code>
+     * @param document the initial content
+     * @throws NullPointerException if <code>document</code> is null
+     */
+    public MDNConcurrentDocument(MDNDocument document) throws NullPointerException {
+        this.snapshot = document.freeze();
+    }
+
+    /**
+     * Get the current content, it is never changed by the later updates
+     * @return the current snapshot
+     */
+    public MDNFrozenDocument snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return the number of updates applied to this document
+     */
+    public long getVersion() {
+        synchronized(this) {
+            return version;
+        }
+    }
+
+    /**
+     * Read the elements of the current snapshot, see {@link MDNFrozenDocument#getElements()}
+     * @return the top-level elements of the current snapshot
+     */
+    public List<MDNFrozenElement> getElements() {
+        return snapshot.getElements();
+    }
+
+    /**
+     * Find elements in the current snapshot, see {@link MDNFrozenDocument#getElementsByName(String)}
+     * @param name the name of the elements you are looking for
+     * @return all the matching top-level elements of the current snapshot
+     */
+    public MDNFrozenElement[] getElementsByName(String name) {
+        return snapshot.getElementsByName(name);
+    }
+
+    /**
+     * Find an element in the current snapshot, see {@link MDNFrozenDocument#getElementByName(String)}
+     * @param name the name of the element you are looking for
+     * @return the first matching top-level element of the current snapshot or null
+     */
+    public MDNFrozenElement getElementByName(String name) {
+        return snapshot.getElementByName(name);
+    }
+
+    /**
+     * Apply an update to a mutable copy of the current content and publish the result. <br>
+     * If <code>update</code> throws, nothing is published. The copy must not be used once <code>update</code>
+     * returned, its later changes are ignored.
+     * @param update the changes to apply
+     * @return the new snapshot
+     * @throws NullPointerException if <code>update</code> is null
+     */
+    public MDNFrozenDocument update(Consumer<? super MDNDocument> update) throws NullPointerException {
+        if(update == null) throw new NullPointerException("Failed to update");
+        synchronized(this) {
+            MDNDocument document = snapshot.thaw();
+            update.accept(document);
+            return publish(document.freeze());
+        }
+    }
+
+    /**
+     * Replace the content with a copy of <code>document</code>
+     * @param document the new content
+     * @return the new snapshot
+     * @throws NullPointerException if <code>document</code> is null
+     */
+    public MDNFrozenDocument set(MDNDocument document) throws NullPointerException {
+        MDNFrozenDocument frozen = document.freeze();
+        synchronized(this) {
+            return publish(frozen);
+        }
+    }
+
+    /**
+     * Replace the content with a copy of <code>document</code> only if the current snapshot is <code>expected</code>,
+     * which lets a writer update a snapshot it read earlier without holding anything in between
+     * @param expected the snapshot the new content is based on
+     * @param document the new content
+     * @return {@code true} if the content was replaced, {@code false} if another update came first
+     * @throws NullPointerException if <code>document</code> is null
+     */
+    public boolean compareAndSet(MDNFrozenDocument expected, MDNDocument document) throws NullPointerException {
+        MDNFrozenDocument frozen = document.freeze();
+        synchronized(this) {
+            if(snapshot != expected) return false;
+            publish(frozen);
+            return true;
+        }
+    }
+
+    /**
+     * Must be called while holding the lock of this document
+     */
+    private MDNFrozenDocument publish(MDNFrozenDocument frozen) {
+        snapshot = frozen;
+        version++;
+        return frozen;
+    }
+
+    /**
+     * @return a mutable copy of the current content
+     */
+    public MDNDocument thaw() {
+        return snapshot.thaw();
+    }
+
+    @Override
+    public String toString() {
+        return "MDNConcurrentDocument[version=" + getVersion() + ", elements=" + snapshot.getElementCount() + "]";
+    }
+
+}
@@ -0,0 +1,161 @@
+package com.mystic.mdn;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This class is used to compute the {@link MDNPatch} between two documents. <br>
+ * Lists are compared through the structural hashes of their items (see {@link MDNHash}), which are cached on the
+ * elements and params, so an unchanged subtree is skipped without being walked. In each list that changed, the
+ * items that are the same at the start and at the end are kept, then the items left in the new list are matched
+ * with those left in the old one: first the identical ones (moved items), then the ones with the same name (edited
+ * in place) and then, for elements, the ones with the same params and children (renamed). The new items that
+ * aren't matched are added, the old ones that aren't matched are removed.
+ * @see MDN#diff(MDNDocument, MDNDocument)
+ */
+final class MDNDiff {
+
+    private MDNDiff() {
+    }
+
+    /**
+     * See {@link MDN#diff(MDNDocument, MDNDocument)}
+     */
+    static MDNPatch diff(MDNDocument from, MDNDocument to) {
+        return new MDNPatch(from.hash(), to.hash(), diff(from.getElements(), to.getElements(), true));
+    }
+
+    /**
+     * @param elements a list of elements
+     * @return the hash of the list, from the cached hashes of the elements
+     */
+    static long hash(List<MDNElement> elements) {
+        long hash = elements.size();
+        for(int i = 0; i < elements.size(); i++) {
+            hash = MDNHash.combine(hash, elements.get(i).hash());
+        }
+        return MDNHash.mix(hash);
+    }
+
+    private static long hash(Object item) {
+        return item instanceof MDNElement ? ((MDNElement) item).hash() : ((MDNParam) item).hash();
+    }
+
+    private static String name(Object item) {
+        return item instanceof MDNElement ? ((MDNElement) item).getName() : ((MDNParam) item).getName();
+    }
+
+    /**
+     * Compare two lists of elements or params
+     * @return the new content of the list or null if the lists are the same
+     */
+    private static MDNPatch.ListEdit diff(List<?> from, List<?> to, boolean elements) {
+        int size = from.size(), count = to.size();
+        int start = 0;
+        while(start < size && start < count && hash(from.get(start)) == hash(to.get(start))) start++;
+        if(start == size && start == count) return null;
+        int end = 0;
+        while(end < size - start && end < count - start && hash(from.get(size - 1 - end)) == hash(to.get(count - 1 - end))) end++;
+
+        // For each item in the middle of the new list, the item of the old list it is matched with, -1 if none
+        int[] matches = new int[count - start - end];
+        boolean[] edited = new boolean[matches.length];
+        Arrays.fill(matches, -1);
+        if(size - start - end > 0 && matches.length > 0) match(from, to, start, size - end, elements, matches, edited);
+
+        ArrayList<MDNPatch.Op> ops = new ArrayList<>();
+        if(start > 0) ops.add(new MDNPatch.Op(MDNPatch.COPY, 0, start, null));
+        for(int i = 0; i < matches.length; i++) {
+            int match = matches[i];
+            Object item = to.get(start + i);
+            if(match < 0) {
+                ops.add(new MDNPatch.Op(MDNPatch.INSERT, -1, 0, elements ? MDNPatch.copy((MDNElement) item) : MDNPatch.copy((MDNParam) item)));
+            } else if(edited[i]) {
+                ops.add(new MDNPatch.Op(MDNPatch.EDIT, match, 1, edit((MDNElement) from.get(match), (MDNElement) item)));
+            } else {
+                copy(ops, match, 1);
+            }
+        }
+        if(end > 0) copy(ops, size - end, end);
+        return new MDNPatch.ListEdit(size, ops.toArray(new MDNPatch.Op[0]));
+    }
+
+    /**
+     * Add <code>count</code> items kept from index <code>from</code>, merged with the previous run when they follow it
+     */
+    private static void copy(ArrayList<MDNPatch.Op> ops, int from, int count) {
+        MDNPatch.Op last = ops.isEmpty() ? null : ops.get(ops.size() - 1);
+        if(last != null && last.kind == MDNPatch.COPY && last.from + last.count == from) {
+            ops.set(ops.size() - 1, new MDNPatch.Op(MDNPatch.COPY, last.from, last.count + count, null));
+        } else {
+            ops.add(new MDNPatch.Op(MDNPatch.COPY, from, count, null));
+        }
+    }
+
+    /**
+     * Match the items in the middle of the new list with the items in <code>[start, end)</code> of the old list
+     * @param matches the index of the old item matched with each new item
+     * @param edited whether each matched item has to be edited
+     */
+    private static void match(List<?> from, List<?> to, int start, int end, boolean elements, int[] matches, boolean[] edited) {
+        HashMap<Long, ArrayDeque<Integer>> byHash = new HashMap<>();
+        for(int i = start; i < end; i++) {
+            byHash.computeIfAbsent(hash(from.get(i)), k -> new ArrayDeque<>()).add(i);
+        }
+        boolean[] used = new boolean[end - start];
+        int left = 0;
+        for(int i = 0; i < matches.length; i++) {
+            ArrayDeque<Integer> found = byHash.get(hash(to.get(start + i)));
+            if(found == null || found.isEmpty()) {
+                left++;
+                continue;
+            }
+            matches[i] = found.poll();
+            used[matches[i] - start] = true;
+        }
+        // Changed params are replaced, only elements are edited
+        if(left == 0 || !elements) return;
+
+        HashMap<String, ArrayDeque<Integer>> byName = new HashMap<>();
+        for(int i = start; i < end; i++) {
+            if(!used[i - start]) byName.computeIfAbsent(name(from.get(i)), k -> new ArrayDeque<>()).add(i);
+        }
+        for(int i = 0; i < matches.length && left > 0; i++) {
+            if(matches[i] >= 0) continue;
+            ArrayDeque<Integer> found = byName.get(name(to.get(start + i)));
+            if(found == null || found.isEmpty()) continue;
+            matches[i] = found.poll();
+            edited[i] = true;
+            used[matches[i] - start] = true;
+            left--;
+        }
+        if(left == 0) return;
+
+        HashMap<Long, ArrayDeque<Integer>> byContent = new HashMap<>();
+        for(int i = start; i < end; i++) {
+            if(!used[i - start]) byContent.computeIfAbsent(((MDNElement) from.get(i)).contentHash(), k -> new ArrayDeque<>()).add(i);
+        }
+        if(byContent.isEmpty()) return;
+        for(int i = 0; i < matches.length; i++) {
+            if(matches[i] >= 0) continue;
+            ArrayDeque<Integer> found = byContent.get(((MDNElement) to.get(start + i)).contentHash());
+            if(found == null || found.isEmpty()) continue;
+            matches[i] = found.poll();
+            edited[i] = true;
+        }
+    }
+
+    /**
+     * Compare two elements matched with each other
+     */
+    private static MDNPatch.ElementEdit edit(MDNElement from, MDNElement to) {
+        boolean renamed = !Objects.equals(from.getName(), to.getName());
+        return new MDNPatch.ElementEdit(renamed, renamed ? to.getName() : null,
+                diff(from.getParams(), to.getParams(), false), diff(from.getElements(), to.getElements(), true));
+    }
+
+}
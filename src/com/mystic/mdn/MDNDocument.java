@@ -5,7 +5,11 @@ import java.util.ArrayList;
 /**
  * This class is used to store the content of an MDN file, so it's easier to access data. <br>
  * It contains a list of element {@link MDNDocument#elements}. <br>
- * You can add and remove elements from it. <br>
+ * You can add and remove elements from it, the by-name lookups use a name index once there are enough elements. <br>
+ * Documents are compared by value, see {@link #equals(Object)}. So are elements, which changes the meaning of
+ * {@link java.util.List#remove(Object)}, {@link java.util.List#indexOf(Object)} and
+ * {@link java.util.List#contains(Object)} on the lists of elements: they used to find an element by identity, they
+ * now find the first equal one. <br>
  * <br>
  * Format:<br>
  * <pre>
@@ -18,7 +22,12 @@ import java.util.ArrayList;
  */
 public class MDNDocument {
 
-    private final ArrayList<MDNElement> elements = new ArrayList<>();
+    private final MDNElement.Children elements = new MDNElement.Children(this);
+
+    /**
+     * The structural hash of the elements, 0 until it is computed, see {@link #hash()}
+     */
+    private volatile long hash = 0;
 
     /**
      * This function is used to add an element to the {@link MDNDocument#elements list}
@@ -33,14 +42,7 @@ public class MDNDocument {
      * @param name the name of the element you want to remove
      */
     public void removeElement(String name) {
-        MDNElement toRemove = null;
-        for(MDNElement element : elements) {
-            if(element.getName().equals(name)) {
-                toRemove = element;
-                break;
-            }
-        }
-        if(toRemove != null) elements.remove(toRemove);
+        elements.removeFirst(name);
     }
 
     /**
@@ -57,15 +59,7 @@ public class MDNDocument {
      * @return an array containing all the matching elements
      */
     public MDNElement[] getElementsByName(String name) {
-        ArrayList<MDNElement> list = new ArrayList<>();
-
-        for(MDNElement element : elements) {
-            if(element.getName().equals(name)) list.add(element);
-        }
-
-        MDNElement[] arr = new MDNElement[list.size()];
-        arr = list.toArray(arr);
-        return arr;
+        return elements.all(name, new MDNElement[0]);
     }
 
     /**
@@ -74,10 +68,62 @@ public class MDNDocument {
      * @return the element found or null if there is no matching elements
      */
     public MDNElement getElementByName(String name) {
-        for(MDNElement element : elements) {
-            if(element.getName().equals(name)) return element;
-        }
-        return null;
+        return elements.first(name);
+    }
+
+    /**
+     * Get the structural hash of this document, computed from the hashes of its elements and cached until one of
+     * them changes
+     * @return the hash, never 0
+     * @see MDNHash
+     */
+    long hash() {
+        long hash = this.hash;
+        if(hash != 0) return hash;
+        return this.hash = MDNDiff.hash(elements);
+    }
+
+    /**
+     * Drop the cached hash, called when one of the elements changes
+     */
+    void invalidate() {
+        hash = 0;
+    }
+
+    /**
+     * Compare this document with another one, they are equal if they have equal elements in the same order,
+     * see {@link MDNElement#equals(Object)}. <br>
+     * The structural hashes are compared first and are cached on the elements until they are modified, so
+     * checking whether a document changed only walks the elements modified since the last check.
+     * @param object the object you want to compare with
+     * @return {@code true} if <code>object</code> is an equal document
+     */
+    @Override
+    public boolean equals(Object object) {
+        if(object == this) return true;
+        if(!(object instanceof MDNDocument)) return false;
+        MDNDocument document = (MDNDocument) object;
+        return hash() == document.hash() && elements.equals(document.elements);
+    }
+
+    /**
+     * Get the hash code of this document, derived from its structural hash. A document used as a key in a hash
+     * map must not be modified.
+     * @return the hash code
+     */
+    @Override
+    public int hashCode() {
+        long hash = hash();
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * Create an immutable copy of this document, which uses less memory and can be shared between threads
+     * @return the frozen copy
+     * @see MDNFrozenDocument#thaw()
+     */
+    public MDNFrozenDocument freeze() {
+        return new MDNFrozenDocument(this);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,494 @@
+package com.mystic.mdn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32C;
+
+/**
+ * This class is used to share the {@link MDNDocument} parsed from files instead of parsing them again. <br>
+ * Before a cached document is returned, the modification time and the size of its file are checked, and, if the
+ * cache verifies the contents, a hash of the file too. The file is parsed again when it changed. <br>
+ * The documents are kept in least recently used order and the oldest ones are dropped when the estimated
+ * memory used by the documents goes over the budget of the cache. When several threads ask for the same file
+ * at the same time, it is only parsed once and they all get the same document. <br>
+ * {@link #startWatching()} starts a background thread that parses the files again as soon as they change, so the
+ * next {@link #get(Path)} doesn't have to. <br>
+ * The documents returned are shared by all the callers, they must not be modified. Reading them from several
+ * threads at the same time is safe: the lookups and the hashes only publish caches that are complete, and the
+ * documents are parsed eagerly, never with {@link MDN#parseLazy(String)}. A caller that wants to change a
+ * document must work on a copy, for instance <code>document.freeze().thaw()</code>.
+ * @see MDN#parse(Path)
+ */
+public final class MDNDocumentCache implements Closeable {
+
+    /**
+     * Default memory budget of a cache, in bytes
+     */
+    public static final long DEFAULT_MAX_WEIGHT = 64L << 20;
+
+    private static final int ELEMENT_WEIGHT = 96;
+    private static final int PARAM_WEIGHT = 72;
+    private static final int STRING_WEIGHT = 48;
+
+    private final long maxWeight;
+    private final boolean verifyContent;
+
+    /**
+     * The cached documents in least recently used order, guarded by <code>this</code>
+     */
+    private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final HashMap<Path, FutureTask<Entry>> loading = new HashMap<>();
+    private long weight = 0;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder loadTime = new LongAdder();
+
+    private WatchService watcher = null;
+    private final HashSet<Path> watched = new HashSet<>();
+
+    /**
+     * Constructor for a cache using {@link #DEFAULT_MAX_WEIGHT} and checking only the modification time and size of the files
+     */
+    public MDNDocumentCache() {
+        this(DEFAULT_MAX_WEIGHT, false);
+    }
+
+    /**
+     * Constructor for MDNDocumentCache
+     * @param maxWeight the estimated memory, in bytes, the cached documents can use, a document heavier than
+     *                  this is returned but never cached
+     * @param verifyContent {@code true} to also compare a hash of the content of the files before returning a
+     *                      cached document, the files are then read on every {@link #get(Path)}
+     * @throws IllegalArgumentException if <code>maxWeight</code> is negative
+     */
+    public MDNDocumentCache(long maxWeight, boolean verifyContent) throws IllegalArgumentException {
+        if(maxWeight < 0) throw new IllegalArgumentException("Invalid max weight: " + maxWeight);
+        this.maxWeight = maxWeight;
+        this.verifyContent = verifyContent;
+    }
+
+    /**
+     * Get the document of a file, parsing it only if it isn't cached or if it changed
+     * @param path the path of the file
+     * @return the document, shared with the other callers
+     * @throws NullPointerException if {@code path} is null
+     * @throws IOException if the file could not be read
+     * @throws MDNLexerError if any error occurs during {@link MDNLexer#nextToken()}
+     * @throws MDNParseError if any error occurs during {@link MDNParser#parse()}
+     */
+    public MDNDocument get(Path path) throws NullPointerException, IOException, MDNLexerError, MDNParseError {
+        if(path == null) throw new NullPointerException("Failed to get document");
+        Path key = path.toAbsolutePath().normalize();
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            invalidate(key);
+            throw e;
+        }
+        Entry entry;
+        synchronized(this) {
+            entry = entries.get(key);
+        }
+        if(entry != null && isValid(key, entry, attributes)) {
+            hits.increment();
+            return entry.document;
+        }
+        misses.increment();
+        return load(key, entry).document;
+    }
+
+    /**
+     * Parse a file and cache it, or wait for the thread already parsing it
+     * @param key the absolute path of the file
+     * @param stale the entry being replaced or null
+     * @return the new entry
+     */
+    private Entry load(Path key, Entry stale) throws IOException, MDNLexerError, MDNParseError {
+        FutureTask<Entry> task;
+        boolean owner = false;
+        synchronized(this) {
+            Entry current = entries.get(key);
+            if(current != null && current != stale) return current;
+            task = loading.get(key);
+            if(task == null) {
+                task = new FutureTask<>(() -> parse(key));
+                loading.put(key, task);
+                owner = true;
+            }
+        }
+        if(owner) {
+            try {
+                task.run();
+            } finally {
+                synchronized(this) {
+                    loading.remove(key);
+                }
+            }
+        }
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for " + key, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if(cause instanceof IOException) throw (IOException) cause;
+            if(cause instanceof MDNLexerError) throw (MDNLexerError) cause;
+            if(cause instanceof MDNParseError) throw (MDNParseError) cause;
+            if(cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if(cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Parse a file and put it in the cache
+     */
+    private Entry parse(Path key) throws IOException, MDNLexerError, MDNParseError {
+        long start = System.nanoTime();
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+            MDNDocument document;
+            long hash = 0;
+            if(verifyContent) {
+                byte[] bytes = Files.readAllBytes(key);
+                hash = hash(bytes);
+                document = MDN.parse(new String(bytes, StandardCharsets.UTF_8));
+            } else document = MDN.parse(key);
+            Entry entry = new Entry(document, attributes.lastModifiedTime().toMillis(), attributes.size(), hash, weigh(document));
+            put(key, entry);
+            loads.increment();
+            return entry;
+        } catch (IOException | MDNLexerError | MDNParseError | RuntimeException e) {
+            failures.increment();
+            throw e;
+        } finally {
+            loadTime.add(System.nanoTime() - start);
+        }
+    }
+
+    private synchronized void put(Path key, Entry entry) {
+        Entry previous = entries.remove(key);
+        if(previous != null) weight -= previous.weight;
+        if(entry.weight > maxWeight) return;
+        entries.put(key, entry);
+        weight += entry.weight;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while(weight > maxWeight) {
+            Entry eldest = iterator.next();
+            iterator.remove();
+            weight -= eldest.weight;
+            evictions.increment();
+        }
+        watch(key);
+    }
+
+    /**
+     * Drop the document of a file from the cache
+     * @param path the path of the file
+     */
+    public synchronized void invalidate(Path path) {
+        Entry entry = entries.remove(path.toAbsolutePath().normalize());
+        if(entry != null) weight -= entry.weight;
+    }
+
+    /**
+     * Drop every document from the cache
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * @return the number of cached documents
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the estimated memory, in bytes, used by the cached documents
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    /**
+     * @return the statistics of the cache since it was created
+     */
+    public Statistics getStatistics() {
+        return new Statistics(hits.sum(), misses.sum(), loads.sum(), failures.sum(), evictions.sum(), refreshes.sum(), loadTime.sum());
+    }
+
+    /**
+     * Start a background thread that parses the cached files again as soon as they change, the thread is
+     * stopped by {@link #close()}. Files that are deleted are dropped from the cache.
+     * @throws IOException if the watch service could not be created
+     */
+    public void startWatching() throws IOException {
+        WatchService service;
+        synchronized(this) {
+            if(watcher != null) return;
+            watcher = service = FileSystems.getDefault().newWatchService();
+            for(Path key : entries.keySet()) {
+                watch(key);
+            }
+        }
+        Thread thread = new Thread(() -> refresh(service), "MDNDocumentCache-refresher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Register the directory of a file to the watch service, guarded by <code>this</code>
+     */
+    private void watch(Path key) {
+        Path directory = key.getParent();
+        if(watcher == null || directory == null || !watched.add(directory)) return;
+        try {
+            directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException | RuntimeException e) {
+            // The file system can't be watched, the files are still checked by get()
+        }
+    }
+
+    private void refresh(WatchService service) {
+        try {
+            while(true) {
+                WatchKey watchKey = service.take();
+                Path directory = (Path) watchKey.watchable();
+                ArrayList<Path> changed = new ArrayList<>();
+                for(WatchEvent<?> event : watchKey.pollEvents()) {
+                    if(event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        synchronized(this) {
+                            changed.addAll(entries.keySet());
+                        }
+                    } else changed.add(directory.resolve((Path) event.context()));
+                }
+                watchKey.reset();
+                for(Path key : changed) {
+                    refresh(key);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // The cache was closed
+        }
+    }
+
+    private boolean isValid(Path key, Entry entry, BasicFileAttributes attributes) throws IOException {
+        return entry.matches(attributes) && (!verifyContent || entry.hash == hash(Files.readAllBytes(key)));
+    }
+
+    private void refresh(Path key) {
+        Entry entry;
+        synchronized(this) {
+            entry = entries.get(key);
+        }
+        if(entry == null) return;
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+            if(isValid(key, entry, attributes)) return;
+            load(key, entry);
+            refreshes.increment();
+        } catch (NoSuchFileException e) {
+            invalidate(key);
+        } catch (IOException | MDNLexerError | MDNParseError | RuntimeException e) {
+            // The file may be half written, get() will parse it again and report the error
+        }
+    }
+
+    /**
+     * Stop the background thread started by {@link #startWatching()}, the cache can still be used
+     * @throws IOException if the watch service failed to close
+     */
+    @Override
+    public void close() throws IOException {
+        WatchService service;
+        synchronized(this) {
+            service = watcher;
+            watcher = null;
+            watched.clear();
+        }
+        if(service != null) service.close();
+    }
+
+    private static long hash(byte[] bytes) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 0, bytes.length);
+        return crc.getValue() ^ ((long) bytes.length << 32);
+    }
+
+    /**
+     * Estimate the memory used by a document
+     * @param document the document
+     * @return the estimated size in bytes
+     */
+    static long weigh(MDNDocument document) {
+        return weigh(document.getElements());
+    }
+
+    private static long weigh(ArrayList<MDNElement> elements) {
+        long weight = 0;
+        for(int i = 0; i < elements.size(); i++) {
+            MDNElement element = elements.get(i);
+            weight += ELEMENT_WEIGHT + weigh(element.getName());
+            ArrayList<MDNParam> params = element.getParams();
+            for(int j = 0; j < params.size(); j++) {
+                MDNParam param = params.get(j);
+                weight += PARAM_WEIGHT + weigh(param.getName());
+                ArrayList<String> values = param.getValues();
+                for(int k = 0; k < values.size(); k++) {
+                    weight += 8 + weigh(values.get(k));
+                }
+            }
+            weight += weigh(element.getElements());
+        }
+        return weight;
+    }
+
+    private static long weigh(String value) {
+        return value == null ? 0 : STRING_WEIGHT + value.length();
+    }
+
+    /**
+     * A cached document and the state of its file when it was parsed
+     */
+    private static final class Entry {
+
+        private final MDNDocument document;
+        private final long modified;
+        private final long size;
+        private final long hash;
+        private final long weight;
+
+        private Entry(MDNDocument document, long modified, long size, long hash, long weight) {
+            this.document = document;
+            this.modified = modified;
+            this.size = size;
+            this.hash = hash;
+            this.weight = weight;
+        }
+
+        private boolean matches(BasicFileAttributes attributes) {
+            return attributes.lastModifiedTime().toMillis() == modified && attributes.size() == size;
+        }
+
+    }
+
+    /**
+     * The statistics of a {@link MDNDocumentCache}
+     */
+    public static final class Statistics {
+
+        private final long hitCount, missCount, loadCount, loadFailureCount, evictionCount, refreshCount, totalLoadTime;
+
+        private Statistics(long hitCount, long missCount, long loadCount, long loadFailureCount, long evictionCount, long refreshCount, long totalLoadTime) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.loadCount = loadCount;
+            this.loadFailureCount = loadFailureCount;
+            this.evictionCount = evictionCount;
+            this.refreshCount = refreshCount;
+            this.totalLoadTime = totalLoadTime;
+        }
+
+        /**
+         * @return the number of calls to {@link MDNDocumentCache#get(Path)} that returned a cached document
+         */
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        /**
+         * @return the number of calls to {@link MDNDocumentCache#get(Path)} that had to parse the file or wait for it to be parsed
+         */
+        public long getMissCount() {
+            return missCount;
+        }
+
+        /**
+         * @return the number of files parsed successfully, including the ones parsed by the background thread
+         */
+        public long getLoadCount() {
+            return loadCount;
+        }
+
+        /**
+         * @return the number of files that could not be read or parsed
+         */
+        public long getLoadFailureCount() {
+            return loadFailureCount;
+        }
+
+        /**
+         * @return the number of documents dropped to stay under the memory budget
+         */
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        /**
+         * @return the number of files parsed again by the background thread
+         */
+        public long getRefreshCount() {
+            return refreshCount;
+        }
+
+        /**
+         * @return the time spent reading and parsing files, in nanoseconds
+         */
+        public long getTotalLoadTime() {
+            return totalLoadTime;
+        }
+
+        /**
+         * @return the average time spent reading and parsing a file, in nanoseconds
+         */
+        public double getAverageLoadTime() {
+            long count = loadCount + loadFailureCount;
+            return count == 0 ? 0 : (double) totalLoadTime / count;
+        }
+
+        /**
+         * @return the ratio of calls to {@link MDNDocumentCache#get(Path)} that returned a cached document
+         */
+        public double getHitRate() {
+            long count = hitCount + missCount;
+            return count == 0 ? 1 : (double) hitCount / count;
+        }
+
+        @Override
+        public String toString() {
+            return "hits: " + hitCount + ", misses: " + missCount + ", loads: " + loadCount + ", failures: " + loadFailureCount +
+                    ", evictions: " + evictionCount + ", refreshes: " + refreshCount + ", average load time: " + (long) getAverageLoadTime() + "ns";
+        }
+
+    }
+
+}
@@ -1,17 +1,48 @@
 package com.mystic.mdn;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Objects;
 
 /**
- * This class represent an element of the {@link MDNDocument}
+ * This class represent an element of the {@link MDNDocument}. <br>
+ * An element can only be in one list of elements at a time, it must be removed from its parent (or from its
+ * document) before it is added to another one. <br>
+ * The params and children of an element created by {@link MDN#parseLazy(String)} are only built the first time
+ * they are used. <br>
+ * Elements are compared by value, see {@link #equals(Object)}, so removing an element from a list of elements
+ * through {@link java.util.List#remove(Object)} removes the first equal one.
  */
 public class MDNElement {
 
     private String name;
 
-    private final ArrayList<MDNParam> params = new ArrayList<>();
+    private final Params params = new Params(this);
 
-    private final ArrayList<MDNElement> elements = new ArrayList<>();
+    private final Children elements = new Children(this);
+
+    /**
+     * The structural hash of this element, 0 until it is computed, see {@link #hash()}
+     */
+    private volatile long hash = 0;
+
+    /**
+     * The span of this element in the source it was parsed from, -1 if it is unknown. After a
+     * {@link MDN#reparse(MDNDocument, String, int, int, String)} the span is moved by {@link #shift()}
+     */
+    int sourceStart = -1, sourceEnd = -1;
+
+    /**
+     * The list containing this element, if any, and the number of times the element is in it
+     */
+    Children container = null;
+    int occurrences = 0;
+
+    /**
+     * The state of this element until its params and children are built, null once they are
+     * @see MDN#parseLazy(String)
+     */
+    MDNLazyParser.Pending pending = null;
 
     /**
      * Constructor for MDNElement
@@ -35,6 +66,8 @@ public class MDNElement {
      */
     public void setName(String name) {
         this.name = name;
+        invalidate();
+        if(container != null) container.changed();
     }
 
     /**
@@ -43,6 +76,7 @@ public class MDNElement {
      * @return this
      */
     public MDNElement addElement(MDNElement element) {
+        if(pending != null) materialize();
         elements.add(element);
         return this;
     }
@@ -52,16 +86,8 @@ public class MDNElement {
      * @param name the name of the element you want to remove
      */
     public void removeElement(String name) {
-        MDNElement toRemove = null;
-
-        for(MDNElement element : elements) {
-            if(element.getName().equals(name)) {
-                toRemove = element;
-                break;
-            }
-        }
-
-        if(toRemove != null) elements.remove(toRemove);
+        if(pending != null) materialize();
+        elements.removeFirst(name);
     }
 
     /**
@@ -70,6 +96,7 @@ public class MDNElement {
      * @return this
      */
     public MDNElement addParam(MDNParam param) {
+        if(pending != null) materialize();
         params.add(param);
         return this;
     }
@@ -79,16 +106,8 @@ public class MDNElement {
      * @param name the name of the param you want to remove
      */
     public void removeParam(String name) {
-        MDNParam toRemove = null;
-
-        for(MDNParam param : params) {
-            if(param.getName().equals(name)) {
-                toRemove = param;
-                break;
-            }
-        }
-
-        if(toRemove != null) params.remove(toRemove);
+        if(pending != null) materialize();
+        params.removeFirst(name);
     }
 
     /**
@@ -97,10 +116,8 @@ public class MDNElement {
      * @return the element found or null
      */
     public MDNElement getElementByName(String name) {
-        for(MDNElement element : elements) {
-            if(element.name.equals(name)) return element;
-        }
-        return null;
+        if(pending != null) materialize();
+        return elements.first(name);
     }
 
     /**
@@ -109,13 +126,8 @@ public class MDNElement {
      * @return all the matching elements
      */
     public MDNElement[] getElementsByName(String name) {
-        ArrayList<MDNElement> elements = new ArrayList<>();
-        for(MDNElement element : this.elements) {
-            if(element.name.equals(name)) elements.add(element);
-        }
-        MDNElement[] arr = new MDNElement[elements.size()];
-        arr = elements.toArray(arr);
-        return arr;
+        if(pending != null) materialize();
+        return elements.all(name, new MDNElement[0]);
     }
 
     /**
@@ -124,10 +136,8 @@ public class MDNElement {
      * @return the param found or null
      */
     public MDNParam getParamByName(String name) {
-        for(MDNParam param : params) {
-            if(param.getName().equals(name)) return param;
-        }
-        return null;
+        if(pending != null) materialize();
+        return params.first(name);
     }
 
     /**
@@ -136,13 +146,8 @@ public class MDNElement {
      * @return all the matching params
      */
     public MDNParam[] getParamsByName(String name) {
-        ArrayList<MDNParam> params = new ArrayList<>();
-        for(MDNParam param : this.params) {
-            if(param.getName().equals(name)) params.add(param);
-        }
-        MDNParam[] arr = new MDNParam[params.size()];
-        arr = params.toArray(arr);
-        return arr;
+        if(pending != null) materialize();
+        return params.all(name, new MDNParam[0]);
     }
 
     /**
@@ -150,6 +155,7 @@ public class MDNElement {
      * @return the list of elements
      */
     public ArrayList<MDNElement> getElements() {
+        if(pending != null) materialize();
         return elements;
     }
 
@@ -158,11 +164,133 @@ public class MDNElement {
      * @return the list of parameters
      */
     public ArrayList<MDNParam> getParams() {
+        if(pending != null) materialize();
         return params;
     }
 
+    /**
+     * Get the index of the first character of this element in the string it was parsed from. <br>
+     * The span is the one of the last parse, it isn't updated when the element is modified.
+     * @return the index or -1 if it is unknown
+     * @see MDN#reparse(MDNDocument, String, int, int, String)
+     */
+    public int getSourceStart() {
+        return sourceStart < 0 ? -1 : sourceStart + shift();
+    }
+
+    /**
+     * Get the index after the last character of this element in the string it was parsed from
+     * @return the index or -1 if it is unknown
+     * @see #getSourceStart()
+     */
+    public int getSourceEnd() {
+        return sourceEnd < 0 ? -1 : sourceEnd + shift();
+    }
+
+    /**
+     * Get the number of characters the span of this element, and the spans of its params and children, have moved
+     * since they were parsed: the sum of the shifts recorded by the lists containing this element and its parents
+     * @return the shift of the spans
+     */
+    int shift() {
+        int shift = 0;
+        MDNElement element = this;
+        while(element.container != null) {
+            shift += element.container.shift(element.sourceStart);
+            element = element.container.owner;
+            if(element == null) break;
+        }
+        return shift;
+    }
+
+    /**
+     * Get the structural hash of this element, computed from its name and from the hashes of its params and
+     * children, and cached until any of them changes
+     * @return the hash, never 0
+     * @see MDNHash
+     */
+    long hash() {
+        long hash = this.hash;
+        if(hash != 0) return hash;
+        return this.hash = MDNHash.mix(MDNHash.combine(MDNHash.string(name), contentHash()));
+    }
+
+    /**
+     * @return the hash of the params and children of this element, which doesn't depend on its name
+     */
+    long contentHash() {
+        if(pending != null) materialize();
+        long hash = params.size();
+        for(int i = 0; i < params.size(); i++) {
+            hash = MDNHash.combine(hash, params.get(i).hash());
+        }
+        hash = MDNHash.combine(hash, elements.size());
+        for(int i = 0; i < elements.size(); i++) {
+            hash = MDNHash.combine(hash, elements.get(i).hash());
+        }
+        return hash;
+    }
+
+    /**
+     * Drop the cached hash of this element and of the elements containing it. <br>
+     * An element whose hash is cached always has the hashes of its children cached, so the walk stops at the
+     * first element without one.
+     */
+    private void invalidate() {
+        MDNElement element = this;
+        while(element != null && element.hash != 0) {
+            element.hash = 0;
+            Children container = element.container;
+            if(container == null) return;
+            if(container.document != null) container.document.invalidate();
+            element = container.owner;
+        }
+    }
+
+    /**
+     * Build the params and children of a lazy element
+     * @throws IllegalStateException if the source of the element is invalid
+     */
+    private void materialize() throws IllegalStateException {
+        MDNElement parsed = pending.materialize(this);
+        pending = null;
+        if(!parsed.name.equals(name)) setName(parsed.name);
+        params.addAll(MDNList.take(parsed.params));
+        elements.addAll(MDNList.take(parsed.elements));
+    }
+
+    /**
+     * Compare this element with another one, they are equal if they have the same name and equal params and
+     * children, in the same order. The source spans aren't compared. <br>
+     * The structural hashes of both elements are compared first (see {@link #hashCode()}), so different elements
+     * are told apart without walking them in most cases.
+     * @param object the object you want to compare with
+     * @return {@code true} if <code>object</code> is an equal element
+     */
+    @Override
+    public boolean equals(Object object) {
+        if(object == this) return true;
+        if(!(object instanceof MDNElement)) return false;
+        MDNElement element = (MDNElement) object;
+        return hash() == element.hash() && Objects.equals(name, element.name) && params.equals(element.params) && elements.equals(element.elements);
+    }
+
+    /**
+     * Get the hash code of this element, derived from its structural hash. <br>
+     * The structural hash is computed from the name, the params and the children and is cached until one of
+     * them changes, the change only drops the cached hashes of the element and of the elements containing it.
+     * An element used as a key in a hash map must therefore not be modified.
+     * @return the hash code
+     */
+    @Override
+    public int hashCode() {
+        long hash = hash();
+        return (int) (hash ^ (hash >>> 32));
+    }
+
     @Override
     public String toString() {
+        if(pending != null) materialize();
         StringBuilder builder = new StringBuilder();
         builder.append(name).append(":");
         for(MDNParam param : params) {
@@ -175,4 +303,190 @@ public class MDNElement {
         }
         return builder.toString();
     }
+
+    /**
+     * The list of children of an element or of a {@link MDNDocument}, any change drops the cached hash of the
+     * element owning it. <br>
+     * The list also records how far the spans of its elements have moved after the edits made by
+     * {@link MDN#reparse(MDNDocument, String, int, int, String)}, so an edit only updates the lists on the path to
+     * the element parsed again instead of every element after it.
+     */
+    static final class Children extends MDNNamedList<MDNElement> {
+
+        /**
+         * The element or the document owning this list, only one of them is set
+         */
+        private final MDNElement owner;
+        private final MDNDocument document;
+
+        /**
+         * The elements whose parsed span starts after <code>shiftFrom[i]</code> (and before the next one) have
+         * moved by <code>shiftBy[i]</code> characters, <code>shiftFrom</code> is sorted
+         */
+        private int[] shiftFrom = null, shiftBy = null;
+        private int shiftCount = 0;
+
+        Children(MDNElement owner) {
+            this.owner = owner;
+            this.document = null;
+        }
+
+        Children(MDNDocument document) {
+            this.owner = null;
+            this.document = document;
+        }
+
+        @Override
+        String nameOf(MDNElement element) {
+            return element.name;
+        }
+
+        @Override
+        void check(MDNElement element) throws IllegalArgumentException {
+            if(element.container != null && element.container != this) {
+                throw new IllegalArgumentException("The element '" + element.name + "' is already in another list, remove it first");
+            }
+        }
+
+        @Override
+        void attach(MDNElement element) {
+            element.container = this;
+            element.occurrences++;
+        }
+
+        @Override
+        void removed(MDNElement element) {
+            if(element.container == this && --element.occurrences == 0) element.container = null;
+        }
+
+        @Override
+        void added(MDNElement element) {
+            super.added(element);
+            invalidate();
+        }
+
+        @Override
+        void changed() {
+            super.changed();
+            invalidate();
+        }
+
+        private void invalidate() {
+            if(owner != null) owner.invalidate();
+            else if(document != null) document.invalidate();
+        }
+
+        @Override
+        public void clear() {
+            super.clear();
+            // The next elements come from another parse
+            shiftCount = 0;
+        }
+
+        /**
+         * @param start the parsed start of an element of this list
+         * @return the number of characters the element has moved in this list
+         */
+        int shift(int start) {
+            int index = lastShiftBefore(start);
+            return index < 0 ? 0 : shiftBy[index];
+        }
+
+        /**
+         * Move the elements whose parsed span starts after <code>from</code>
+         * @param from the parsed start of the element the edit was made in
+         * @param delta the number of characters
+         */
+        void addShift(int from, int delta) {
+            int index = lastShiftBefore(from + 1);
+            if(index < 0 || shiftFrom[index] != from) {
+                if(shiftFrom == null) {
+                    shiftFrom = new int[4];
+                    shiftBy = new int[4];
+                } else if(shiftCount == shiftFrom.length) {
+                    shiftFrom = Arrays.copyOf(shiftFrom, shiftCount * 2);
+                    shiftBy = Arrays.copyOf(shiftBy, shiftCount * 2);
+                }
+                index++;
+                System.arraycopy(shiftFrom, index, shiftFrom, index + 1, shiftCount - index);
+                System.arraycopy(shiftBy, index, shiftBy, index + 1, shiftCount - index);
+                shiftFrom[index] = from;
+                shiftBy[index] = index == 0 ? 0 : shiftBy[index - 1];
+                shiftCount++;
+            }
+            for(int i = index; i < shiftCount; i++) {
+                shiftBy[i] += delta;
+            }
+        }
+
+        /**
+         * @return the index of the last shift starting before <code>start</code>, -1 if there is none
+         */
+        private int lastShiftBefore(int start) {
+            int low = 0, high = shiftCount - 1;
+            while(low <= high) {
+                int middle = (low + high) >>> 1;
+                if(shiftFrom[middle] < start) low = middle + 1;
+                else high = middle - 1;
+            }
+            return high;
+        }
+
+    }
+
+    /**
+     * The list of params of an element, any change drops the cached hash of the element owning it
+     */
+    static final class Params extends MDNNamedList<MDNParam> {
+
+        final MDNElement owner;
+
+        Params(MDNElement owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        String nameOf(MDNParam param) {
+            return param.getName();
+        }
+
+        @Override
+        void check(MDNParam param) throws IllegalArgumentException {
+            if(param.container != null && param.container != this) {
+                throw new IllegalArgumentException("The param '" + param.getName() + "' is already in another list, remove it first");
+            }
+        }
+
+        @Override
+        void attach(MDNParam param) {
+            param.container = this;
+            param.occurrences++;
+        }
+
+        @Override
+        void removed(MDNParam param) {
+            if(param.container == this && --param.occurrences == 0) param.container = null;
+        }
+
+        @Override
+        void added(MDNParam param) {
+            super.added(param);
+            owner.invalidate();
+        }
+
+        @Override
+        void changed() {
+            super.changed();
+            owner.invalidate();
+        }
+
+        /**
+         * Drop the cached hash of the element owning this list, called when one of its params changes
+         */
+        void invalidate() {
+            owner.invalidate();
+        }
+
+    }
+
 }
@@ -0,0 +1,14 @@
+package com.mystic.mdn;
+
+/**
+ * The possible types of event returned by {@link MDNReader#next()}
+ */
+public enum MDNEventType {
+
+    START_ELEMENT,
+    PARAM,
+    VALUE,
+    END_ELEMENT,
+    END_DOCUMENT,
+
+}
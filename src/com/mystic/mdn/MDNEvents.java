@@ -0,0 +1,95 @@
+package com.mystic.mdn;
+
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+
+/**
+ * This class records the JFR events of the parses and formats, see {@link MDNParseEvent} and {@link MDNFormatEvent}. <br>
+ * The JFR classes are only used by the nested class {@link Recorder}, which is loaded the first time an event is
+ * checked. On a runtime without the <code>jdk.jfr</code> module it fails to load, the events are then never enabled
+ * and {@link MDN} only needs <code>java.base</code>.
+ */
+final class MDNEvents {
+
+    /**
+     * The recorder, null if JFR isn't available
+     */
+    private static final Recorder RECORDER = recorder();
+
+    private MDNEvents() {
+    }
+
+    private static Recorder recorder() {
+        try {
+            return new Recorder();
+        } catch (LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return {@code true} if the parse event is enabled
+     */
+    static boolean isParseEnabled() {
+        return RECORDER != null && RECORDER.parse.isEnabled();
+    }
+
+    /**
+     * @return {@code true} if the format event is enabled
+     */
+    static boolean isFormatEnabled() {
+        return RECORDER != null && RECORDER.format.isEnabled();
+    }
+
+    /**
+     * Start the event of a parse
+     * @return the event or null if JFR isn't available
+     */
+    static Object beginParse() {
+        return RECORDER == null ? null : Recorder.begin(true);
+    }
+
+    /**
+     * Start the event of a format
+     * @return the event or null if JFR isn't available
+     */
+    static Object beginFormat() {
+        return RECORDER == null ? null : Recorder.begin(false);
+    }
+
+    /**
+     * End an event and commit it with the metrics if it is enabled
+     * @param event the event returned by {@link #beginParse()} or {@link #beginFormat()}, or null
+     * @param metrics the metrics of the parse or format
+     */
+    static void end(Object event, MDNMetrics metrics) {
+        if(event != null) Recorder.end(event, metrics);
+    }
+
+    /**
+     * The types of the events, looked up once. The methods of {@link MDNEvents} only hand it untyped events, so
+     * that class never needs the JFR classes to be verified
+     */
+    private static final class Recorder {
+
+        private final EventType parse = EventType.getEventType(MDNParseEvent.class);
+        private final EventType format = EventType.getEventType(MDNFormatEvent.class);
+
+        private static Object begin(boolean parse) {
+            Event event = parse ? new MDNParseEvent() : new MDNFormatEvent();
+            event.begin();
+            return event;
+        }
+
+        private static void end(Object object, MDNMetrics metrics) {
+            Event event = (Event) object;
+            event.end();
+            if(!event.shouldCommit()) return;
+            if(event instanceof MDNParseEvent) ((MDNParseEvent) event).set(metrics);
+            else ((MDNFormatEvent) event).set(metrics);
+            event.commit();
+        }
+
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.mystic.mdn;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * This class is the result of parsing one of the files given to {@link MDN#parseAll(java.util.Collection)}:
+ * either the document or the error of that file
+ * @see MDN#parseAll(java.util.Collection)
+ */
+public final class MDNFileResult {
+
+    private final Path path;
+    private final MDNDocument document;
+    private final Exception error;
+
+    /**
+     * The index of the file in the input
+     */
+    final int index;
+
+    MDNFileResult(Path path, int index, MDNDocument document, Exception error) {
+        this.path = path;
+        this.index = index;
+        this.document = document;
+        this.error = error;
+    }
+
+    /**
+     * @return the path of the file
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return {@code true} if the file was parsed, {@code false} if it failed
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * @return the document of the file or null if it failed
+     */
+    public MDNDocument getDocument() {
+        return document;
+    }
+
+    /**
+     * @return the error of the file (an {@link IOException}, a {@link MDNLexerError}, a {@link MDNParseError} or a
+     * {@link RuntimeException}) or null if it was parsed
+     */
+    public Exception getError() {
+        return error;
+    }
+
+    /**
+     * Get the document of the file or throw its error
+     * @return the document of the file
+     * @throws IOException if the file could not be read
+     * @throws MDNLexerError if any error occurs during {@link MDNLexer#nextToken()}
+     * @throws MDNParseError if any error occurs during {@link MDNParser#parse()}
+     */
+    public MDNDocument get() throws IOException, MDNLexerError, MDNParseError {
+        if(error == null) return document;
+        if(error instanceof IOException) throw (IOException) error;
+        if(error instanceof MDNLexerError) throw (MDNLexerError) error;
+        if(error instanceof MDNParseError) throw (MDNParseError) error;
+        throw (RuntimeException) error;
+    }
+
+    @Override
+    public String toString() {
+        return "MDNFileResult[" + path + (error == null ? "" : ", " + error) + "]";
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.mystic.mdn;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event of a format, see {@link MDNMetrics}
+ */
+@Name("com.mystic.mdn.Format")
+@Label("MDN Format")
+@Category("MDN")
+@Description("Format of a MDN document")
+final class MDNFormatEvent extends jdk.jfr.Event {
+
+    @Label("Characters")
+    long chars;
+
+    @Label("Elements")
+    long elements;
+
+    @Label("Params")
+    long params;
+
+    @Label("Max Depth")
+    int maxDepth;
+
+    void set(MDNMetrics metrics) {
+        chars = metrics.chars;
+        elements = metrics.elements;
+        params = metrics.params;
+        maxDepth = metrics.maxDepth;
+    }
+
+}
@@ -1,7 +1,10 @@
 package com.mystic.mdn;
 
+import java.io.IOException;
+
 /**
- * This class is used to format a {@link MDNDocument} into a string
+ * This class is used to format a {@link MDNDocument} into a string. <br>
+ * Each line is written once, with its indentation, so formatting is linear in the size of the document.
  */
 public class MDNFormatter {
 
@@ -12,52 +15,144 @@ public class MDNFormatter {
      */
     public static String formatDocument(MDNDocument document) {
         StringBuilder builder = new StringBuilder();
+        try {
+            formatDocument(document, builder);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Write a {@link MDNDocument} into an {@link Appendable}, the output is the same as {@link #formatDocument(MDNDocument)}
+     * @param document the document you want to convert
+     * @param out where the document is written
+     * @throws IOException if <code>out</code> failed
+     */
+    public static void formatDocument(MDNDocument document, Appendable out) throws IOException {
+        formatDocument(document, out, null);
+    }
+
+    /**
+     * Write a {@link MDNDocument} into an {@link Appendable} and count the characters, elements and params written
+     * @param document the document you want to convert
+     * @param out where the document is written
+     * @param metrics the counters or null
+     * @throws IOException if <code>out</code> failed
+     */
+    static void formatDocument(MDNDocument document, Appendable out, MDNMetrics metrics) throws IOException {
+        if(metrics != null) out = new Counter(out, metrics);
         int i = 0;
         for(MDNElement element : document.getElements()) {
-            if(i != 0) builder.append("\n");
-            builder.append(formatElement(element));
+            if(i != 0) out.append('\n');
+            formatElement(element, 0, out, metrics);
             i++;
         }
-        return builder.toString();
     }
 
-    private static String formatElement(MDNElement element) {
-        StringBuilder builder = new StringBuilder();
-        builder.append("<").append(element.getName()).append("[");
+    private static void formatElement(MDNElement element, int depth, Appendable out, MDNMetrics metrics) throws IOException {
+        if(metrics != null) {
+            metrics.element(depth + 1);
+            metrics.params += element.getParams().size();
+        }
+        out.append('<');
+        appendText(element.getName(), depth, out);
+        out.append('[');
         int i = 0;
         for(MDNParam param : element.getParams()) {
-            if(i != 0) builder.append(", ");
-            builder.append(formatParameter(param));
+            if(i != 0) out.append(", ");
+            formatParameter(param, depth, out);
             i++;
         }
-        builder.append("]");
+        out.append(']');
         if(element.getElements().isEmpty()) {
-            builder.append("/>");
+            out.append("/>");
         } else {
-            builder.append(">").append("\n");
+            out.append(">\n");
             for(MDNElement child : element.getElements()) {
-                for(String str : formatElement(child).split("\n")) {
-                    builder.append("\t").append(str).append("\n");
-                }
+                indent(depth + 1, out);
+                formatElement(child, depth + 1, out, metrics);
+                out.append('\n');
             }
-            builder.append("</>");
+            indent(depth, out);
+            out.append("</>");
         }
-        return builder.toString();
     }
 
-    private static String formatParameter(MDNParam param) {
-        StringBuilder builder = new StringBuilder();
-        builder.append(param.getName()).append("(");
-        if(!param.isEmpty()) {
-            int i = 0;
-            for(String value : param.getValues()) {
-                if(i != 0) builder.append(",");
-                builder.append("\"").append(value).append("\"");
-                i++;
-            }
+    private static void formatParameter(MDNParam param, int depth, Appendable out) throws IOException {
+        appendText(param.getName(), depth, out);
+        out.append('(');
+        int i = 0;
+        for(String value : param.getValues()) {
+            if(i != 0) out.append(',');
+            out.append('"');
+            appendText(value, depth, out);
+            out.append('"');
+            i++;
         }
-        builder.append(")");
-        return builder.toString();
+        out.append(')');
+    }
+
+    /**
+     * Write a name or a value, every line it contains is indented like the element it belongs to. A null name or
+     * value is written as "null", like {@link StringBuilder#append(String)} does
+     */
+    private static void appendText(String text, int depth, Appendable out) throws IOException {
+        if(text == null) text = "null";
+        int start = 0;
+        int end = depth == 0 ? -1 : text.indexOf('\n');
+        while(end != -1) {
+            out.append(text, start, end + 1);
+            indent(depth, out);
+            start = end + 1;
+            end = text.indexOf('\n', start);
+        }
+        if(start == 0) out.append(text);
+        else out.append(text, start, text.length());
+    }
+
+    private static void indent(int depth, Appendable out) throws IOException {
+        for(int i = 0; i < depth; i++) {
+            out.append('\t');
+        }
+    }
+
+    /**
+     * {@link Appendable} counting the characters written into another one
+     */
+    private static class Counter implements Appendable {
+
+        private final Appendable out;
+        private final MDNMetrics metrics;
+
+        private Counter(Appendable out, MDNMetrics metrics) {
+            this.out = out;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) throws IOException {
+            if(csq == null) csq = "null";
+            out.append(csq);
+            metrics.chars += csq.length();
+            return this;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) throws IOException {
+            if(csq == null) csq = "null";
+            out.append(csq, start, end);
+            metrics.chars += end - start;
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            out.append(c);
+            metrics.chars++;
+            return this;
+        }
+
     }
 
 }
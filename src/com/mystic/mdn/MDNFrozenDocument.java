@@ -0,0 +1,339 @@
+package com.mystic.mdn;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * This class is an immutable, array-backed copy of a {@link MDNDocument}, created by {@link MDNDocument#freeze()}. <br>
+ * The elements are stored breadth first, so the children of an element, like its params and their values, are
+ * ranges of int arrays and every String is stored once in a table shared by the whole document. <br>
+ * {@link MDNFrozenElement} and {@link MDNFrozenParam} are lightweight views over these arrays that have the same
+ * read API as {@link MDNElement} and {@link MDNParam}, the lists they return can't be modified. <br>
+ * A frozen document can be read by several threads without synchronization.
+ */
+public final class MDNFrozenDocument {
+
+    /**
+     * Every name and value of the document, null ones are stored as -1
+     */
+    final String[] strings;
+
+    /**
+     * Index in {@link #strings} of each name, for the by-name lookups
+     */
+    private final HashMap<String, Integer> names;
+
+    /**
+     * Number of top level elements, they are the elements 0 to topCount - 1
+     */
+    final int topCount;
+    final int[] elementNames;
+
+    /**
+     * The children of the element <code>e</code> are the elements <code>childStart[e]</code> to <code>childStart[e + 1] - 1</code>
+     */
+    final int[] childStart;
+
+    /**
+     * The params of the element <code>e</code> are the params <code>paramStart[e]</code> to <code>paramStart[e + 1] - 1</code>
+     */
+    final int[] paramStart;
+    final int[] paramNames;
+
+    /**
+     * The values of the param <code>p</code> are the values <code>valueStart[p]</code> to <code>valueStart[p + 1] - 1</code>
+     */
+    final int[] valueStart;
+    final int[] values;
+
+    /**
+     * Copy a document, see {@link MDNDocument#freeze()}
+     * @param document the document to copy
+     */
+    MDNFrozenDocument(MDNDocument document) {
+        ArrayList<MDNElement> order = new ArrayList<>(document.getElements());
+        int paramCount = 0, valueCount = 0;
+        for(int i = 0; i < order.size(); i++) {
+            MDNElement element = order.get(i);
+            order.addAll(element.getElements());
+            ArrayList<MDNParam> params = element.getParams();
+            paramCount += params.size();
+            for(int j = 0; j < params.size(); j++) {
+                valueCount += params.get(j).getValueCount();
+            }
+        }
+
+        int elementCount = order.size();
+        this.topCount = document.getElements().size();
+        this.elementNames = new int[elementCount];
+        this.childStart = new int[elementCount + 1];
+        this.paramStart = new int[elementCount + 1];
+        this.paramNames = new int[paramCount];
+        this.valueStart = new int[paramCount + 1];
+        this.values = new int[valueCount];
+
+        HashMap<String, Integer> table = new HashMap<>();
+        ArrayList<String> strings = new ArrayList<>();
+        this.names = new HashMap<>();
+        int child = topCount, param = 0, value = 0;
+        for(int e = 0; e < elementCount; e++) {
+            MDNElement element = order.get(e);
+            elementNames[e] = name(element.getName(), table, strings);
+            childStart[e] = child;
+            child += element.getElements().size();
+            paramStart[e] = param;
+            ArrayList<MDNParam> params = element.getParams();
+            for(int j = 0; j < params.size(); j++) {
+                MDNParam p = params.get(j);
+                paramNames[param] = name(p.getName(), table, strings);
+                valueStart[param] = value;
+                ArrayList<String> list = p.getValues();
+                for(int k = 0; k < list.size(); k++) {
+                    values[value++] = string(list.get(k), table, strings);
+                }
+                param++;
+            }
+        }
+        childStart[elementCount] = child;
+        paramStart[elementCount] = param;
+        valueStart[paramCount] = value;
+        this.strings = strings.toArray(new String[0]);
+    }
+
+    private int name(String name, HashMap<String, Integer> table, ArrayList<String> strings) {
+        int index = string(name, table, strings);
+        if(index >= 0) names.put(name, index);
+        return index;
+    }
+
+    private static int string(String value, HashMap<String, Integer> table, ArrayList<String> strings) {
+        if(value == null) return -1;
+        Integer index = table.get(value);
+        if(index == null) {
+            index = strings.size();
+            table.put(value, index);
+            strings.add(value);
+        }
+        return index;
+    }
+
+    /**
+     * @param name a name
+     * @return the index of <code>name</code> in {@link #strings} or -1 if no element or param has this name
+     */
+    private int nameIndex(String name) {
+        if(name == null) return -1;
+        Integer index = names.get(name);
+        return index == null ? -1 : index;
+    }
+
+    String string(int index) {
+        return index < 0 ? null : strings[index];
+    }
+
+    /**
+     * @param start the first element
+     * @param end the element after the last one
+     * @param name the name
+     * @return the first of the elements from <code>start</code> to <code>end</code> named <code>name</code> or -1
+     */
+    int findElement(int start, int end, String name) {
+        return find(elementNames, start, end, nameIndex(name));
+    }
+
+    MDNFrozenElement[] findElements(int start, int end, String name) {
+        int index = nameIndex(name);
+        MDNFrozenElement[] found = new MDNFrozenElement[count(elementNames, start, end, index)];
+        int count = 0;
+        for(int e = start; count < found.length; e++) {
+            if(elementNames[e] == index) found[count++] = new MDNFrozenElement(this, e);
+        }
+        return found;
+    }
+
+    /**
+     * @param start the first param
+     * @param end the param after the last one
+     * @param name the name
+     * @return the first of the params from <code>start</code> to <code>end</code> named <code>name</code> or -1
+     */
+    int findParam(int start, int end, String name) {
+        return find(paramNames, start, end, nameIndex(name));
+    }
+
+    MDNFrozenParam[] findParams(int start, int end, String name) {
+        int index = nameIndex(name);
+        MDNFrozenParam[] found = new MDNFrozenParam[count(paramNames, start, end, index)];
+        int count = 0;
+        for(int p = start; count < found.length; p++) {
+            if(paramNames[p] == index) found[count++] = new MDNFrozenParam(this, p);
+        }
+        return found;
+    }
+
+    private static int find(int[] names, int start, int end, int index) {
+        if(index < 0) return -1;
+        for(int i = start; i < end; i++) {
+            if(names[i] == index) return i;
+        }
+        return -1;
+    }
+
+    private static int count(int[] names, int start, int end, int index) {
+        if(index < 0) return 0;
+        int count = 0;
+        for(int i = start; i < end; i++) {
+            if(names[i] == index) count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of elements of the document, at any depth
+     */
+    public int getElementCount() {
+        return elementNames.length;
+    }
+
+    /**
+     * This function is used to get the list of top level elements
+     * @return the list of elements, it can't be modified
+     */
+    public List<MDNFrozenElement> getElements() {
+        return new Elements(this, 0, topCount);
+    }
+
+    /**
+     * This function is used to get all the top level elements that have the same name as <code>name</code>
+     * @param name the name of the elements you are looking for
+     * @return an array containing all the matching elements
+     */
+    public MDNFrozenElement[] getElementsByName(String name) {
+        return findElements(0, topCount, name);
+    }
+
+    /**
+     * This function is used to get the first top level element that have the same name as <code>name</code>
+     * @param name the name of the element you are looking for
+     * @return the element found or null if there is no matching elements
+     */
+    public MDNFrozenElement getElementByName(String name) {
+        int e = findElement(0, topCount, name);
+        return e < 0 ? null : new MDNFrozenElement(this, e);
+    }
+
+    /**
+     * Create a {@link MDNDocument} with the same content, which can be modified
+     * @return the document created
+     */
+    public MDNDocument thaw() {
+        int elementCount = elementNames.length;
+        MDNElement[] elements = new MDNElement[elementCount];
+        for(int e = 0; e < elementCount; e++) {
+            MDNElement element = new MDNElement(string(elementNames[e]));
+            for(int p = paramStart[e]; p < paramStart[e + 1]; p++) {
+                MDNParam param = new MDNParam(string(paramNames[p]));
+                for(int v = valueStart[p]; v < valueStart[p + 1]; v++) {
+                    param.addValue(string(values[v]));
+                }
+                element.addParam(param);
+            }
+            elements[e] = element;
+        }
+        MDNDocument document = new MDNDocument();
+        for(int e = 0; e < topCount; e++) {
+            document.addElement(elements[e]);
+        }
+        for(int e = 0; e < elementCount; e++) {
+            for(int c = childStart[e]; c < childStart[e + 1]; c++) {
+                elements[e].addElement(elements[c]);
+            }
+        }
+        return document;
+    }
+
+    /**
+     * A range of elements seen as a list
+     */
+    static final class Elements extends AbstractList<MDNFrozenElement> implements RandomAccess {
+
+        private final MDNFrozenDocument document;
+        private final int start, end;
+
+        Elements(MDNFrozenDocument document, int start, int end) {
+            this.document = document;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public MDNFrozenElement get(int index) {
+            if(index < 0 || index >= end - start) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            return new MDNFrozenElement(document, start + index);
+        }
+
+        @Override
+        public int size() {
+            return end - start;
+        }
+
+    }
+
+    /**
+     * A range of params seen as a list
+     */
+    static final class Params extends AbstractList<MDNFrozenParam> implements RandomAccess {
+
+        private final MDNFrozenDocument document;
+        private final int start, end;
+
+        Params(MDNFrozenDocument document, int start, int end) {
+            this.document = document;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public MDNFrozenParam get(int index) {
+            if(index < 0 || index >= end - start) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            return new MDNFrozenParam(document, start + index);
+        }
+
+        @Override
+        public int size() {
+            return end - start;
+        }
+
+    }
+
+    /**
+     * A range of values seen as a list
+     */
+    static final class Values extends AbstractList<String> implements RandomAccess {
+
+        private final MDNFrozenDocument document;
+        private final int start, end;
+
+        Values(MDNFrozenDocument document, int start, int end) {
+            this.document = document;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public String get(int index) {
+            if(index < 0 || index >= end - start) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            return document.string(document.values[start + index]);
+        }
+
+        @Override
+        public int size() {
+            return end - start;
+        }
+
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.mystic.mdn;
+
+import java.util.List;
+
+/**
+ * This class represent an element of a {@link MDNFrozenDocument}, it is a view over the arrays of the document
+ * and can't be modified.
+ * @see MDNElement
+ */
+public final class MDNFrozenElement {
+
+    private final MDNFrozenDocument document;
+    private final int index;
+
+    /**
+     * Constructor for MDNFrozenElement
+     * @param document the document holding the element
+     * @param index the index of the element in the document
+     */
+    MDNFrozenElement(MDNFrozenDocument document, int index) {
+        this.document = document;
+        this.index = index;
+    }
+
+    /**
+     * Get the name of the element
+     * @return the name of the element
+     */
+    public String getName() {
+        return document.string(document.elementNames[index]);
+    }
+
+    /**
+     * Get the first element with the matching <code>name</code>
+     * @param name the name of the element you are looking for
+     * @return the element found or null
+     */
+    public MDNFrozenElement getElementByName(String name) {
+        int e = document.findElement(document.childStart[index], document.childStart[index + 1], name);
+        return e < 0 ? null : new MDNFrozenElement(document, e);
+    }
+
+    /**
+     * Get the list of elements with the matching <code>name</code> as an array
+     * @param name the name of the elements you are looking for
+     * @return all the matching elements
+     */
+    public MDNFrozenElement[] getElementsByName(String name) {
+        return document.findElements(document.childStart[index], document.childStart[index + 1], name);
+    }
+
+    /**
+     * Get the first param with the matching <code>name</code>
+     * @param name the name of the param you are looking for
+     * @return the param found or null
+     */
+    public MDNFrozenParam getParamByName(String name) {
+        int p = document.findParam(document.paramStart[index], document.paramStart[index + 1], name);
+        return p < 0 ? null : new MDNFrozenParam(document, p);
+    }
+
+    /**
+     * Get the list of params with the matching <code>name</code> as an array
+     * @param name the name of the params you are looking for
+     * @return all the matching params
+     */
+    public MDNFrozenParam[] getParamsByName(String name) {
+        return document.findParams(document.paramStart[index], document.paramStart[index + 1], name);
+    }
+
+    /**
+     * Return the list of elements
+     * @return the list of elements, it can't be modified
+     */
+    public List<MDNFrozenElement> getElements() {
+        return new MDNFrozenDocument.Elements(document, document.childStart[index], document.childStart[index + 1]);
+    }
+
+    /**
+     * Return the list of parameters
+     * @return the list of parameters, it can't be modified
+     */
+    public List<MDNFrozenParam> getParams() {
+        return new MDNFrozenDocument.Params(document, document.paramStart[index], document.paramStart[index + 1]);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(getName()).append(":");
+        for(MDNFrozenParam param : getParams()) {
+            builder.append("\n").append('\t').append(param.toString());
+        }
+        for(MDNFrozenElement element : getElements()) {
+            for(String line : element.toString().split("\n")) {
+                builder.append("\n").append("\t").append(line);
+            }
+        }
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,308 @@
+package com.mystic.mdn;
+
+import java.util.List;
+
+/**
+ * This class represent a parameter of a {@link MDNFrozenElement}, it is a view over the arrays of the document
+ * and can't be modified. <br>
+ * The typed accessors never throw, unlike {@link MDNParam} they don't cache their conversions.
+ * @see MDNParam
+ */
+public final class MDNFrozenParam {
+
+    private final MDNFrozenDocument document;
+    private final int index;
+
+    /**
+     * Constructor for MDNFrozenParam
+     * @param document the document holding the param
+     * @param index the index of the param in the document
+     */
+    MDNFrozenParam(MDNFrozenDocument document, int index) {
+        this.document = document;
+        this.index = index;
+    }
+
+    /**
+     * Get the name of this parameter
+     * @return the name of this parameter
+     */
+    public String getName() {
+        return document.string(document.paramNames[index]);
+    }
+
+    /**
+     * @return {@code true} if this parameter doesn't contains values otherwise {@code false}
+     */
+    public boolean isEmpty() {
+        return getValueCount() == 0;
+    }
+
+    /**
+     * @return {@code true} is this parameter contains more than 1 value otherwise {@code false}
+     */
+    public boolean isList() {
+        return getValueCount() > 1;
+    }
+
+    /**
+     * @return the number of values
+     */
+    public int getValueCount() {
+        return document.valueStart[index + 1] - document.valueStart[index];
+    }
+
+    /**
+     * @return the list of values, it can't be modified
+     */
+    public List<String> getValues() {
+        return new MDNFrozenDocument.Values(document, document.valueStart[index], document.valueStart[index + 1]);
+    }
+
+    /**
+     * Return the the value at the matching {@code index} or {@code defaultValue} if none was found
+     * @param index the index of the value you are looking for
+     * @param defaultValue the default value if there is no matching value
+     * @return the value at matching {@code index} or {@code defaultValue}
+     */
+    public String getValue(int index, String defaultValue) {
+        if(index < 0 || index >= getValueCount()) return defaultValue;
+        return document.string(document.values[document.valueStart[this.index] + index]);
+    }
+
+    /**
+     * Primitive int version of {@link #getValue(int, String)}
+     * @param index the index of the value you are looking for
+     * @param defaultValue the default value if there is no matching or valid value
+     * @return the value at matching {@code index} or {@code defaultValue}
+     */
+    public int getInt(int index, int defaultValue) {
+        return (int) MDNValues.parseInteger(getValue(index, null), 10, Integer.MIN_VALUE, Integer.MAX_VALUE, defaultValue);
+    }
+
+    /**
+     * Primitive long version of {@link #getValue(int, String)}
+     * @param index the index of the value you are looking for
+     * @param defaultValue the default value if there is no matching or valid value
+     * @return the value at matching {@code index} or {@code defaultValue}
+     */
+    public long getLong(int index, long defaultValue) {
+        return MDNValues.parseInteger(getValue(index, null), 10, Long.MIN_VALUE, Long.MAX_VALUE, defaultValue);
+    }
+
+    /**
+     * Primitive hexadecimal version of {@link #getValue(int, String)}
+     * @param index the index of the value you are looking for
+     * @param defaultValue the default value if there is no matching or valid value
+     * @return the value at matching {@code index} or {@code defaultValue}
+     */
+    public long getHex(int index, long defaultValue) {
+        return MDNValues.parseInteger(getValue(index, null), 16, Long.MIN_VALUE, Long.MAX_VALUE, defaultValue);
+    }
+
+    /**
+     * Primitive binary version of {@link #getValue(int, String)}
+     * @param index the index of the value you are looking for
+     * @param defaultValue the default value if there is no matching or valid value
+     * @return the value at matching {@code index} or {@code defaultValue}
+     */
+    public long getBin(int index, long defaultValue) {
+        return MDNValues.parseInteger(getValue(index, null), 2, Long.MIN_VALUE, Long.MAX_VALUE, defaultValue);
+    }
+
+    /**
+     * Primitive float version of {@link #getValue(int, String)}
+     * @param index the index of the value you are looking for
+     * @param defaultValue the default value if there is no matching or valid value
+     * @return the value at matching {@code index} or {@code defaultValue}
+     */
+    public float getFloat(int index, float defaultValue) {
+        return MDNValues.parseFloat(getValue(index, null), defaultValue);
+    }
+
+    /**
+     * Primitive double version of {@link #getValue(int, String)}
+     * @param index the index of the value you are looking for
+     * @param defaultValue the default value if there is no matching or valid value
+     * @return the value at matching {@code index} or {@code defaultValue}
+     */
+    public double getDouble(int index, double defaultValue) {
+        return MDNValues.parseDouble(getValue(index, null), defaultValue);
+    }
+
+    /**
+     * Primitive short version of {@link #getValue(int, String)}
+     * @param index the index of the value you are looking for
+     * @param defaultValue the default value if there is no matching or valid value
+     * @return the value at matching {@code index} or {@code defaultValue}
+     */
+    public short getShort(int index, short defaultValue) {
+        return (short) MDNValues.parseInteger(getValue(index, null), 10, Short.MIN_VALUE, Short.MAX_VALUE, defaultValue);
+    }
+
+    /**
+     * Primitive byte version of {@link #getValue(int, String)}
+     * @param index the index of the value you are looking for
+     * @param defaultValue the default value if there is no matching or valid value
+     * @return the value at matching {@code index} or {@code defaultValue}
+     */
+    public byte getByte(int index, byte defaultValue) {
+        return (byte) MDNValues.parseInteger(getValue(index, null), 10, Byte.MIN_VALUE, Byte.MAX_VALUE, defaultValue);
+    }
+
+    /**
+     * Primitive char version of {@link #getValue(int, String)}
+     * @param index the index of the value you are looking for
+     * @param defaultValue the default value if there is no matching or valid value
+     * @return the first character of the value at matching {@code index} or {@code defaultValue}
+     */
+    public char getChar(int index, char defaultValue) {
+        String value = getValue(index, null);
+        return value != null && !value.isEmpty() ? value.charAt(0) : defaultValue;
+    }
+
+    /**
+     * Int version of {@link #getValue(int, String)}
+     * @param index the index of the value you are looking for
+     * @param defaultValue the default value if there is no matching value
+     * @return the value at matching {@code index} or {@code defaultValue}
+     * @see #getInt(int, int)
+     */
+    public Integer getIntValue(int index, Integer defaultValue) {
+        String value = getValue(index, null);
+        if(!MDNValues.isInteger(value, 10, Integer.MIN_VALUE, Integer.MAX_VALUE)) return defaultValue;
+        return (int) MDNValues.parseInteger(value, 10, Integer.MIN_VALUE, Integer.MAX_VALUE, 0);
+    }
+
+    /**
+     * Long version of {@link #getValue(int, String)}
+     * @param index the index of the value you are looking for
+     * @param defaultValue the default value if there is no matching value
+     * @return the value at matching {@code index} or {@code defaultValue}
+     * @see #getLong(int, long)
+     */
+    public Long getLongValue(int index, Long defaultValue) {
+        return integer(getValue(index, null), 10, defaultValue);
+    }
+
+    /**
+     * Hexadecimal version of {@link #getValue(int, String)}
+     * @param index the index of the value you are looking for
+     * @param defaultValue the default value if there is no matching value
+     * @return the value at matching {@code index} or {@code defaultValue}
+     * @see #getHex(int, long)
+     */
+    public Long getHexValue(int index, Long defaultValue) {
+        return integer(getValue(index, null), 16, defaultValue);
+    }
+
+    /**
+     * Binary version of {@link #getValue(int, String)}
+     * @param index the index of the value you are looking for
+     * @param defaultValue the default value if there is no matching value
+     * @return the value at matching {@code index} or {@code defaultValue}
+     * @see #getBin(int, long)
+     */
+    public Long getBinValue(int index, Long defaultValue) {
+        return integer(getValue(index, null), 2, defaultValue);
+    }
+
+    /**
+     * Float version of {@link #getValue(int, String)}
+     * @param index the index of the value you are looking for
+     * @param defaultValue the default value if there is no matching value
+     * @return the value at matching {@code index} or {@code defaultValue}
+     * @see #getFloat(int, float)
+     */
+    public Float getFloatValue(int index, Float defaultValue) {
+        String value = getValue(index, null);
+        return MDNValues.isDecimal(value) ? Float.valueOf(value) : defaultValue;
+    }
+
+    /**
+     * Double version of {@link #getValue(int, String)}
+     * @param index the index of the value you are looking for
+     * @param defaultValue the default value if there is no matching value
+     * @return the value at matching {@code index} or {@code defaultValue}
+     * @see #getDouble(int, double)
+     */
+    public Double getDoubleValue(int index, Double defaultValue) {
+        String value = getValue(index, null);
+        return MDNValues.isDecimal(value) ? Double.valueOf(value) : defaultValue;
+    }
+
+    /**
+     * Short version of {@link #getValue(int, String)}
+     * @param index the index of the value you are looking for
+     * @param defaultValue the default value if there is no matching value
+     * @return the value at matching {@code index} or {@code defaultValue}
+     * @see #getShort(int, short)
+     */
+    public Short getShortValue(int index, Short defaultValue) {
+        String value = getValue(index, null);
+        if(!MDNValues.isInteger(value, 10, Short.MIN_VALUE, Short.MAX_VALUE)) return defaultValue;
+        return (short) MDNValues.parseInteger(value, 10, Short.MIN_VALUE, Short.MAX_VALUE, 0);
+    }
+
+    /**
+     * Byte version of {@link #getValue(int, String)}
+     * @param index the index of the value you are looking for
+     * @param defaultValue the default value if there is no matching value
+     * @return the value at matching {@code index} or {@code defaultValue}
+     * @see #getByte(int, byte)
+     */
+    public Byte getByteValue(int index, Byte defaultValue) {
+        String value = getValue(index, null);
+        if(!MDNValues.isInteger(value, 10, Byte.MIN_VALUE, Byte.MAX_VALUE)) return defaultValue;
+        return (byte) MDNValues.parseInteger(value, 10, Byte.MIN_VALUE, Byte.MAX_VALUE, 0);
+    }
+
+    /**
+     * Character version of {@link #getValue(int, String)}
+     * @param index the index of the value you are looking for
+     * @param defaultValue the default value if there is no matching value
+     * @return the value at matching {@code index} or {@code defaultValue}
+     * @see #getChar(int, char)
+     */
+    public Character getCharValue(int index, Character defaultValue) {
+        String value = getValue(index, null);
+        return value != null && !value.isEmpty() ? Character.valueOf(value.charAt(0)) : defaultValue;
+    }
+
+    /**
+     * Enum version of {@link #getValue(int, String)}
+     * @param index the index of the value you are looking for
+     * @param defaultValue the default value if there is no matching value
+     * @param enumClass the class of the resulting enum
+     * @param <E> generic of the resulting enum
+     * @return the value matching {@code index} or {@code defaultValue}
+     */
+    public <E extends Enum<E>> E getEnumValue(int index, E defaultValue, Class<E> enumClass) {
+        E constant = MDNValues.parseEnum(getValue(index, null), enumClass);
+        return constant != null ? constant : defaultValue;
+    }
+
+    private static Long integer(String value, int radix, Long defaultValue) {
+        if(!MDNValues.isInteger(value, radix, Long.MIN_VALUE, Long.MAX_VALUE)) return defaultValue;
+        return MDNValues.parseInteger(value, radix, Long.MIN_VALUE, Long.MAX_VALUE, 0);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(getName()).append(": ");
+        int count = getValueCount();
+        if(count == 0) builder.append("\"\"");
+        else if(count == 1) builder.append("\"").append(getValue(0, null)).append("\"");
+        else {
+            builder.append("[");
+            for(int i = 0; i < count; i++) {
+                if(i != 0) builder.append(",");
+                builder.append("\"").append(getValue(i, null)).append("\"");
+            }
+            builder.append("]");
+        }
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.mystic.mdn;
+
+/**
+ * This class holds the 64-bit hash functions of the structural hashes of {@link MDNParam} and {@link MDNElement}. <br>
+ * The hash of an element is computed from its name and from the hashes of its params and children, so two subtrees
+ * with different hashes are different and two subtrees with the same hash are, up to a collision of 64-bit hashes,
+ * identical. The hashes are computed over the characters of the Strings rather than through
+ * {@link String#hashCode()}, whose 32-bit collisions are easy to come by.
+ * @see MDNDiff
+ */
+final class MDNHash {
+
+    /**
+     * The hash of a null String
+     */
+    private static final long NULL = 0x6A09E667F3BCC908L;
+
+    private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private MDNHash() {
+    }
+
+    /**
+     * @param value a String, or null
+     * @return the hash of <code>value</code>
+     */
+    static long string(String value) {
+        if(value == null) return NULL;
+        long hash = 0xCBF29CE484222325L ^ value.length();
+        for(int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Add a value to a hash, the result depends on the order of the values
+     * @param hash the hash of the previous values
+     * @param value the value
+     * @return the hash of the previous values followed by <code>value</code>
+     */
+    static long combine(long hash, long value) {
+        hash = (hash + value) * MULTIPLIER;
+        return hash ^ (hash >>> 29);
+    }
+
+    /**
+     * Spread the bits of a hash, the result is never 0 so 0 can stand for a hash that isn't computed
+     * @param hash the hash
+     * @return the final hash
+     */
+    static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash == 0 ? 1 : hash;
+    }
+
+}
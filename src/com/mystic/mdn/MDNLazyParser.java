@@ -0,0 +1,215 @@
+package com.mystic.mdn;
+
+/**
+ * This class is used to parse a source into a {@link MDNDocument} whose elements are only built when they are used. <br>
+ * The source is split into elements by a {@link MDNScanner}, each element only keeps its name and its span. The
+ * first time its params or children are used, the tag of the element is parsed and its body is split the same way,
+ * so reading one element only parses the elements on its path. <br>
+ * Anything the scanner can't be sure about is parsed right away: the rest of the source when the scanner stops at
+ * the top level, or the whole element when it stops inside one.
+ * @see MDN#parseLazy(String)
+ */
+final class MDNLazyParser {
+
+    /**
+     * The size of the buffer of the lexer reading a tag, most tags fit in it
+     */
+    private static final int TAG_BUFFER_SIZE = 256;
+
+    private final String src;
+    private final MDNStringPool pool;
+
+    private MDNLazyParser(String src, MDNStringPool pool) {
+        this.src = src;
+        this.pool = pool;
+    }
+
+    /**
+     * See {@link MDN#parseLazy(String)}
+     */
+    static MDNDocument parse(String src, MDNStringPool pool) throws MDNLexerError, MDNParseError {
+        MDNLazyParser parser = new MDNLazyParser(src, pool);
+        MDNDocument document = new MDNDocument();
+        MDNScanner scanner = new MDNScanner(src, 0, src.length(), 0, 0);
+        int start = 0, line = 0, column = 0;
+        while(scanner.nextElement()) {
+            document.addElement(parser.lazy(scanner));
+            start = scanner.getElementEnd();
+            line = scanner.getLine();
+            column = scanner.getColumn();
+        }
+
+        MDNLexer lexer = new MDNLexer(src, start, src.length(), line, column);
+        lexer.setPool(pool);
+        document.getElements().addAll(MDNList.take(new MDNParser(lexer).parseDocument().getElements()));
+        return document;
+    }
+
+    /**
+     * Create the element found by <code>scanner</code>, it only gets its name and span
+     */
+    private MDNElement lazy(MDNScanner scanner) {
+        int nameStart = scanner.getNameStart();
+        String name = nameStart < 0 ? "" : name(nameStart, scanner.getNameEnd() - nameStart);
+        MDNElement element = new MDNElement(name);
+        element.sourceStart = scanner.getElementStart();
+        element.sourceEnd = scanner.getElementEnd();
+        element.pending = new Pending(this, scanner.getElementLine(), scanner.getElementColumn());
+        return element;
+    }
+
+    private String name(int start, int length) {
+        return pool != null ? pool.intern(src, start, length) : src.substring(start, start + length);
+    }
+
+    /**
+     * Build the params and children of a lazy element
+     * @param element the element
+     * @param line the number of linebreaks before the element
+     * @param column the index of the element on its line
+     * @return an element with the name, the params and the (lazy) children of <code>element</code>
+     * @throws IllegalStateException if the element is invalid, the {@link MDNLexerError} or {@link MDNParseError}
+     * is then the cause of the exception
+     */
+    private MDNElement materialize(MDNElement element, int line, int column) throws IllegalStateException {
+        int start = element.sourceStart, end = element.sourceEnd;
+        MDNLexer lexer = new MDNLexer(src, start, end, line, column, TAG_BUFFER_SIZE);
+        lexer.setPool(pool);
+        Tag tag = new Tag(lexer);
+        MDNElement parsed;
+        try {
+            MDNParser parser = new MDNParser(tag);
+            MDNDocument document = parser.parseDocument();
+            if(!parser.isComplete() || document.getElements().size() != 1) return parseElement(start, end, line, column);
+            parsed = document.getElements().get(0);
+        } catch (MDNLexerError | MDNParseError e) {
+            return parseElement(start, end, line, column);
+        }
+        parsed.sourceStart = start;
+        parsed.sourceEnd = end;
+        if(tag.bodyStart < 0) return parsed;
+
+        int bodyEnd = src.charAt(end - 3) == '<' ? end - 3 : end - 2;
+        MDNScanner scanner = new MDNScanner(src, tag.bodyStart, bodyEnd, tag.bodyLine, tag.bodyColumn);
+        while(scanner.nextElement()) {
+            parsed.addElement(lazy(scanner));
+        }
+        if(scanner.isStopped()) return parseElement(start, end, line, column);
+        return parsed;
+    }
+
+    /**
+     * Parse a whole element at once
+     */
+    private MDNElement parseElement(int start, int end, int line, int column) throws IllegalStateException {
+        MDNLexer lexer = new MDNLexer(src, start, end, line, column);
+        lexer.setPool(pool);
+        MDNParser parser = new MDNParser(lexer);
+        MDNDocument document;
+        try {
+            document = parser.parseDocument();
+        } catch (MDNLexerError | MDNParseError e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        if(!parser.isComplete() || document.getElements().size() != 1) {
+            throw new IllegalStateException("Invalid element at " + line + ":" + column + "!");
+        }
+        return document.getElements().get(0);
+    }
+
+    /**
+     * The state of an element that hasn't been built yet
+     */
+    static final class Pending {
+
+        private final MDNLazyParser parser;
+        private final int line, column;
+
+        private Pending(MDNLazyParser parser, int line, int column) {
+            this.parser = parser;
+            this.line = line;
+            this.column = column;
+        }
+
+        /**
+         * See {@link MDNLazyParser#materialize(MDNElement, int, int)}
+         */
+        MDNElement materialize(MDNElement element) throws IllegalStateException {
+            return parser.materialize(element, line, column);
+        }
+
+    }
+
+    /**
+     * {@link MDNTokenSource} reading the tokens of the tag of an element, an element with a body is closed right
+     * after its tag so the body can be scanned instead of parsed
+     */
+    private static final class Tag implements MDNTokenSource {
+
+        private final MDNLexer lexer;
+        private MDNTokenType type = null;
+        private boolean closing = false, closed = false;
+
+        private int bodyStart = -1, bodyLine = 0, bodyColumn = 0;
+
+        private Tag(MDNLexer lexer) {
+            this.lexer = lexer;
+        }
+
+        @Override
+        public MDNTokenType nextToken() throws MDNLexerError {
+            if(closed) return type = null;
+            if(closing) {
+                closed = true;
+                return type = MDNTokenType.MARK_END;
+            }
+            type = lexer.nextToken();
+            if(type == MDNTokenType.R_ANGLE) {
+                closing = true;
+                bodyStart = lexer.getEndOffset();
+                bodyLine = lexer.getLine();
+                bodyColumn = lexer.getEnd();
+            } else if(type == MDNTokenType.MARK_END) {
+                closed = true;
+            }
+            return type;
+        }
+
+        @Override
+        public String getValue() {
+            return lexer.getValue();
+        }
+
+        @Override
+        public int getLine() {
+            return lexer.getLine();
+        }
+
+        @Override
+        public int getStart() {
+            return lexer.getStart();
+        }
+
+        @Override
+        public int getEnd() {
+            return lexer.getEnd();
+        }
+
+        @Override
+        public int getOffset() {
+            return closed && type == MDNTokenType.MARK_END && closing ? -1 : lexer.getOffset();
+        }
+
+        @Override
+        public int getEndOffset() {
+            return closed && type == MDNTokenType.MARK_END && closing ? -1 : lexer.getEndOffset();
+        }
+
+        @Override
+        public MDNToken toToken() {
+            return lexer.toToken();
+        }
+
+    }
+
+}
@@ -1,22 +1,65 @@
 package com.mystic.mdn;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
 
 /**
- * This class is used to convert a string into a list of tokens.
+ * This class is used to convert a string into a list of tokens. <br>
+ * The tokens can be created all at once with {@link #makeTokens()} or pulled one by one with {@link #nextToken()},
+ * in which case the source is read through a fixed size buffer. <br>
+ * Identifiers and values without escape sequences are kept as slices of that buffer, the String of a token
+ * is only created when {@link #getValue()} is called.
  * @see MDNToken
  */
-public class MDNLexer {
+public class MDNLexer implements MDNTokenSource {
 
-    private static final String IDENTIFIER_START = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ_";
-    private static final String IDENTIFIER_BODY = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ_0123456789-";
+    private static final byte IDENTIFIER_START = 1;
+    private static final byte IDENTIFIER_BODY = 2;
+    private static final byte VALUE_SPECIAL = 4;
+    private static final byte[] CHAR_CLASS = new byte[128];
 
-    private final String src;
+    static {
+        for(char c = 'a'; c <= 'z'; c++) CHAR_CLASS[c] = IDENTIFIER_START | IDENTIFIER_BODY;
+        for(char c = 'A'; c <= 'Z'; c++) CHAR_CLASS[c] = IDENTIFIER_START | IDENTIFIER_BODY;
+        CHAR_CLASS['_'] = IDENTIFIER_START | IDENTIFIER_BODY;
+        for(char c = '0'; c <= '9'; c++) CHAR_CLASS[c] = IDENTIFIER_BODY;
+        CHAR_CLASS['-'] = IDENTIFIER_BODY;
+        CHAR_CLASS['"'] = VALUE_SPECIAL;
+        CHAR_CLASS['\\'] = VALUE_SPECIAL;
+        CHAR_CLASS['\n'] = VALUE_SPECIAL;
+        CHAR_CLASS[0] = VALUE_SPECIAL;
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private CharSequence src;
+    private final Reader reader;
+    private int srcPos = 0;
+    private int srcEnd = 0;
+    private boolean eof = false;
+
+    private char[] buffer;
+    private int base = 0;
+    private int length = 0;
     private int ptr = -1;
+    private int mark = -1;
     private int line = 0;
     private int linePos = -1;
     private char current = 0;
 
+    private char[] scratch = new char[0];
+    private int scratchLength = 0;
+
+    private boolean afterIdentifier = false;
+    private MDNTokenType type = null;
+    private String value = "";
+    private char[] valueChars = null;
+    private int valueOffset = 0, valueLength = 0;
+    private int tokenLine = 0, tokenStart = 0, tokenEnd = 0;
+    private int tokenOffset = 0, tokenEndOffset = 0;
+    private MDNStringPool pool = null;
+
     /**
      * Constructor for MDNLexer
      * @param src the string you want to convert
@@ -25,15 +68,161 @@ public class MDNLexer {
     public MDNLexer(String src) throws NullPointerException {
         if(src == null) throw new NullPointerException("Failed to create MDNLexer");
         this.src = src;
-        advance();
+        this.reader = null;
+        this.srcEnd = src.length();
+        this.buffer = new char[Math.max(1, Math.min(BUFFER_SIZE, src.length()))];
+    }
+
+    /**
+     * Constructor for MDNLexer, only the characters from <code>start</code> to <code>end</code> are read and the
+     * positions of the tokens are given as if the whole string was read
+     * @param src the string you want to convert
+     * @param start the index of the first character to read
+     * @param end the index after the last character to read
+     * @param line the number of linebreaks before <code>start</code>
+     * @param column the index of the character at <code>start</code> on its line (ignored if it is a linebreak)
+     * @throws NullPointerException is the <code>src</code> is null
+     */
+    MDNLexer(String src, int start, int end, int line, int column) throws NullPointerException {
+        this(src, start, end, line, column, BUFFER_SIZE);
+    }
+
+    /**
+     * Constructor for MDNLexer reading a range of <code>src</code>, see {@link #MDNLexer(String, int, int, int, int)}
+     * @param bufferSize the maximum number of characters read at once, for a range that is only partly lexed
+     * @throws NullPointerException is the <code>src</code> is null
+     */
+    MDNLexer(String src, int start, int end, int line, int column, int bufferSize) throws NullPointerException {
+        if(src == null) throw new NullPointerException("Failed to create MDNLexer");
+        this.src = src;
+        this.reader = null;
+        this.srcPos = start;
+        this.srcEnd = end;
+        this.base = start;
+        this.line = line;
+        this.linePos = column - 1;
+        this.buffer = new char[Math.max(1, Math.min(bufferSize, end - start))];
+    }
+
+    /**
+     * Constructor for MDNLexer, the characters are read from <code>reader</code> only when they are needed
+     * @param reader the reader you want to convert
+     * @throws NullPointerException is the <code>reader</code> is null
+     */
+    public MDNLexer(Reader reader) throws NullPointerException {
+        if(reader == null) throw new NullPointerException("Failed to create MDNLexer");
+        this.src = null;
+        this.reader = reader;
+        this.buffer = new char[BUFFER_SIZE];
+    }
+
+    /**
+     * Start reading <code>src</code> from the beginning, the buffers of the lexer are kept for the new source. <br>
+     * Only a lexer reading a string can be reset.
+     * @param src the characters you want to convert
+     * @throws NullPointerException is the <code>src</code> is null
+     * @throws IllegalStateException if the lexer reads a {@link Reader}
+     */
+    void reset(CharSequence src) throws NullPointerException, IllegalStateException {
+        if(src == null) throw new NullPointerException("Failed to reset MDNLexer");
+        if(reader != null) throw new IllegalStateException("A MDNLexer reading a Reader can't be reset!");
+        this.src = src;
+        this.srcPos = 0;
+        this.srcEnd = src.length();
+        this.eof = false;
+        // A buffer or scratch grown by a long token isn't kept, so a single large source doesn't pin its memory
+        int size = Math.min(BUFFER_SIZE, srcEnd);
+        if(buffer.length > BUFFER_SIZE) buffer = new char[BUFFER_SIZE];
+        else if(buffer.length < size) buffer = new char[Math.min(BUFFER_SIZE, Math.max(size, buffer.length * 2))];
+        if(scratch.length > BUFFER_SIZE) scratch = new char[0];
+        this.base = 0;
+        this.length = 0;
+        this.ptr = -1;
+        this.mark = -1;
+        this.line = 0;
+        this.linePos = -1;
+        this.current = 0;
+        this.scratchLength = 0;
+        this.afterIdentifier = false;
+        this.type = null;
+        this.value = "";
+        this.valueChars = null;
+        this.valueOffset = 0;
+        this.valueLength = 0;
+        this.tokenLine = 0;
+        this.tokenStart = 0;
+        this.tokenEnd = 0;
+        this.tokenOffset = 0;
+        this.tokenEndOffset = 0;
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return c < 128 && (CHAR_CLASS[c] & IDENTIFIER_START) != 0;
+    }
+
+    private static boolean isIdentifierBody(char c) {
+        return c < 128 && (CHAR_CLASS[c] & IDENTIFIER_BODY) != 0;
+    }
+
+    private static boolean isPlainValue(char c) {
+        return c >= 128 || (CHAR_CLASS[c] & VALUE_SPECIAL) == 0;
+    }
+
+    /**
+     * Read the next chunk of the source into the buffer, the characters from {@link #mark} are kept
+     * @throws MDNLexerError if the reader failed
+     */
+    private void fill() throws MDNLexerError {
+        int keep = mark >= 0 ? mark : ptr;
+        if(keep > 0) {
+            System.arraycopy(buffer, keep, buffer, 0, length - keep);
+            base += keep;
+            length -= keep;
+            ptr -= keep;
+            if(mark >= 0) mark -= keep;
+        } else if(mark < 0) {
+            length = 0;
+            ptr = 0;
+        }
+        if(eof) return;
+        if(length == buffer.length) {
+            char[] grown = new char[buffer.length * 2];
+            System.arraycopy(buffer, 0, grown, 0, length);
+            buffer = grown;
+        }
+        if(reader != null) {
+            try {
+                int read;
+                do {
+                    read = reader.read(buffer, length, buffer.length - length);
+                } while(read == 0);
+                if(read > 0) length += read;
+                else eof = true;
+            } catch (IOException e) {
+                throw new MDNLexerError("Failed to read the source at " + line + ":" + linePos + "!", e);
+            }
+        } else if(srcPos < srcEnd) {
+            int count = Math.min(buffer.length - length, srcEnd - srcPos);
+            if(src instanceof String) {
+                ((String) src).getChars(srcPos, srcPos + count, buffer, length);
+            } else {
+                for(int i = 0; i < count; i++) {
+                    buffer[length + i] = src.charAt(srcPos + i);
+                }
+            }
+            srcPos += count;
+            length += count;
+        } else eof = true;
     }
 
     /**
      * Advance to the next character
+     * @throws MDNLexerError if the source could not be read
      */
-    private void advance() {
+    private void advance() throws MDNLexerError {
         ptr++;
-        if(ptr < src.length()) current = src.charAt(ptr);
+        if(ptr >= length) fill();
+        if(ptr < length) current = buffer[ptr];
         else current = 0;
         if(current == '\n') {
             line++;
@@ -42,99 +231,313 @@ public class MDNLexer {
     }
 
     /**
-     * Convert the src string into a list of tokens
-     * @return the list of tokens created
+     * Skip the characters of the buffer up to (excluding) <code>end</code> that are known not to be a linebreak,
+     * and advance to the character at <code>end</code>
+     * @param end the index of the next character to read
+     * @throws MDNLexerError if the source could not be read
+     */
+    private void skipTo(int end) throws MDNLexerError {
+        linePos += end - 1 - ptr;
+        ptr = end - 1;
+        advance();
+    }
+
+    private void appendScratch(char[] chars, int offset, int count) {
+        if(scratchLength + count > scratch.length) {
+            char[] grown = new char[Math.max(16, Math.max(scratchLength + count, scratch.length * 2))];
+            System.arraycopy(scratch, 0, grown, 0, scratchLength);
+            scratch = grown;
+        }
+        System.arraycopy(chars, offset, scratch, scratchLength, count);
+        scratchLength += count;
+    }
+
+    private void appendScratch(char c) {
+        if(scratchLength == scratch.length) {
+            char[] grown = new char[Math.max(16, scratch.length * 2)];
+            System.arraycopy(scratch, 0, grown, 0, scratchLength);
+            scratch = grown;
+        }
+        scratch[scratchLength++] = c;
+    }
+
+    private MDNTokenType token(MDNTokenType type, int line, int start, int end) {
+        this.type = type;
+        this.value = "";
+        this.valueChars = null;
+        this.valueOffset = 0;
+        this.valueLength = 0;
+        this.tokenLine = line;
+        this.tokenStart = start;
+        this.tokenEnd = end;
+        this.tokenEndOffset = base + ptr + 1;
+        return type;
+    }
+
+    private MDNTokenType token(MDNTokenType type, char[] chars, int offset, int count, int line, int start, int end) {
+        token(type, line, start, end);
+        this.value = null;
+        this.valueChars = chars;
+        this.valueOffset = offset;
+        this.valueLength = count;
+        this.tokenEndOffset = base + ptr;
+        return type;
+    }
+
+    /**
+     * Read the next token, its value and position are then available through {@link #getValue()},
+     * {@link #getLine()}, {@link #getStart()} and {@link #getEnd()}
+     * @return the type of the token or null if the end of the source is reached
      * @throws MDNLexerError if there is a syntax error
      */
-    public ArrayList<MDNToken> makeTokens() throws MDNLexerError {
-        ArrayList<MDNToken> tokens = new ArrayList<>();
+    @Override
+    public MDNTokenType nextToken() throws MDNLexerError {
+        mark = -1;
+        if(ptr < 0) advance();
 
         while(current != 0) {
-            if(IDENTIFIER_START.indexOf(current) != -1) {
-                int startPos = linePos;
-                StringBuilder builder = new StringBuilder().append(current);
-                advance();
-                while(IDENTIFIER_BODY.indexOf(current) != -1) {
-                    builder.append(current);
+            if(afterIdentifier) {
+                afterIdentifier = false;
+                if(current == '"') {
                     advance();
+                    continue;
                 }
-                tokens.add(new MDNToken(MDNTokenType.IDENTIFIER, builder.toString(), line, startPos, linePos + 1));
-            } else if(current == '"') {
+            }
+            tokenOffset = base + ptr;
+            if(isIdentifierStart(current)) {
                 int startPos = linePos;
-                advance();
-                StringBuilder builder = new StringBuilder();
-                boolean skip = false;
-                while(true) {
-                    if(current == '\\') {
-                        if(skip) {
-                            builder.append('\\');
-                            skip = false;
-                        } else skip = true;
-                    } else if (current == 't') {
-                        if(skip) builder.append("\t");
-                        else builder.append("t");
-                        skip = false;
-                    } else if (current == 'r') {
-                        if(skip) builder.append("\r");
-                        else builder.append("r");
-                        skip = false;
-                    } else if (current == 'n') {
-                        if(skip) builder.append("\n");
-                        else builder.append("n");
-                        skip = false;
-                    } else if (current == 'f') {
-                        if(skip) builder.append("\f");
-                        else builder.append("f");
-                        skip = false;
-                    } else if (current == '"') {
-                        if(skip) builder.append("\"");
-                        else break;
-                        skip = false;
-                    } else if(current == 0) {
-                        throw new MDNLexerError("Unexpected EOF, should be '\"' at " + line + ":" + linePos + "!");
-                    } else if(current == '\n') {
-                        throw new MDNLexerError("Unexpected '\n' (linebreak), at " + line + ":" + linePos + "!");
-                    } else {
-                        builder.append(current);
-                        skip = false;
+                mark = ptr;
+                do {
+                    int end = ptr + 1;
+                    while(end < length && isIdentifierBody(buffer[end])) end++;
+                    skipTo(end);
+                } while(isIdentifierBody(current));
+                afterIdentifier = true;
+                return token(MDNTokenType.IDENTIFIER, buffer, mark, ptr - mark, line, startPos, linePos + 1);
+            }
+            switch (current) {
+                case '"':
+                    return makeValue();
+                case '#':
+                    while(current != '\n' && current != 0) {
+                        advance();
                     }
+                    continue;
+                case ',':
+                    token(MDNTokenType.COMMA, line, linePos, linePos + 1);
                     advance();
-                }
-                tokens.add(new MDNToken(MDNTokenType.VALUE, builder.toString(), line, startPos, linePos + 1));
-            } if(current == '#') {
-                while (current != '\n') {
+                    return type;
+                case '(':
+                    token(MDNTokenType.L_PARENT, line, linePos, linePos + 1);
                     advance();
-                }
-            } else if(current == ',') {
-                tokens.add(new MDNToken(MDNTokenType.COMMA, "", line, linePos, linePos + 1));
-            } else if(current == '(') {
-                tokens.add(new MDNToken(MDNTokenType.L_PARENT, "", line, linePos, linePos + 1));
-            } else if(current == ')') {
-                tokens.add(new MDNToken(MDNTokenType.R_PARENT, "", line, linePos, linePos + 1));
-            } else if(current == '[') {
-                tokens.add(new MDNToken(MDNTokenType.L_BRACKET, "", line, linePos, linePos + 1));
-            } else if(current == ']') {
-                tokens.add(new MDNToken(MDNTokenType.R_BRACKET, "", line, linePos, linePos + 1));
-            } else if(current == '<') {
-                advance();
-                if(current == '/') {
+                    return type;
+                case ')':
+                    token(MDNTokenType.R_PARENT, line, linePos, linePos + 1);
+                    advance();
+                    return type;
+                case '[':
+                    token(MDNTokenType.L_BRACKET, line, linePos, linePos + 1);
+                    advance();
+                    return type;
+                case ']':
+                    token(MDNTokenType.R_BRACKET, line, linePos, linePos + 1);
                     advance();
-                    if(current == '>') tokens.add(new MDNToken(MDNTokenType.MARK_END, "", line, linePos, linePos + 1));
+                    return type;
+                case '<':
+                    advance();
+                    if(current == '/') {
+                        advance();
+                        if(current == '>') return token(MDNTokenType.MARK_END, line, linePos, linePos + 1);
+                        else throw new MDNLexerError("Unexpected '" + current + "', should be '>' at " + line + ":" + linePos + "!");
+                    }
+                    token(MDNTokenType.L_ANGLE, line, linePos, linePos + 1);
+                    tokenEndOffset = tokenOffset + 1;
+                    return type;
+                case '/':
+                    advance();
+                    if(current == '>') return token(MDNTokenType.MARK_END, line, linePos, linePos + 1);
                     else throw new MDNLexerError("Unexpected '" + current + "', should be '>' at " + line + ":" + linePos + "!");
-                } else tokens.add(new MDNToken(MDNTokenType.L_ANGLE, "", line, linePos, linePos + 1));
-                continue;
-            } else if(current == '/') {
-                advance();
-                if(current == '>') tokens.add(new MDNToken(MDNTokenType.MARK_END, "", line, linePos, linePos + 1));
-                else throw new MDNLexerError("Unexpected '" + current + "', should be '>' at " + line + ":" + linePos + "!");
-                continue;
-            } else if(current == '>') {
-                tokens.add(new MDNToken(MDNTokenType.R_ANGLE, "", line, linePos, linePos + 1));
+                case '>':
+                    token(MDNTokenType.R_ANGLE, line, linePos, linePos + 1);
+                    advance();
+                    return type;
             }
             advance();
         }
 
+        tokenOffset = base + Math.max(ptr, 0);
+        token(null, line, linePos, linePos);
+        tokenEndOffset = tokenOffset;
+        return type;
+    }
+
+    /**
+     * Read a value starting at the current '"'. The value is a slice of the buffer unless it contains escape
+     * sequences, in which case it is copied into {@link #scratch}
+     * @return {@link MDNTokenType#VALUE}
+     * @throws MDNLexerError if the value is not closed on the same line
+     */
+    private MDNTokenType makeValue() throws MDNLexerError {
+        int startPos = linePos;
+        mark = ptr;
+        advance();
+        boolean escaped = false;
+        boolean skip = false;
+        while(true) {
+            if(!skip) {
+                int end = ptr;
+                while(end < length && isPlainValue(buffer[end])) end++;
+                if(end > ptr) {
+                    if(escaped) appendScratch(buffer, ptr, end - ptr);
+                    skipTo(end);
+                    continue;
+                }
+                if(current == '"') break;
+            }
+            if(current == 0) {
+                throw new MDNLexerError("Unexpected EOF, should be '\"' at " + line + ":" + linePos + "!");
+            } else if(current == '\n') {
+                throw new MDNLexerError("Unexpected '\n' (linebreak), at " + line + ":" + linePos + "!");
+            }
+            if(!escaped) {
+                scratchLength = 0;
+                appendScratch(buffer, mark + 1, ptr - mark - 1);
+                escaped = true;
+                mark = -1;
+            }
+            if(current == '\\') {
+                if(skip) {
+                    appendScratch('\\');
+                    skip = false;
+                } else skip = true;
+            } else if(skip) {
+                switch (current) {
+                    case 't': appendScratch('\t'); break;
+                    case 'r': appendScratch('\r'); break;
+                    case 'n': appendScratch('\n'); break;
+                    case 'f': appendScratch('\f'); break;
+                    default: appendScratch(current);
+                }
+                skip = false;
+            } else appendScratch(current);
+            advance();
+        }
+        int endLine = line, endPos = linePos + 1;
+        advance();
+        if(escaped) return token(MDNTokenType.VALUE, scratch, 0, scratchLength, endLine, startPos, endPos);
+        return token(MDNTokenType.VALUE, buffer, mark + 1, ptr - mark - 2, endLine, startPos, endPos);
+    }
+
+    /**
+     * Convert the src string into a list of tokens
+     * @return the list of tokens created
+     * @throws MDNLexerError if there is a syntax error
+     */
+    public ArrayList<MDNToken> makeTokens() throws MDNLexerError {
+        ArrayList<MDNToken> tokens = new ArrayList<>();
+
+        while(nextToken() != null) {
+            tokens.add(toToken());
+        }
+
         return tokens;
     }
 
+    /**
+     * @return the type of the last token read by {@link #nextToken()} or null if there is none
+     */
+    public MDNTokenType getType() {
+        return type;
+    }
+
+    /**
+     * @return the value of the last token read by {@link #nextToken()} (empty for everything but identifiers and values)
+     */
+    @Override
+    public String getValue() {
+        if(value == null) {
+            if(pool != null) value = pool.intern(valueChars, valueOffset, valueLength);
+            else value = new String(valueChars, valueOffset, valueLength);
+        }
+        return value;
+    }
+
+    /**
+     * Set the pool used by {@link #getValue()} to share the identifiers and values
+     * @param pool the pool or null to create a new String for every value
+     */
+    void setPool(MDNStringPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * @return the array holding the characters of the last value, only valid until the next call to {@link #nextToken()}
+     */
+    char[] getValueChars() {
+        return valueChars;
+    }
+
+    /**
+     * @return the index of the first character of the last value in {@link #getValueChars()}
+     */
+    int getValueOffset() {
+        return valueOffset;
+    }
+
+    /**
+     * @return the number of characters of the last value
+     */
+    int getValueLength() {
+        return valueLength;
+    }
+
+    /**
+     * @return the line of the last token read by {@link #nextToken()}
+     */
+    @Override
+    public int getLine() {
+        return tokenLine;
+    }
+
+    /**
+     * @return the index of the start of the last token read by {@link #nextToken()} on its line
+     */
+    @Override
+    public int getStart() {
+        return tokenStart;
+    }
+
+    /**
+     * @return the index of the end of the last token read by {@link #nextToken()} on its line
+     */
+    @Override
+    public int getEnd() {
+        return tokenEnd;
+    }
+
+    /**
+     * @return the index in the source of the first character of the last token read by {@link #nextToken()}
+     */
+    @Override
+    public int getOffset() {
+        return tokenOffset;
+    }
+
+    /**
+     * @return the index in the source after the last character of the last token read by {@link #nextToken()}
+     */
+    @Override
+    public int getEndOffset() {
+        return tokenEndOffset;
+    }
+
+    /**
+     * Create a {@link MDNToken} from the last token read by {@link #nextToken()}
+     * @return the token created
+     */
+    @Override
+    public MDNToken toToken() {
+        return new MDNToken(type, getValue(), tokenLine, tokenStart, tokenEnd);
+    }
+
 }
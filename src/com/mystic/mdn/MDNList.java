@@ -0,0 +1,313 @@
+package com.mystic.mdn;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * An {@link ArrayList} that tells its owner about every change, it is used for the lists handed out by
+ * {@link MDNElement#getElements()}, {@link MDNElement#getParams()} and {@link MDNDocument#getElements()}
+ * so they can be modified directly without leaving the owner out of date. <br>
+ * {@link #check(Object)} is called before an item enters the list and may refuse it, {@link #added(Object)} is
+ * called for every item that enters the list, {@link #removed(Object)} for every item that leaves it and
+ * {@link #changed()} after every change that is not a plain append at the end of the list. An item that is
+ * replaced by itself is both added and removed. The views returned by {@link #subList(int, int)} make their
+ * changes through the list, so they are seen the same way.
+ * @param <T> the type of the items
+ */
+abstract class MDNList<T> extends ArrayList<T> {
+
+    /**
+     * Called before an item enters the list, nothing is changed if it throws
+     * @param item the item about to be added
+     * @throws IllegalArgumentException if the item can't be added to this list
+     */
+    void check(T item) throws IllegalArgumentException {
+    }
+
+    /**
+     * Called when an item enters the list
+     * @param item the item added
+     */
+    abstract void added(T item);
+
+    /**
+     * Called when an item leaves the list, after {@link #added(Object)} was called for the item replacing it
+     * @param item the item removed
+     */
+    void removed(T item) {
+    }
+
+    /**
+     * Called after any change that is not a plain append
+     */
+    abstract void changed();
+
+    /**
+     * Empty <code>list</code> and get its items, so they can be added to another list
+     * @param list the list you want to empty
+     * @return the items of the list, in order
+     */
+    static <T> ArrayList<T> take(List<T> list) {
+        ArrayList<T> items = new ArrayList<>(list);
+        list.clear();
+        return items;
+    }
+
+    @Override
+    public boolean add(T item) {
+        check(item);
+        super.add(item);
+        added(item);
+        return true;
+    }
+
+    @Override
+    public void add(int index, T item) {
+        check(item);
+        super.add(index, item);
+        added(item);
+        changed();
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> items) {
+        for(T item : items) {
+            check(item);
+        }
+        int from = size();
+        boolean modified = super.addAll(items);
+        for(int i = from; i < size(); i++) {
+            added(get(i));
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends T> items) {
+        for(T item : items) {
+            check(item);
+        }
+        int from = size();
+        boolean modified = super.addAll(index, items);
+        for(int i = index; i < index + size() - from; i++) {
+            added(get(i));
+        }
+        if(modified) changed();
+        return modified;
+    }
+
+    @Override
+    public T set(int index, T item) {
+        check(item);
+        T previous = super.set(index, item);
+        added(item);
+        removed(previous);
+        changed();
+        return previous;
+    }
+
+    @Override
+    public T remove(int index) {
+        T removed = super.remove(index);
+        removed(removed);
+        changed();
+        return removed;
+    }
+
+    @Override
+    public boolean remove(Object item) {
+        int index = indexOf(item);
+        if(index < 0) return false;
+        remove(index);
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> items) {
+        Objects.requireNonNull(items);
+        return removeIf(items::contains);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> items) {
+        Objects.requireNonNull(items);
+        return removeIf(item -> !items.contains(item));
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        Objects.requireNonNull(filter);
+        ArrayList<T> removed = new ArrayList<>();
+        boolean modified = super.removeIf(item -> {
+            if(!filter.test(item)) return false;
+            removed.add(item);
+            return true;
+        });
+        if(modified) {
+            for(T item : removed) {
+                removed(item);
+            }
+            changed();
+        }
+        return modified;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        Object[] removed = super.subList(fromIndex, toIndex).toArray();
+        super.removeRange(fromIndex, toIndex);
+        for(Object item : removed) {
+            removed((T) item);
+        }
+        changed();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void clear() {
+        Object[] removed = toArray();
+        super.clear();
+        for(Object item : removed) {
+            removed((T) item);
+        }
+        changed();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void replaceAll(UnaryOperator<T> operator) {
+        Objects.requireNonNull(operator);
+        int expectedModCount = modCount;
+        Object[] replacing = new Object[size()];
+        for(int i = 0; i < replacing.length; i++) {
+            replacing[i] = operator.apply(get(i));
+        }
+        if(modCount != expectedModCount) throw new ConcurrentModificationException();
+        for(Object item : replacing) {
+            check((T) item);
+        }
+        for(int i = 0; i < replacing.length; i++) {
+            T previous = super.set(i, (T) replacing[i]);
+            added((T) replacing[i]);
+            removed(previous);
+        }
+        modCount++;
+        changed();
+    }
+
+    @Override
+    public void sort(Comparator<? super T> comparator) {
+        super.sort(comparator);
+        changed();
+    }
+
+    /**
+     * Get a view of a part of the list, unlike the view of {@link ArrayList} every change made through it goes
+     * through the methods of this list
+     */
+    @Override
+    public List<T> subList(int fromIndex, int toIndex) {
+        if(fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", size: " + size());
+        }
+        return new View(fromIndex, toIndex - fromIndex);
+    }
+
+    /**
+     * Find the position of <code>item</code> by identity
+     * @param item the item you are looking for
+     * @return the index of the item or -1 if it is not in the list
+     */
+    int indexOfInstance(Object item) {
+        for(int i = 0; i < size(); i++) {
+            if(get(i) == item) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * A part of the list returned by {@link #subList(int, int)}, it fails like the views of {@link ArrayList} when
+     * the list is changed without it
+     */
+    private final class View extends AbstractList<T> implements RandomAccess {
+
+        private final int offset;
+        private int size;
+        private int expectedModCount;
+
+        private View(int offset, int size) {
+            this.offset = offset;
+            this.size = size;
+            this.expectedModCount = MDNList.this.modCount;
+        }
+
+        private void checkForComodification() {
+            if(MDNList.this.modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+
+        private void checkIndex(int index, int bound) {
+            if(index < 0 || index >= bound) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        private void updated(int sizeChange) {
+            expectedModCount = MDNList.this.modCount;
+            size += sizeChange;
+            modCount++;
+        }
+
+        @Override
+        public T get(int index) {
+            checkIndex(index, size);
+            checkForComodification();
+            return MDNList.this.get(offset + index);
+        }
+
+        @Override
+        public int size() {
+            checkForComodification();
+            return size;
+        }
+
+        @Override
+        public T set(int index, T item) {
+            checkIndex(index, size);
+            checkForComodification();
+            return MDNList.this.set(offset + index, item);
+        }
+
+        @Override
+        public void add(int index, T item) {
+            checkIndex(index, size + 1);
+            checkForComodification();
+            MDNList.this.add(offset + index, item);
+            updated(1);
+        }
+
+        @Override
+        public T remove(int index) {
+            checkIndex(index, size);
+            checkForComodification();
+            T removed = MDNList.this.remove(offset + index);
+            updated(-1);
+            return removed;
+        }
+
+        @Override
+        protected void removeRange(int fromIndex, int toIndex) {
+            checkForComodification();
+            MDNList.this.removeRange(offset + fromIndex, offset + toIndex);
+            updated(fromIndex - toIndex);
+        }
+
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.mystic.mdn;
+
+/**
+ * This interface receives the {@link MDNMetrics} of every parse and format done through {@link MDN}. <br>
+ * It is called on the thread of the call, after the call succeeded, so it should return quickly.
+ * @see MDN#setListener(MDNListener)
+ */
+public interface MDNListener {
+
+    /**
+     * Called after {@link MDN#parse(String)}, {@link MDN#parse(String, MDNStringPool)} or
+     * {@link MDN#parse(java.nio.file.Path)}
+     * @param metrics the counters of the parse
+     */
+    default void parsed(MDNMetrics metrics) {
+    }
+
+    /**
+     * Called after {@link MDN#format(MDNDocument)} or one of its overloads
+     * @param metrics the counters of the format
+     */
+    default void formatted(MDNMetrics metrics) {
+    }
+
+}
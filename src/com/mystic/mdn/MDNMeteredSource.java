@@ -0,0 +1,107 @@
+package com.mystic.mdn;
+
+/**
+ * {@link MDNTokenSource} counting the tokens of another source and the time spent reading them. <br>
+ * The tokens are read in chunks, so the time is measured once per chunk rather than once per token, and the
+ * time of the parser between the chunks isn't counted. An error of the source is only thrown once the tokens
+ * read before it have been consumed, like with the source itself.
+ */
+final class MDNMeteredSource implements MDNTokenSource {
+
+    private static final int CHUNK = 256;
+
+    private final MDNTokenSource source;
+    private final MDNMetrics metrics;
+
+    private final MDNTokenType[] types = new MDNTokenType[CHUNK];
+    private final String[] values = new String[CHUNK];
+    private final int[] lines = new int[CHUNK], starts = new int[CHUNK], ends = new int[CHUNK];
+    private final int[] offsets = new int[CHUNK], endOffsets = new int[CHUNK];
+    private int count = 0;
+    private int index = -1;
+    private boolean end = false;
+    private MDNLexerError error = null;
+
+    MDNMeteredSource(MDNTokenSource source, MDNMetrics metrics) {
+        this.source = source;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public MDNTokenType nextToken() throws MDNLexerError {
+        index++;
+        if(index >= count) {
+            if(error != null) throw error;
+            if(end) return null;
+            fill();
+            if(count == 0) {
+                if(error != null) throw error;
+                return null;
+            }
+        }
+        return types[index];
+    }
+
+    private void fill() {
+        long start = System.nanoTime();
+        count = 0;
+        index = 0;
+        try {
+            while(count < CHUNK) {
+                MDNTokenType type = source.nextToken();
+                if(type == null) {
+                    end = true;
+                    break;
+                }
+                types[count] = type;
+                values[count] = type == MDNTokenType.IDENTIFIER || type == MDNTokenType.VALUE ? source.getValue() : "";
+                lines[count] = source.getLine();
+                starts[count] = source.getStart();
+                ends[count] = source.getEnd();
+                offsets[count] = source.getOffset();
+                endOffsets[count] = source.getEndOffset();
+                metrics.tokens[type.ordinal()]++;
+                count++;
+            }
+        } catch (MDNLexerError e) {
+            error = e;
+        }
+        metrics.lexNanos += System.nanoTime() - start;
+    }
+
+    @Override
+    public String getValue() {
+        return values[index];
+    }
+
+    @Override
+    public int getLine() {
+        return lines[index];
+    }
+
+    @Override
+    public int getStart() {
+        return starts[index];
+    }
+
+    @Override
+    public int getEnd() {
+        return ends[index];
+    }
+
+    @Override
+    public int getOffset() {
+        return offsets[index];
+    }
+
+    @Override
+    public int getEndOffset() {
+        return endOffsets[index];
+    }
+
+    @Override
+    public MDNToken toToken() {
+        return new MDNToken(types[index], values[index], lines[index], starts[index], ends[index]);
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.mystic.mdn;
+
+/**
+ * This class holds the counters of one call to {@link MDN#parse(String)} or {@link MDN#format(MDNDocument)}
+ * (and their overloads), it is given to the {@link MDNListener}. <br>
+ * The counters that don't apply to the call are 0, for example the tokens and the lexing time of a format.
+ * @see MDN#setListener(MDNListener)
+ */
+public final class MDNMetrics {
+
+    long chars, bytes;
+    final long[] tokens = new long[MDNTokenType.values().length];
+    long elements, params;
+    int maxDepth;
+    long lexNanos, parseNanos, formatNanos;
+
+    MDNMetrics() {
+    }
+
+    /**
+     * Count an element at <code>depth</code>
+     * @param depth the depth of the element, 1 for the top-level elements
+     */
+    void element(int depth) {
+        elements++;
+        if(depth > maxDepth) maxDepth = depth;
+    }
+
+    /**
+     * @return the number of characters parsed or formatted
+     */
+    public long getChars() {
+        return chars;
+    }
+
+    /**
+     * @return the number of bytes parsed, when parsing a file
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @param type the type of token
+     * @return the number of tokens of <code>type</code> read
+     */
+    public long getTokens(MDNTokenType type) {
+        return tokens[type.ordinal()];
+    }
+
+    /**
+     * @return the number of tokens read
+     */
+    public long getTokenCount() {
+        long count = 0;
+        for(long tokens : this.tokens) {
+            count += tokens;
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of elements created or formatted
+     */
+    public long getElements() {
+        return elements;
+    }
+
+    /**
+     * @return the number of params created or formatted
+     */
+    public long getParams() {
+        return params;
+    }
+
+    /**
+     * @return the depth of the most nested element, 1 if there are only top-level elements
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * @return the time spent reading tokens in nanoseconds
+     */
+    public long getLexTime() {
+        return lexNanos;
+    }
+
+    /**
+     * @return the time spent building the document from the tokens in nanoseconds
+     */
+    public long getParseTime() {
+        return parseNanos;
+    }
+
+    /**
+     * @return the time spent formatting in nanoseconds
+     */
+    public long getFormatTime() {
+        return formatNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("MDNMetrics[chars=").append(chars);
+        if(bytes != 0) builder.append(", bytes=").append(bytes);
+        if(getTokenCount() != 0) {
+            builder.append(", tokens={");
+            int i = 0;
+            for(MDNTokenType type : MDNTokenType.values()) {
+                if(tokens[type.ordinal()] == 0) continue;
+                if(i++ != 0) builder.append(", ");
+                builder.append(type).append('=').append(tokens[type.ordinal()]);
+            }
+            builder.append('}');
+        }
+        builder.append(", elements=").append(elements).append(", params=").append(params).append(", maxDepth=").append(maxDepth);
+        if(formatNanos != 0) builder.append(", formatTime=").append(formatNanos).append("ns");
+        else builder.append(", lexTime=").append(lexNanos).append("ns, parseTime=").append(parseNanos).append("ns");
+        return builder.append(']').toString();
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.mystic.mdn;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * This annotation gives the name used by {@link MDNBinder} for a class, a field or a record component,
+ * when it isn't the Java name
+ * @see MDNBinder
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.FIELD, ElementType.RECORD_COMPONENT})
+public @interface MDNName {
+
+    /**
+     * @return the name of the element or param
+     */
+    String value();
+
+}
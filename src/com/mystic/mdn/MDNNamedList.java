@@ -0,0 +1,148 @@
+package com.mystic.mdn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A {@link MDNList} of named items with by-name lookups. <br>
+ * Small lists are scanned, larger ones build a name index the first time they are looked up. The index is
+ * kept up to date when items are appended and dropped after any other change (or when an item is renamed),
+ * it is then built again by the next lookup. <br>
+ * Lookups only read the list: the index is built aside and published once it is complete, so a list that is
+ * no longer modified can be looked up from several threads.
+ * @param <T> the type of the items
+ */
+@SuppressWarnings("unchecked")
+abstract class MDNNamedList<T> extends MDNList<T> {
+
+    private static final int INDEX_THRESHOLD = 8;
+
+    private volatile HashMap<String, Object> index = null;
+
+    /**
+     * @param item an item of the list
+     * @return the name of the item
+     */
+    abstract String nameOf(T item);
+
+    /**
+     * Called when an item enters the list, before it is indexed
+     * @param item the item added
+     */
+    abstract void attach(T item);
+
+    @Override
+    void added(T item) {
+        attach(item);
+        HashMap<String, Object> index = this.index;
+        if(index != null) index(index, item);
+    }
+
+    @Override
+    void changed() {
+        index = null;
+    }
+
+    /**
+     * Get the first item with the matching <code>name</code>
+     * @param name the name of the item you are looking for
+     * @return the item found or null
+     */
+    T first(String name) {
+        if(name == null) return null;
+        if(size() < INDEX_THRESHOLD) {
+            for(int i = 0; i < size(); i++) {
+                T item = get(i);
+                if(name.equals(nameOf(item))) return item;
+            }
+            return null;
+        }
+        Object found = index().get(name);
+        if(found instanceof Matches) return ((Matches<T>) found).get(0);
+        return (T) found;
+    }
+
+    /**
+     * Get all the items with the matching <code>name</code>, in the order of the list
+     * @param name the name of the items you are looking for
+     * @param array an empty array of the type of the items
+     * @return all the matching items
+     */
+    T[] all(String name, T[] array) {
+        if(name == null) return array;
+        if(size() < INDEX_THRESHOLD) {
+            int count = 0;
+            for(int i = 0; i < size(); i++) {
+                if(name.equals(nameOf(get(i)))) count++;
+            }
+            T[] result = Arrays.copyOf(array, count);
+            count = 0;
+            for(int i = 0; i < size(); i++) {
+                T item = get(i);
+                if(name.equals(nameOf(item))) result[count++] = item;
+            }
+            return result;
+        }
+        Object found = index().get(name);
+        if(found == null) return array;
+        if(found instanceof Matches) return ((Matches<T>) found).toArray(array);
+        T[] result = Arrays.copyOf(array, 1);
+        result[0] = (T) found;
+        return result;
+    }
+
+    /**
+     * Remove the first item with the matching <code>name</code>, the index is kept
+     * @param name the name of the item you want to remove
+     */
+    void removeFirst(String name) {
+        T item = first(name);
+        if(item == null) return;
+        HashMap<String, Object> kept = index;
+        remove(indexOfInstance(item));
+        if(kept != null) {
+            Object found = kept.get(name);
+            if(found instanceof Matches) {
+                Matches<T> matches = (Matches<T>) found;
+                matches.remove(0);
+                if(matches.size() == 1) kept.put(name, matches.get(0));
+            } else kept.remove(name);
+            index = kept;
+        }
+    }
+
+    private HashMap<String, Object> index() {
+        HashMap<String, Object> index = this.index;
+        if(index == null) {
+            index = new HashMap<>();
+            for(int i = 0; i < size(); i++) {
+                index(index, get(i));
+            }
+            this.index = index;
+        }
+        return index;
+    }
+
+    private void index(HashMap<String, Object> index, T item) {
+        String name = nameOf(item);
+        if(name == null) return;
+        Object found = index.putIfAbsent(name, item);
+        if(found == null) return;
+        if(found instanceof Matches) {
+            ((Matches<T>) found).add(item);
+        } else {
+            Matches<T> matches = new Matches<>();
+            matches.add((T) found);
+            matches.add(item);
+            index.put(name, matches);
+        }
+    }
+
+    /**
+     * The items sharing a name in the index
+     */
+    private static final class Matches<T> extends ArrayList<T> {
+    }
+
+}
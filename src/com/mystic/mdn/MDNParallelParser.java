@@ -0,0 +1,118 @@
+package com.mystic.mdn;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class is used to parse a large source on several threads. <br>
+ * The source is split between top level elements by a {@link MDNScanner}, each chunk is parsed by its own
+ * {@link MDNParser} on a {@link ForkJoinPool} and the elements are added to the document in their original order.
+ * Every chunk is lexed with its global line and column, so the errors are the same as a single {@link MDNParser}.
+ */
+final class MDNParallelParser {
+
+    /**
+     * Sources shorter than this are parsed on the calling thread
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 18;
+
+    private static final int MIN_CHUNK_SIZE = 1 << 16;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private MDNParallelParser() {
+    }
+
+    /**
+     * Parse a string into a {@link MDNDocument} using the threads of <code>pool</code>
+     * @param src the string you want to parse
+     * @param pool the pool running the chunks
+     * @return the {@link MDNDocument} created
+     * @throws MDNLexerError if any error occurs during {@link MDNLexer#nextToken()}, the first one in the source is thrown
+     * @throws MDNParseError if there is an unexpected token, the first one in the source is thrown
+     */
+    static MDNDocument parse(String src, ForkJoinPool pool) throws MDNLexerError, MDNParseError {
+        int parallelism = pool.getParallelism();
+        if(src.length() < PARALLEL_THRESHOLD || parallelism < 2) return MDN.parse(src);
+
+        MDNStringPool strings = new MDNStringPool();
+        ArrayList<Chunk> chunks = split(src, Math.max(MIN_CHUNK_SIZE, src.length() / (parallelism * CHUNKS_PER_THREAD)), strings);
+        if(chunks.size() == 1) return MDN.parse(src, strings);
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(chunks);
+            }
+        });
+
+        MDNDocument document = new MDNDocument();
+        for(Chunk chunk : chunks) {
+            if(chunk.lexerError != null) throw chunk.lexerError;
+            if(chunk.parseError != null) throw chunk.parseError;
+            document.getElements().addAll(MDNList.take(chunk.document.getElements()));
+        }
+        return document;
+    }
+
+    /**
+     * Split the source between top level elements
+     * @param src the source
+     * @param chunkSize the minimum number of characters of a chunk
+     * @param strings the pool shared by the chunks
+     * @return the chunks, covering the whole source
+     */
+    private static ArrayList<Chunk> split(String src, int chunkSize, MDNStringPool strings) {
+        ArrayList<Chunk> chunks = new ArrayList<>();
+        MDNScanner scanner = new MDNScanner(src, 0, src.length(), 0, 0);
+        int start = 0, line = 0, column = 0;
+        while(scanner.nextElement()) {
+            int end = scanner.getElementEnd();
+            if(end - start >= chunkSize && src.length() - end >= chunkSize) {
+                chunks.add(new Chunk(src, start, end, line, column, strings));
+                start = end;
+                line = scanner.getLine();
+                column = scanner.getColumn();
+            }
+        }
+        chunks.add(new Chunk(src, start, src.length(), line, column, strings));
+        return chunks;
+    }
+
+    /**
+     * A part of the source parsed on its own
+     */
+    private static final class Chunk extends RecursiveAction {
+
+        private final String src;
+        private final int start, end, line, column;
+        private final MDNStringPool strings;
+
+        private MDNDocument document = null;
+        private MDNLexerError lexerError = null;
+        private MDNParseError parseError = null;
+
+        private Chunk(String src, int start, int end, int line, int column, MDNStringPool strings) {
+            this.src = src;
+            this.start = start;
+            this.end = end;
+            this.line = line;
+            this.column = column;
+            this.strings = strings;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                MDNLexer lexer = new MDNLexer(src, start, end, line, column);
+                lexer.setPool(strings);
+                document = new MDNParser(lexer).parseDocument();
+            } catch (MDNLexerError e) {
+                lexerError = e;
+            } catch (MDNParseError e) {
+                parseError = e;
+            }
+        }
+
+    }
+
+}
@@ -1,15 +1,44 @@
 package com.mystic.mdn;
 
 import java.util.ArrayList;
+import java.util.Objects;
 
 /**
- * This class represent a parameter of the {@link MDNElement}
+ * This class represent a parameter of the {@link MDNElement}. <br>
+ * The typed accessors never throw, and the result of the last conversion of each value is cached until the
+ * values are changed, so reading the same value again doesn't parse it again. <br>
+ * A parameter can only be in the params of one element at a time, it must be removed from them before it is
+ * added to another element.
  */
 public class MDNParam {
 
+    private static final int INT = 0, LONG = 1, HEX = 2, BIN = 3, FLOAT = 4, DOUBLE = 5, SHORT = 6, BYTE = 7,
+            CHAR = 8, ENUM = 9;
+
     private String name;
 
-    private final ArrayList<String> values = new ArrayList<>();
+    private final Values values = new Values();
+
+    /**
+     * The last conversion of each value, see {@link Converted}
+     */
+    private Converted[] converted = null;
+
+    /**
+     * The structural hash of this parameter, 0 until it is computed, see {@link #hash()}
+     */
+    private volatile long hash = 0;
+
+    /**
+     * The span of this parameter in the source it was parsed from, -1 if it is unknown
+     */
+    int sourceStart = -1, sourceEnd = -1;
+
+    /**
+     * The list containing this parameter, if any, and the number of times the parameter is in it
+     */
+    MDNElement.Params container = null;
+    int occurrences = 0;
 
     /**
      * Constructor for {@link MDNParam}
@@ -33,6 +62,8 @@ public class MDNParam {
      */
     public void setName(String name) {
         this.name = name;
+        invalidate();
+        if(container != null) container.changed();
     }
 
     /**
@@ -80,11 +111,130 @@ public class MDNParam {
      * @return the value at matching {@code index} or {@code defaultValue}
      */
     public String getValue(int index, String defaultValue) {
-        try {
-            return values.get(index);
-        } catch (Exception any) {
-            return defaultValue;
+        if(index < 0 || index >= values.size()) return defaultValue;
+        return values.get(index);
+    }
+
+    /**
+     * Convert the value at {@code index}, the result is cached until the values are changed
+     * @param index the index of the value
+     * @param kind the kind of conversion
+     * @param enumClass the class of the enum for {@link #ENUM}
+     * @return the conversion or null if there is no value at {@code index}
+     */
+    private Converted convert(int index, int kind, Class<?> enumClass) {
+        if(index < 0 || index >= values.size()) return null;
+        Converted[] converted = this.converted;
+        if(converted == null || converted.length < values.size()) {
+            Converted[] grown = new Converted[values.size()];
+            if(converted != null) System.arraycopy(converted, 0, grown, 0, converted.length);
+            this.converted = converted = grown;
         }
+        Converted conversion = converted[index];
+        if(conversion == null || conversion.kind != kind || conversion.enumClass != enumClass) {
+            conversion = new Converted(values.get(index), kind, enumClass);
+            converted[index] = conversion;
+        }
+        return conversion;
+    }
+
+    /**
+     * Primitive int version of {@link #getValue(int, String)}
+     * @param index the index of the value you are looking for
+     * @param defaultValue the default value if there is no matching or valid value
+     * @return the value at matching {@code index} or {@code defaultValue}
+     */
+    public int getInt(int index, int defaultValue) {
+        Converted conversion = convert(index, INT, null);
+        return conversion != null && conversion.valid ? (int) conversion.bits : defaultValue;
+    }
+
+    /**
+     * Primitive long version of {@link #getValue(int, String)}
+     * @param index the index of the value you are looking for
+     * @param defaultValue the default value if there is no matching or valid value
+     * @return the value at matching {@code index} or {@code defaultValue}
+     */
+    public long getLong(int index, long defaultValue) {
+        Converted conversion = convert(index, LONG, null);
+        return conversion != null && conversion.valid ? conversion.bits : defaultValue;
+    }
+
+    /**
+     * Primitive hexadecimal version of {@link #getValue(int, String)}
+     * @param index the index of the value you are looking for
+     * @param defaultValue the default value if there is no matching or valid value
+     * @return the value at matching {@code index} or {@code defaultValue}
+     */
+    public long getHex(int index, long defaultValue) {
+        Converted conversion = convert(index, HEX, null);
+        return conversion != null && conversion.valid ? conversion.bits : defaultValue;
+    }
+
+    /**
+     * Primitive binary version of {@link #getValue(int, String)}
+     * @param index the index of the value you are looking for
+     * @param defaultValue the default value if there is no matching or valid value
+     * @return the value at matching {@code index} or {@code defaultValue}
+     */
+    public long getBin(int index, long defaultValue) {
+        Converted conversion = convert(index, BIN, null);
+        return conversion != null && conversion.valid ? conversion.bits : defaultValue;
+    }
+
+    /**
+     * Primitive float version of {@link #getValue(int, String)}
+     * @param index the index of the value you are looking for
+     * @param defaultValue the default value if there is no matching or valid value
+     * @return the value at matching {@code index} or {@code defaultValue}
+     */
+    public float getFloat(int index, float defaultValue) {
+        Converted conversion = convert(index, FLOAT, null);
+        return conversion != null && conversion.valid ? Float.intBitsToFloat((int) conversion.bits) : defaultValue;
+    }
+
+    /**
+     * Primitive double version of {@link #getValue(int, String)}
+     * @param index the index of the value you are looking for
+     * @param defaultValue the default value if there is no matching or valid value
+     * @return the value at matching {@code index} or {@code defaultValue}
+     */
+    public double getDouble(int index, double defaultValue) {
+        Converted conversion = convert(index, DOUBLE, null);
+        return conversion != null && conversion.valid ? Double.longBitsToDouble(conversion.bits) : defaultValue;
+    }
+
+    /**
+     * Primitive short version of {@link #getValue(int, String)}
+     * @param index the index of the value you are looking for
+     * @param defaultValue the default value if there is no matching or valid value
+     * @return the value at matching {@code index} or {@code defaultValue}
+     */
+    public short getShort(int index, short defaultValue) {
+        Converted conversion = convert(index, SHORT, null);
+        return conversion != null && conversion.valid ? (short) conversion.bits : defaultValue;
+    }
+
+    /**
+     * Primitive byte version of {@link #getValue(int, String)}
+     * @param index the index of the value you are looking for
+     * @param defaultValue the default value if there is no matching or valid value
+     * @return the value at matching {@code index} or {@code defaultValue}
+     */
+    public byte getByte(int index, byte defaultValue) {
+        Converted conversion = convert(index, BYTE, null);
+        return conversion != null && conversion.valid ? (byte) conversion.bits : defaultValue;
+    }
+
+    /**
+     * Primitive char version of {@link #getValue(int, String)}
+     * @param index the index of the value you are looking for
+     * @param defaultValue the default value if there is no matching or valid value
+     * @return the first character of the value at matching {@code index} or {@code defaultValue}
+     */
+    public char getChar(int index, char defaultValue) {
+        Converted conversion = convert(index, CHAR, null);
+        return conversion != null && conversion.valid ? (char) conversion.bits : defaultValue;
     }
 
     /**
@@ -92,13 +242,11 @@ public class MDNParam {
      * @param index the index of the value you are looking for
      * @param defaultValue the default value if there is no matching value
      * @return the value at matching {@code index} or {@code defaultValue}
+     * @see #getInt(int, int)
      */
     public Integer getIntValue(int index, Integer defaultValue) {
-        try {
-            return Integer.parseInt(values.get(index));
-        } catch (Exception any) {
-            return defaultValue;
-        }
+        Converted conversion = convert(index, INT, null);
+        return conversion != null && conversion.valid ? Integer.valueOf((int) conversion.bits) : defaultValue;
     }
 
     /**
@@ -106,13 +254,11 @@ public class MDNParam {
      * @param index the index of the value you are looking for
      * @param defaultValue the default value if there is no matching value
      * @return the value at matching {@code index} or {@code defaultValue}
+     * @see #getLong(int, long)
      */
     public Long getLongValue(int index, Long defaultValue) {
-        try {
-            return Long.parseLong(values.get(index));
-        } catch (Exception any) {
-            return defaultValue;
-        }
+        Converted conversion = convert(index, LONG, null);
+        return conversion != null && conversion.valid ? Long.valueOf(conversion.bits) : defaultValue;
     }
 
     /**
@@ -120,13 +266,11 @@ public class MDNParam {
      * @param index the index of the value you are looking for
      * @param defaultValue the default value if there is no matching value
      * @return the value at matching {@code index} or {@code defaultValue}
+     * @see #getHex(int, long)
      */
     public Long getHexValue(int index, Long defaultValue) {
-        try {
-            return Long.parseLong(values.get(index), 16);
-        } catch (Exception any) {
-            return defaultValue;
-        }
+        Converted conversion = convert(index, HEX, null);
+        return conversion != null && conversion.valid ? Long.valueOf(conversion.bits) : defaultValue;
     }
 
     /**
@@ -134,13 +278,11 @@ public class MDNParam {
      * @param index the index of the value you are looking for
      * @param defaultValue the default value if there is no matching value
      * @return the value at matching {@code index} or {@code defaultValue}
+     * @see #getBin(int, long)
      */
     public Long getBinValue(int index, Long defaultValue) {
-        try {
-            return Long.parseLong(values.get(index), 2);
-        } catch (Exception any) {
-            return defaultValue;
-        }
+        Converted conversion = convert(index, BIN, null);
+        return conversion != null && conversion.valid ? Long.valueOf(conversion.bits) : defaultValue;
     }
 
     /**
@@ -148,13 +290,11 @@ public class MDNParam {
      * @param index the index of the value you are looking for
      * @param defaultValue the default value if there is no matching value
      * @return the value at matching {@code index} or {@code defaultValue}
+     * @see #getFloat(int, float)
      */
     public Float getFloatValue(int index, Float defaultValue) {
-        try {
-            return Float.parseFloat(values.get(index));
-        } catch (Exception any) {
-            return defaultValue;
-        }
+        Converted conversion = convert(index, FLOAT, null);
+        return conversion != null && conversion.valid ? Float.valueOf(Float.intBitsToFloat((int) conversion.bits)) : defaultValue;
     }
 
     /**
@@ -162,13 +302,11 @@ public class MDNParam {
      * @param index the index of the value you are looking for
      * @param defaultValue the default value if there is no matching value
      * @return the value at matching {@code index} or {@code defaultValue}
+     * @see #getDouble(int, double)
      */
     public Double getDoubleValue(int index, Double defaultValue) {
-        try {
-            return Double.parseDouble(values.get(index));
-        } catch (Exception any) {
-            return defaultValue;
-        }
+        Converted conversion = convert(index, DOUBLE, null);
+        return conversion != null && conversion.valid ? Double.valueOf(Double.longBitsToDouble(conversion.bits)) : defaultValue;
     }
 
     /**
@@ -176,13 +314,11 @@ public class MDNParam {
      * @param index the index of the value you are looking for
      * @param defaultValue the default value if there is no matching value
      * @return the value at matching {@code index} or {@code defaultValue}
+     * @see #getShort(int, short)
      */
     public Short getShortValue(int index, Short defaultValue) {
-        try {
-            return Short.parseShort(values.get(index));
-        } catch (Exception any) {
-            return defaultValue;
-        }
+        Converted conversion = convert(index, SHORT, null);
+        return conversion != null && conversion.valid ? Short.valueOf((short) conversion.bits) : defaultValue;
     }
 
     /**
@@ -190,13 +326,11 @@ public class MDNParam {
      * @param index the index of the value you are looking for
      * @param defaultValue the default value if there is no matching value
      * @return the value at matching {@code index} or {@code defaultValue}
+     * @see #getByte(int, byte)
      */
     public Byte getByteValue(int index, Byte defaultValue) {
-        try {
-            return Byte.parseByte(values.get(index));
-        } catch (Exception any) {
-            return defaultValue;
-        }
+        Converted conversion = convert(index, BYTE, null);
+        return conversion != null && conversion.valid ? Byte.valueOf((byte) conversion.bits) : defaultValue;
     }
 
     /**
@@ -204,13 +338,11 @@ public class MDNParam {
      * @param index the index of the value you are looking for
      * @param defaultValue the default value if there is no matching value
      * @return the value at matching {@code index} or {@code defaultValue}
+     * @see #getChar(int, char)
      */
     public Character getCharValue(int index, Character defaultValue) {
-        try {
-            return values.get(index).charAt(0);
-        } catch (Exception any) {
-            return defaultValue;
-        }
+        Converted conversion = convert(index, CHAR, null);
+        return conversion != null && conversion.valid ? Character.valueOf((char) conversion.bits) : defaultValue;
     }
 
     /**
@@ -222,11 +354,84 @@ public class MDNParam {
      * @return the value matching {@code index} or {@code defaultValue}
      */
     public <E extends Enum<E>> E getEnumValue(int index, E defaultValue, Class<E> enumClass) {
-        try {
-            return Enum.valueOf(enumClass, values.get(index));
-        } catch (Exception any) {
-            return defaultValue;
+        if(enumClass == null) return defaultValue;
+        Converted conversion = convert(index, ENUM, enumClass);
+        return conversion != null && conversion.valid ? enumClass.cast(conversion.constant) : defaultValue;
+    }
+
+    /**
+     * Get the index of the first character of this parameter in the string it was parsed from. <br>
+     * The span is the one of the last parse, it isn't updated when the parameter is modified.
+     * @return the index or -1 if it is unknown
+     * @see MDN#reparse(MDNDocument, String, int, int, String)
+     */
+    public int getSourceStart() {
+        return sourceStart < 0 ? -1 : sourceStart + shift();
+    }
+
+    /**
+     * Get the index after the last character of this parameter in the string it was parsed from
+     * @return the index or -1 if it is unknown
+     * @see #getSourceStart()
+     */
+    public int getSourceEnd() {
+        return sourceEnd < 0 ? -1 : sourceEnd + shift();
+    }
+
+    /**
+     * @return the number of characters the span has moved since it was parsed, the same as the element containing it
+     */
+    private int shift() {
+        return container == null ? 0 : container.owner.shift();
+    }
+
+    /**
+     * Get the structural hash of this parameter, computed from its name and values and cached until they change
+     * @return the hash, never 0
+     * @see MDNHash
+     */
+    long hash() {
+        long hash = this.hash;
+        if(hash != 0) return hash;
+        hash = MDNHash.combine(MDNHash.string(name), values.size());
+        for(int i = 0; i < values.size(); i++) {
+            hash = MDNHash.combine(hash, MDNHash.string(values.get(i)));
         }
+        return this.hash = MDNHash.mix(hash);
+    }
+
+    /**
+     * Drop the cached hash of this parameter and of the elements containing it
+     */
+    private void invalidate() {
+        if(hash == 0) return;
+        hash = 0;
+        if(container != null) container.invalidate();
+    }
+
+    /**
+     * Compare this parameter with another one, they are equal if they have the same name and the same values, in
+     * the same order. The source spans aren't compared. The structural hashes are compared first.
+     * @param object the object you want to compare with
+     * @return {@code true} if <code>object</code> is an equal parameter
+     */
+    @Override
+    public boolean equals(Object object) {
+        if(object == this) return true;
+        if(!(object instanceof MDNParam)) return false;
+        MDNParam param = (MDNParam) object;
+        return hash() == param.hash() && Objects.equals(name, param.name) && values.equals(param.values);
+    }
+
+    /**
+     * Get the hash code of this parameter, derived from its structural hash which is cached until the name or the
+     * values change. A parameter used as a key in a hash map must therefore not be modified.
+     * @return the hash code
+     */
+    @Override
+    public int hashCode() {
+        long hash = hash();
+        return (int) (hash ^ (hash >>> 32));
     }
 
     @Override
@@ -247,4 +452,79 @@ public class MDNParam {
         }
         return builder.toString();
     }
+
+    /**
+     * The conversion of a value into one of the types of the typed accessors
+     */
+    private static final class Converted {
+
+        private final int kind;
+        private final Class<?> enumClass;
+        private final boolean valid;
+        private final long bits;
+        private final Object constant;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Converted(String value, int kind, Class<?> enumClass) {
+            this.kind = kind;
+            this.enumClass = enumClass;
+            long bits = 0;
+            boolean valid = false;
+            Object constant = null;
+            switch (kind) {
+                case INT:
+                case LONG:
+                case HEX:
+                case BIN:
+                case SHORT:
+                case BYTE:
+                    int radix = kind == HEX ? 16 : kind == BIN ? 2 : 10;
+                    long min = kind == INT ? Integer.MIN_VALUE : kind == SHORT ? Short.MIN_VALUE : kind == BYTE ? Byte.MIN_VALUE : Long.MIN_VALUE;
+                    long max = kind == INT ? Integer.MAX_VALUE : kind == SHORT ? Short.MAX_VALUE : kind == BYTE ? Byte.MAX_VALUE : Long.MAX_VALUE;
+                    valid = MDNValues.isInteger(value, radix, min, max);
+                    if(valid) bits = MDNValues.parseInteger(value, radix, min, max, 0);
+                    break;
+                case FLOAT:
+                    valid = MDNValues.isDecimal(value);
+                    if(valid) bits = Float.floatToRawIntBits(Float.parseFloat(value));
+                    break;
+                case DOUBLE:
+                    valid = MDNValues.isDecimal(value);
+                    if(valid) bits = Double.doubleToRawLongBits(Double.parseDouble(value));
+                    break;
+                case CHAR:
+                    valid = value != null && !value.isEmpty();
+                    if(valid) bits = value.charAt(0);
+                    break;
+                case ENUM:
+                    constant = MDNValues.parseEnum(value, (Class) enumClass);
+                    valid = constant != null;
+                    break;
+            }
+            this.valid = valid;
+            this.bits = bits;
+            this.constant = constant;
+        }
+
+    }
+
+    /**
+     * The list of values, the cached conversions are dropped when it changes and the cached hash with any change,
+     * including the changes made through {@link #subList(int, int)}
+     */
+    private final class Values extends MDNList<String> {
+
+        @Override
+        void added(String value) {
+            invalidate();
+        }
+
+        @Override
+        void changed() {
+            converted = null;
+            invalidate();
+        }
+
+    }
+
 }
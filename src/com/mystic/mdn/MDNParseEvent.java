@@ -0,0 +1,57 @@
+package com.mystic.mdn;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event of a parse, see {@link MDNMetrics}
+ */
+@Name("com.mystic.mdn.Parse")
+@Label("MDN Parse")
+@Category("MDN")
+@Description("Parse of a MDN document")
+final class MDNParseEvent extends jdk.jfr.Event {
+
+    @Label("Characters")
+    long chars;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Tokens")
+    long tokens;
+
+    @Label("Elements")
+    long elements;
+
+    @Label("Params")
+    long params;
+
+    @Label("Max Depth")
+    int maxDepth;
+
+    @Label("Lex Time")
+    @Timespan
+    long lexTime;
+
+    @Label("Parse Time")
+    @Timespan
+    long parseTime;
+
+    void set(MDNMetrics metrics) {
+        chars = metrics.chars;
+        bytes = metrics.bytes;
+        tokens = metrics.getTokenCount();
+        elements = metrics.elements;
+        params = metrics.params;
+        maxDepth = metrics.maxDepth;
+        lexTime = metrics.lexNanos;
+        parseTime = metrics.parseNanos;
+    }
+
+}
@@ -1,17 +1,33 @@
 package com.mystic.mdn;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Stack;
 
 /**
- * This class is used to convert the list of {@link MDNToken} to {@link MDNDocument}
+ * This class is used to convert the list of {@link MDNToken} to {@link MDNDocument}. <br>
+ * The tokens can either come from a list created by {@link MDNLexer#makeTokens()} or be pulled directly
+ * from a {@link MDNLexer}, in which case no list of tokens is created. <br>
+ * A parser can also be reused for many sources with {@link #reset(CharSequence)}, its lexer, buffers and stack of
+ * elements are then kept from one source to the next, so parsing a small source only allocates the document. A
+ * parser isn't thread-safe, keep one per thread (e.g. in a {@link ThreadLocal}) or in a pool.
  * @see MDNLexer
  */
 public class MDNParser {
 
-    private final ArrayList<MDNToken> tokens;
-    private MDNToken current = null;
-    private int ptr = -1;
+    private MDNTokenSource source;
+    private MDNLexer lexer = null;
+    private final ArrayDeque<MDNElement> elements = new ArrayDeque<>();
+    private MDNTokenType current = null;
+    private MDNLexerError pendingError = null;
+    private boolean complete = false;
+    private MDNMetrics metrics = null;
+    private MDNValidator validator = null;
+
+    /**
+     * Constructor for a parser without source, the source is given by {@link #reset(CharSequence)}
+     */
+    public MDNParser() {
+    }
 
     /**
      * Constructor for the parser
@@ -20,52 +36,170 @@ public class MDNParser {
      */
     public MDNParser(ArrayList<MDNToken> tokens) throws NullPointerException {
         if(tokens == null) throw new NullPointerException("Failed to create MDNParser!");
-        this.tokens = tokens;
+        this.source = new TokenList(tokens);
+        advance();
+    }
+
+    /**
+     * Constructor for the parser, the tokens are read from the lexer while parsing
+     * @param lexer the lexer you want to read the tokens from
+     * @throws NullPointerException if the lexer is null
+     */
+    public MDNParser(MDNLexer lexer) throws NullPointerException {
+        if(lexer == null) throw new NullPointerException("Failed to create MDNParser!");
+        this.source = lexer;
+        advance();
+    }
+
+    /**
+     * Constructor for the parser, the tokens are read from the lexer while parsing
+     * @param lexer the lexer of UTF-8 bytes you want to read the tokens from
+     * @throws NullPointerException if the lexer is null
+     */
+    public MDNParser(MDNByteLexer lexer) throws NullPointerException {
+        if(lexer == null) throw new NullPointerException("Failed to create MDNParser!");
+        this.source = lexer;
+        advance();
+    }
+
+    /**
+     * Constructor for the parser, the tokens are read from the source while parsing
+     * @param source the source you want to read the tokens from
+     * @throws NullPointerException if the source is null
+     */
+    MDNParser(MDNTokenSource source) throws NullPointerException {
+        if(source == null) throw new NullPointerException("Failed to create MDNParser!");
+        this.source = source;
         advance();
     }
 
+    /**
+     * Start parsing <code>src</code>, the next call to {@link #parse()} returns its document. <br>
+     * The lexer of the parser and its buffers are reused. A large source gets a new {@link MDNStringPool}, like
+     * {@link MDN#parse(String)}, so the Strings of a source are never kept alive by the next ones, see
+     * {@link #reset(CharSequence, MDNStringPool)} to share a pool between sources.
+     * @param src the characters you want to parse, they must not change until the end of {@link #parse()}
+     * @return this parser
+     * @throws NullPointerException if <code>src</code> is null
+     */
+    public MDNParser reset(CharSequence src) throws NullPointerException {
+        if(src == null) throw new NullPointerException("Failed to reset MDNParser!");
+        return reset(src, MDN.defaultPool(src.length()));
+    }
+
+    /**
+     * Start parsing <code>src</code> with the Strings of <code>pool</code>, the next call to {@link #parse()}
+     * returns its document. <br>
+     * The lexer of the parser and its buffers are reused, the pool is only used until the next reset.
+     * @param src the characters you want to parse, they must not change until the end of {@link #parse()}
+     * @param pool the pool of the names and values, or null to create a String for each of them
+     * @return this parser
+     * @throws NullPointerException if <code>src</code> is null
+     */
+    public MDNParser reset(CharSequence src, MDNStringPool pool) throws NullPointerException {
+        if(src == null) throw new NullPointerException("Failed to reset MDNParser!");
+        if(lexer == null) lexer = new MDNLexer("");
+        lexer.reset(src);
+        lexer.setPool(pool);
+        this.source = lexer;
+        this.pendingError = null;
+        this.complete = false;
+        this.metrics = null;
+        this.validator = null;
+        advance();
+        return this;
+    }
+
+    /**
+     * Set the counters of the elements and params created by {@link #parseDocument()}
+     * @param metrics the counters or null
+     */
+    void setMetrics(MDNMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Set the validator checking the document while it is parsed, {@link #parseDocument()} then throws a
+     * {@link MDNParseError} at the first violation
+     * @param validator the validator or null
+     */
+    void setValidator(MDNValidator validator) {
+        this.validator = validator;
+    }
+
     /**
      * Advance to the next token
      */
     public void advance() {
-        ptr++;
-        if(ptr < tokens.size()) current = tokens.get(ptr);
-        else current = null;
+        if(source == null) return;
+        try {
+            next();
+        } catch (MDNLexerError e) {
+            pendingError = e;
+            current = null;
+        }
+    }
+
+    private void next() throws MDNLexerError {
+        current = source.nextToken();
     }
 
     /**
      * Convert the list of tokens into {@link MDNDocument}
      * @return the {@link MDNDocument}
-     * @throws MDNParseError if there is an unexpected token
+     * @throws MDNParseError if there is an unexpected token, or if the {@link MDNLexer} failed (the
+     * {@link MDNLexerError} is then the cause of the error)
      */
     public MDNDocument parse() throws MDNParseError {
+        try {
+            return parseDocument();
+        } catch (MDNLexerError e) {
+            throw new MDNParseError(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Convert the tokens into {@link MDNDocument}. <br>
+     * The elements and params get the span of their source, an element only gets one if it starts and ends
+     * outside of any param, so the span can be parsed again on its own.
+     * @return the {@link MDNDocument}
+     * @throws MDNLexerError if the tokens are read from a {@link MDNLexer} that failed
+     * @throws MDNParseError if there is an unexpected token
+     */
+    MDNDocument parseDocument() throws MDNLexerError, MDNParseError {
+        if(pendingError != null) throw pendingError;
         MDNDocument document = new MDNDocument();
 
-        Stack<MDNElement> elements = new Stack<>();
+        ArrayDeque<MDNElement> elements = this.elements;
+        elements.clear();
         MDNElement element = null;
         MDNParam param = null;
         boolean innerParam = false;
         boolean innerParamNext = false;
 
         while(current != null) {
-            switch (current.type) {
+            switch (current) {
                 case IDENTIFIER:
                     if(element != null) {
                         if(element.getName().isEmpty()) {
-                            element.setName(current.value);
+                            element.setName(source.getValue());
+                            if(validator != null) validator.startElement(source.getValue(), source.getLine(), source.getStart());
                         } else {
                             if(param != null) {
                                 if (param.getName().isEmpty()) {
-                                    param.setName(current.value);
+                                    param.setName(source.getValue());
+                                    param.sourceStart = source.getOffset();
+                                    param.sourceEnd = source.getEndOffset();
+                                    if(validator != null) validator.param(source.getValue(), source.getLine(), source.getStart());
                                 } else {
-                                    throw new MDNParseError("Unexpected Token, '" + current + "', duplicate 'IDENTIFIER'!");
+                                    throw new MDNParseError("Unexpected Token, '" + source.toToken() + "', duplicate 'IDENTIFIER'!");
                                 }
                             } else {
-                                throw new MDNParseError("Unexpected Token, '" + current + "', missing '['!");
+                                throw new MDNParseError("Unexpected Token, '" + source.toToken() + "', missing '['!");
                             }
                         }
                     } else {
-                        throw new MDNParseError("Unexpected Token, '" + current + "', missing '<'!");
+                        throw new MDNParseError("Unexpected Token, '" + source.toToken() + "', missing '<'!");
                     }
                     break;
                 case VALUE:
@@ -73,19 +207,20 @@ public class MDNParser {
                         if(param != null) {
                             if(innerParam) {
                                 if(innerParamNext) {
-                                    param.addValue(current.value);
+                                    param.addValue(source.getValue());
                                     innerParamNext = false;
+                                    if(validator != null) validator.value(source.getValue(), source.getLine(), source.getStart());
                                 } else {
-                                    throw new MDNParseError("Unexpected Token, '" + current + "', missing ','!");
+                                    throw new MDNParseError("Unexpected Token, '" + source.toToken() + "', missing ','!");
                                 }
                             } else {
-                                throw new MDNParseError("Unexpected Token, '" + current + "', missing '('!");
+                                throw new MDNParseError("Unexpected Token, '" + source.toToken() + "', missing '('!");
                             }
                         } else {
-                            throw new MDNParseError("Unexpected Token, '" + current + "', missing '['!");
+                            throw new MDNParseError("Unexpected Token, '" + source.toToken() + "', missing '['!");
                         }
                     } else {
-                        throw new MDNParseError("Unexpected Token, '" + current + "', missing '<'!");
+                        throw new MDNParseError("Unexpected Token, '" + source.toToken() + "', missing '<'!");
                     }
                     break;
                 case L_BRACKET:
@@ -93,49 +228,51 @@ public class MDNParser {
                         if (param == null) {
                             param = new MDNParam("");
                             element.addParam(param);
+                            if(metrics != null) metrics.params++;
                         } else {
-                            throw new MDNParseError("Unexpected Token, '" + current + "', missing '['!");
+                            throw new MDNParseError("Unexpected Token, '" + source.toToken() + "', missing '['!");
                         }
                     } else {
-                        throw new MDNParseError("Unexpected Token, '" + current + "', missing '<'!");
+                        throw new MDNParseError("Unexpected Token, '" + source.toToken() + "', missing '<'!");
                     }
                     break;
                 case R_BRACKET:
                     if(element != null) {
                         if(param != null) {
                             if(param.getName().isEmpty()) {
-                                throw new MDNParseError("Unexpected Token, '" + current + "', missing 'IDENTIFIER'!");
+                                throw new MDNParseError("Unexpected Token, '" + source.toToken() + "', missing 'IDENTIFIER'!");
                             }
                             param = null;
                         } else {
-                            throw new MDNParseError("Unexpected Token, '" + current + "', missing '['!");
+                            throw new MDNParseError("Unexpected Token, '" + source.toToken() + "', missing '['!");
                         }
                     } else {
-                        throw new MDNParseError("Unexpected Token, '" + current + "', missing '<'!");
+                        throw new MDNParseError("Unexpected Token, '" + source.toToken() + "', missing '<'!");
                     }
                     break;
                 case COMMA:
                     if(element != null) {
                         if(param != null) {
                             if(param.getName().isEmpty()) {
-                                throw new MDNParseError("Unexpected Token, '" + current + "', missing 'IDENTIFIER'!");
+                                throw new MDNParseError("Unexpected Token, '" + source.toToken() + "', missing 'IDENTIFIER'!");
                             } else {
                                 if(innerParam) {
                                     if(!innerParamNext) {
                                         innerParamNext = true;
                                     } else {
-                                        throw new MDNParseError("Unexpected Token, '" + current + "', duplicate or unused ','!");
+                                        throw new MDNParseError("Unexpected Token, '" + source.toToken() + "', duplicate or unused ','!");
                                     }
                                 } else {
                                     param = new MDNParam("");
                                     element.addParam(param);
+                                    if(metrics != null) metrics.params++;
                                 }
                             }
                         } else {
-                            throw new MDNParseError("Unexpected Token, '" + current + "', missing '['!");
+                            throw new MDNParseError("Unexpected Token, '" + source.toToken() + "', missing '['!");
                         }
                     } else {
-                        throw new MDNParseError("Unexpected Token, '" + current + "', missing '<'!");
+                        throw new MDNParseError("Unexpected Token, '" + source.toToken() + "', missing '<'!");
                     }
                     break;
                 case L_PARENT:
@@ -145,13 +282,13 @@ public class MDNParser {
                                 innerParam = true;
                                 innerParamNext = true;
                             } else {
-                                throw new MDNParseError("Unexpected Token, '" + current + "', missing '['!");
+                                throw new MDNParseError("Unexpected Token, '" + source.toToken() + "', missing '['!");
                             }
                         } else {
-                            throw new MDNParseError("Unexpected Token, '" + current + "', missing 'IDENTIFIER'!");
+                            throw new MDNParseError("Unexpected Token, '" + source.toToken() + "', missing 'IDENTIFIER'!");
                         }
                     } else {
-                        throw new MDNParseError("Unexpected Token, '" + current + "', missing '['!");
+                        throw new MDNParseError("Unexpected Token, '" + source.toToken() + "', missing '['!");
                     }
                     break;
                 case R_PARENT:
@@ -159,23 +296,26 @@ public class MDNParser {
                         if(innerParam) {
                             innerParam = false;
                             innerParamNext = false;
+                            param.sourceEnd = source.getEndOffset();
                         } else {
-                            throw new MDNParseError("Unexpected Token, '" + current + "', missing '('!");
+                            throw new MDNParseError("Unexpected Token, '" + source.toToken() + "', missing '('!");
                         }
                     } else {
-                        throw new MDNParseError("Unexpected Token, '" + current + "', missing '['!");
+                        throw new MDNParseError("Unexpected Token, '" + source.toToken() + "', missing '['!");
                     }
                     break;
                 case L_ANGLE:
                     if(element == null) {
                         element = new MDNElement("");
+                        if(param == null && !innerParam) element.sourceStart = source.getOffset();
+                        if(metrics != null) metrics.element(elements.size() + 1);
                         if(!elements.isEmpty()) {
-                            elements.lastElement().addElement(element);
+                            elements.peek().addElement(element);
                         } else {
                             document.addElement(element);
                         }
                     } else {
-                        throw new MDNParseError("Unexpected Token, '" + current + "', missing '>'!");
+                        throw new MDNParseError("Unexpected Token, '" + source.toToken() + "', missing '>'!");
                     }
                     break;
                 case R_ANGLE:
@@ -184,27 +324,99 @@ public class MDNParser {
                             elements.push(element);
                             element = null;
                         } else {
-                            throw new MDNParseError("Unexpected Token, '" + current + "', missing 'IDENTIFIER'!");
+                            throw new MDNParseError("Unexpected Token, '" + source.toToken() + "', missing 'IDENTIFIER'!");
                         }
                     }
                     break;
                 case MARK_END:
                     if(element != null) {
+                        if(param == null && !innerParam && element.sourceStart >= 0) element.sourceEnd = source.getEndOffset();
                         element = null;
+                        if(validator != null) validator.endElement();
                     } else {
                         if(!elements.isEmpty()) {
-                            elements.pop();
+                            MDNElement closed = elements.pop();
+                            if(param == null && !innerParam && closed.sourceStart >= 0) closed.sourceEnd = source.getEndOffset();
+                            if(validator != null) validator.endElement();
                         } else {
-                            throw new MDNParseError("Unexpected Token, '" + current + "', duplicate '</>' or '/>'!");
+                            throw new MDNParseError("Unexpected Token, '" + source.toToken() + "', duplicate '</>' or '/>'!");
                         }
                     }
                     break;
             }
 
-            advance();
+            next();
         }
 
+        complete = element == null && elements.isEmpty() && param == null && !innerParam;
+        elements.clear();
+        if(validator != null) validator.end();
         return document;
     }
 
+    /**
+     * @return {@code true} if the last call to {@link #parseDocument()} closed every element and param it opened
+     */
+    boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * {@link MDNTokenSource} reading an already created list of tokens
+     */
+    private static class TokenList implements MDNTokenSource {
+
+        private final ArrayList<MDNToken> tokens;
+        private MDNToken current = null;
+        private int ptr = -1;
+
+        private TokenList(ArrayList<MDNToken> tokens) {
+            this.tokens = tokens;
+        }
+
+        @Override
+        public MDNTokenType nextToken() {
+            ptr++;
+            if(ptr < tokens.size()) current = tokens.get(ptr);
+            else current = null;
+            return current == null ? null : current.type;
+        }
+
+        @Override
+        public String getValue() {
+            return current.value;
+        }
+
+        @Override
+        public int getLine() {
+            return current.line;
+        }
+
+        @Override
+        public int getStart() {
+            return current.start;
+        }
+
+        @Override
+        public int getEnd() {
+            return current.end;
+        }
+
+        @Override
+        public int getOffset() {
+            return -1;
+        }
+
+        @Override
+        public int getEndOffset() {
+            return -1;
+        }
+
+        @Override
+        public MDNToken toToken() {
+            return current;
+        }
+
+    }
+
 }
@@ -0,0 +1,342 @@
+package com.mystic.mdn;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class holds the changes between two {@link MDNDocument}s, as computed by {@link MDN#diff(MDNDocument, MDNDocument)}. <br>
+ * A patch describes each list of children or params that changed as the list of the new content, made of runs of
+ * unchanged items taken from the old list, of items of the old list that are edited (renamed, or whose params or
+ * children changed) and of new items. Removed items are the ones that aren't taken. Only the lists that changed
+ * are described, so the size of a patch follows the size of the change, not the size of the documents. <br>
+ * A patch is immutable, it can be applied to any number of documents equal to the one it was computed from and is
+ * sent as bytes through {@link #toByteArray()} and {@link #parse(byte[])}.
+ * @see MDN#diff(MDNDocument, MDNDocument)
+ */
+public final class MDNPatch {
+
+    static final int COPY = 0, EDIT = 1, INSERT = 2;
+
+    private static final int RENAMED = 1, PARAMS = 2, CHILDREN = 4;
+
+    /**
+     * The hash of the elements of the document the patch was computed from
+     */
+    private final long base;
+
+    /**
+     * The hash of the elements of the document the patch was computed to
+     */
+    private final long target;
+
+    /**
+     * The changes of the top-level elements, null if there is none
+     */
+    private final ListEdit elements;
+
+    MDNPatch(long base, long target, ListEdit elements) {
+        this.base = base;
+        this.target = target;
+        this.elements = elements;
+    }
+
+    /**
+     * @return {@code true} if the two documents were equal, the patch then changes nothing
+     */
+    public boolean isEmpty() {
+        return elements == null;
+    }
+
+    /**
+     * Apply the changes to <code>document</code>, which must be equal to the document the patch was computed from. <br>
+     * The elements the patch doesn't change are kept, the new ones are copies of those of the patch. The document is
+     * checked before anything is changed, so it is left untouched if the patch doesn't apply. <br>
+     * The hash of the result is then compared with the one of the document the patch was computed to, which catches
+     * a patch that was corrupted or built by hand in a way the first checks can't see.
+     * @param document the document you want to change
+     * @return <code>document</code>
+     * @throws NullPointerException if <code>document</code> is null
+     * @throws IllegalArgumentException if <code>document</code> isn't the one the patch was computed from
+     * @throws IllegalStateException if the result isn't the expected document, <code>document</code> is then
+     * already changed
+     */
+    public MDNDocument apply(MDNDocument document) throws NullPointerException, IllegalArgumentException, IllegalStateException {
+        if(document == null) throw new NullPointerException("Failed to apply patch");
+        ArrayList<MDNElement> list = document.getElements();
+        if(document.hash() != base) throw new IllegalArgumentException("The patch doesn't apply to this document!");
+        if(elements == null) return document;
+        check(list, elements);
+        apply(list, elements);
+        if(document.hash() != target) throw new IllegalStateException("The patch didn't produce the expected document!");
+        return document;
+    }
+
+    /**
+     * Make sure <code>edit</code> applies to <code>list</code>, which is already known to have the right content
+     * unless the patch was built by hand or corrupted
+     */
+    private static void check(List<?> list, ListEdit edit) throws IllegalArgumentException {
+        if(list.size() != edit.size) throw new IllegalArgumentException("The patch doesn't apply to this document!");
+        boolean[] used = new boolean[list.size()];
+        for(Op op : edit.ops) {
+            if(op.kind == INSERT) continue;
+            if(op.from < 0 || op.count < 0 || op.from + op.count > list.size()) {
+                throw new IllegalArgumentException("The patch doesn't apply to this document!");
+            }
+            for(int i = op.from; i < op.from + op.count; i++) {
+                if(used[i]) throw new IllegalArgumentException("Invalid patch, item " + i + " is used twice!");
+                used[i] = true;
+            }
+            if(op.kind == EDIT) {
+                ElementEdit element = (ElementEdit) op.item;
+                MDNElement target = (MDNElement) list.get(op.from);
+                if(element.params != null) check(target.getParams(), element.params);
+                if(element.children != null) check(target.getElements(), element.children);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void apply(List<T> list, ListEdit edit) {
+        ArrayList<T> result = new ArrayList<>(edit.ops.length);
+        for(Op op : edit.ops) {
+            switch (op.kind) {
+                case COPY:
+                    result.addAll(list.subList(op.from, op.from + op.count));
+                    break;
+                case EDIT:
+                    MDNElement target = (MDNElement) list.get(op.from);
+                    ElementEdit element = (ElementEdit) op.item;
+                    if(element.renamed) target.setName(element.name);
+                    if(element.params != null) apply(target.getParams(), element.params);
+                    if(element.children != null) apply(target.getElements(), element.children);
+                    result.add((T) target);
+                    break;
+                case INSERT:
+                    result.add((T) (op.item instanceof MDNElement ? copy((MDNElement) op.item) : copy((MDNParam) op.item)));
+                    break;
+            }
+        }
+        list.clear();
+        list.addAll(result);
+    }
+
+    /**
+     * @return a deep copy of <code>element</code>, so the patch doesn't share elements with the documents
+     */
+    static MDNElement copy(MDNElement element) {
+        MDNElement copy = new MDNElement(element.getName());
+        for(MDNParam param : element.getParams()) {
+            copy.addParam(copy(param));
+        }
+        for(MDNElement child : element.getElements()) {
+            copy.addElement(copy(child));
+        }
+        return copy;
+    }
+
+    /**
+     * @return a copy of <code>param</code>
+     */
+    static MDNParam copy(MDNParam param) {
+        MDNParam copy = new MDNParam(param.getName());
+        copy.getValues().addAll(param.getValues());
+        return copy;
+    }
+
+    /**
+     * Encode the patch in BMDN, see {@link MDNBinaryWriter}. <br>
+     * <pre>
+     * patch   = 'B' 'M' 'D' 'N' version(1) varint(base hash, high bits) varint(base hash, low bits)
+     *           varint(target hash, high bits) varint(target hash, low bits) (varint(0) | varint(1) list)
+     * list    = count(old size) count(ops) op*
+     * op      = varint(0) count(from) count(count)                       (items kept)
+     *         | varint(1) count(from) varint(flags) [name] [list] [list] (element edited: renamed, params, children)
+     *         | varint(2) (element | param)                              (new item)
+     * </pre>
+     * @return the bytes of the patch
+     */
+    public byte[] toByteArray() {
+        MDNBinaryWriter writer = new MDNBinaryWriter();
+        try {
+            writer.writeHeader();
+            writer.writeVarint((int) (base >>> 32));
+            writer.writeVarint((int) base);
+            writer.writeVarint((int) (target >>> 32));
+            writer.writeVarint((int) target);
+            writer.writeVarint(elements == null ? 0 : 1);
+            if(elements != null) write(writer, elements);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return writer.toByteArray();
+    }
+
+    private static void write(MDNBinaryWriter writer, ListEdit edit) throws IOException {
+        writer.writeVarint(edit.size);
+        writer.writeVarint(edit.ops.length);
+        for(Op op : edit.ops) {
+            writer.writeVarint(op.kind);
+            switch (op.kind) {
+                case COPY:
+                    writer.writeVarint(op.from);
+                    writer.writeVarint(op.count);
+                    break;
+                case EDIT:
+                    ElementEdit element = (ElementEdit) op.item;
+                    writer.writeVarint(op.from);
+                    writer.writeVarint((element.renamed ? RENAMED : 0) | (element.params != null ? PARAMS : 0) | (element.children != null ? CHILDREN : 0));
+                    if(element.renamed) writer.writeName(element.name);
+                    if(element.params != null) write(writer, element.params);
+                    if(element.children != null) write(writer, element.children);
+                    break;
+                case INSERT:
+                    if(op.item instanceof MDNElement) writer.writeElement((MDNElement) op.item);
+                    else writer.writeParam((MDNParam) op.item);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Decode a patch encoded by {@link #toByteArray()}
+     * @param bytes the bytes of the patch
+     * @return the patch
+     * @throws NullPointerException if <code>bytes</code> is null
+     * @throws MDNParseError if <code>bytes</code> isn't a valid patch
+     */
+    public static MDNPatch parse(byte[] bytes) throws NullPointerException, MDNParseError {
+        if(bytes == null) throw new NullPointerException("Failed to parse patch");
+        try(MDNBinaryReader reader = new MDNBinaryReader(new ByteArrayInputStream(bytes))) {
+            reader.readHeader();
+            long base = ((long) reader.readVarint() << 32) | (reader.readVarint() & 0xFFFFFFFFL);
+            long target = ((long) reader.readVarint() << 32) | (reader.readVarint() & 0xFFFFFFFFL);
+            int changed = reader.readVarint();
+            if(changed != 0 && changed != 1) throw new MDNParseError("Invalid patch, unknown content " + changed + "!");
+            return new MDNPatch(base, target, changed == 0 ? null : read(reader, true));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ListEdit read(MDNBinaryReader reader, boolean elements) throws IOException, MDNParseError {
+        int size = reader.readCount();
+        Op[] ops = new Op[reader.readCount()];
+        for(int i = 0; i < ops.length; i++) {
+            int kind = reader.readVarint();
+            switch (kind) {
+                case COPY:
+                    ops[i] = new Op(COPY, reader.readCount(), reader.readCount(), null);
+                    break;
+                case EDIT:
+                    if(!elements) throw new MDNParseError("Invalid patch, params can't be edited!");
+                    int from = reader.readCount();
+                    int flags = reader.readVarint();
+                    if((flags & ~(RENAMED | PARAMS | CHILDREN)) != 0) throw new MDNParseError("Invalid patch, unknown flags " + flags + "!");
+                    String name = (flags & RENAMED) != 0 ? reader.readName() : null;
+                    ListEdit params = (flags & PARAMS) != 0 ? read(reader, false) : null;
+                    ListEdit children = (flags & CHILDREN) != 0 ? read(reader, true) : null;
+                    ops[i] = new Op(EDIT, from, 1, new ElementEdit((flags & RENAMED) != 0, name, params, children));
+                    break;
+                case INSERT:
+                    ops[i] = new Op(INSERT, -1, 0, elements ? reader.readElement() : reader.readParam());
+                    break;
+                default:
+                    throw new MDNParseError("Invalid patch, unknown operation " + kind + "!");
+            }
+        }
+        return new ListEdit(size, ops);
+    }
+
+    @Override
+    public String toString() {
+        int[] counts = new int[4];
+        if(elements != null) count(elements, true, counts);
+        return "MDNPatch[added=" + counts[0] + ", removed=" + counts[1] + ", renamed=" + counts[2] + ", params changed=" + counts[3] + "]";
+    }
+
+    /**
+     * Count the elements added, removed and renamed and the params changed, a param whose values changed is
+     * replaced so it counts once
+     */
+    private static void count(ListEdit edit, boolean elements, int[] counts) {
+        int kept = 0, inserted = 0;
+        for(Op op : edit.ops) {
+            if(op.kind == INSERT) {
+                inserted++;
+                continue;
+            }
+            kept += op.count;
+            if(op.kind == EDIT) {
+                ElementEdit element = (ElementEdit) op.item;
+                if(element.renamed) counts[2]++;
+                if(element.params != null) count(element.params, false, counts);
+                if(element.children != null) count(element.children, true, counts);
+            }
+        }
+        if(elements) {
+            counts[0] += inserted;
+            counts[1] += edit.size - kept;
+        } else {
+            counts[3] += Math.max(inserted, edit.size - kept);
+        }
+    }
+
+    /**
+     * The new content of a list of children or params
+     */
+    static final class ListEdit {
+
+        /**
+         * The size of the old list
+         */
+        final int size;
+        final Op[] ops;
+
+        ListEdit(int size, Op[] ops) {
+            this.size = size;
+            this.ops = ops;
+        }
+
+    }
+
+    /**
+     * A part of the new content of a list: <code>count</code> items kept from index <code>from</code> of the old list
+     * ({@link #COPY}), the item at index <code>from</code> edited by the {@link ElementEdit} <code>item</code>
+     * ({@link #EDIT}) or the new item <code>item</code> ({@link #INSERT})
+     */
+    static final class Op {
+
+        final int kind, from, count;
+        final Object item;
+
+        Op(int kind, int from, int count, Object item) {
+            this.kind = kind;
+            this.from = from;
+            this.count = count;
+            this.item = item;
+        }
+
+    }
+
+    /**
+     * The changes of an element kept from the old list, null when a part didn't change
+     */
+    static final class ElementEdit {
+
+        final boolean renamed;
+        final String name;
+        final ListEdit params, children;
+
+        ElementEdit(boolean renamed, String name, ListEdit params, ListEdit children) {
+            this.renamed = renamed;
+            this.name = name;
+            this.params = params;
+            this.children = children;
+        }
+
+    }
+
+}
@@ -0,0 +1,483 @@
+package com.mystic.mdn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This class is a compiled path over the elements of a {@link MDNDocument} or of a {@link MDNElement}. <br>
+ * A query is compiled once and can then be run any number of times, by any number of threads. The results are
+ * found lazily, in document order, while the iterator or the stream is consumed. <br>
+ * <br>
+ * Syntax:<br>
+ * <pre>
+ * Element/Sub-Element              the Sub-Element children of the top level Element
+ * Element/*                        all the children of the top level Element
+ * //Sub-Element                    the Sub-Element at any depth
+ * Element//Leaf                    the Leaf under Element, at any depth
+ * Element[param1]                  the Element having a param1
+ * Element[param1="Value1"]         the Element having a param1 with the value Value1
+ * Element[a="1"][b="2"]            the Element matching both predicates
+ * Element/Sub-Element/@param2      the param2 of the matching Sub-Element
+ * Element/@*                       all the params of the matching Element
+ * </pre>
+ * Names are MDN identifiers, or any text between double quotes. Values are between double quotes, where
+ * <code>\"</code> and <code>\\</code> are escaped, or identifiers. A query run on an element starts from its
+ * children, so <code>@param</code> alone selects a param of the element itself.
+ */
+public final class MDNQuery {
+
+    /**
+     * Number of children from which a lookup by name goes through the name index of the element
+     */
+    private static final int INDEX_THRESHOLD = 8;
+
+    private final String query;
+    private final Step[] steps;
+
+    /**
+     * The name of the selected params, null if the query selects elements
+     */
+    private final String param;
+    private final boolean allParams;
+
+    private MDNQuery(String query, Step[] steps, String param, boolean allParams) {
+        this.query = query;
+        this.steps = steps;
+        this.param = param;
+        this.allParams = allParams;
+    }
+
+    /**
+     * Compile a query
+     * @param query the query
+     * @return the compiled query
+     * @throws IllegalArgumentException if the query is invalid
+     */
+    public static MDNQuery compile(String query) throws IllegalArgumentException {
+        if(query == null) throw new IllegalArgumentException("Invalid query: null");
+        return new Compiler(query).compile();
+    }
+
+    /**
+     * @return {@code true} if the query ends with <code>@param</code> and selects params, otherwise {@code false}
+     */
+    public boolean selectsParams() {
+        return param != null || allParams;
+    }
+
+    /**
+     * Find the matching elements of a document
+     * @param document the document
+     * @return an iterator over the matching elements
+     * @throws IllegalStateException if the query selects params
+     */
+    public Iterator<MDNElement> iterator(MDNDocument document) throws IllegalStateException {
+        checkElements();
+        return new Matches(children(document.getElements(), rootMask()), rootMask(), null);
+    }
+
+    /**
+     * Find the matching elements under an element
+     * @param element the element, the query starts from its children
+     * @return an iterator over the matching elements
+     * @throws IllegalStateException if the query selects params
+     */
+    public Iterator<MDNElement> iterator(MDNElement element) throws IllegalStateException {
+        checkElements();
+        return new Matches(children(element.getElements(), rootMask()), rootMask(), null);
+    }
+
+    /**
+     * Stream version of {@link #iterator(MDNDocument)}
+     * @param document the document
+     * @return a sequential stream of the matching elements
+     * @throws IllegalStateException if the query selects params
+     */
+    public Stream<MDNElement> elements(MDNDocument document) throws IllegalStateException {
+        return stream(iterator(document));
+    }
+
+    /**
+     * Stream version of {@link #iterator(MDNElement)}
+     * @param element the element, the query starts from its children
+     * @return a sequential stream of the matching elements
+     * @throws IllegalStateException if the query selects params
+     */
+    public Stream<MDNElement> elements(MDNElement element) throws IllegalStateException {
+        return stream(iterator(element));
+    }
+
+    /**
+     * Find the first matching element of a document
+     * @param document the document
+     * @return the element found or null
+     * @throws IllegalStateException if the query selects params
+     */
+    public MDNElement first(MDNDocument document) throws IllegalStateException {
+        Iterator<MDNElement> iterator = iterator(document);
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    /**
+     * Find the first matching element under an element
+     * @param element the element, the query starts from its children
+     * @return the element found or null
+     * @throws IllegalStateException if the query selects params
+     */
+    public MDNElement first(MDNElement element) throws IllegalStateException {
+        Iterator<MDNElement> iterator = iterator(element);
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    /**
+     * Find the matching params of a document
+     * @param document the document
+     * @return a sequential stream of the matching params
+     * @throws IllegalStateException if the query selects elements
+     */
+    public Stream<MDNParam> params(MDNDocument document) throws IllegalStateException {
+        checkParams();
+        return stream(new Params(new Matches(children(document.getElements(), rootMask()), rootMask(), null)));
+    }
+
+    /**
+     * Find the matching params under an element
+     * @param element the element, the query starts from its children
+     * @return a sequential stream of the matching params
+     * @throws IllegalStateException if the query selects elements
+     */
+    public Stream<MDNParam> params(MDNElement element) throws IllegalStateException {
+        checkParams();
+        Matches matches = steps.length == 0 ? new Matches(null, 0, element) : new Matches(children(element.getElements(), rootMask()), rootMask(), null);
+        return stream(new Params(matches));
+    }
+
+    /**
+     * Find the first matching param of a document
+     * @param document the document
+     * @return the param found or null
+     * @throws IllegalStateException if the query selects elements
+     */
+    public MDNParam firstParam(MDNDocument document) throws IllegalStateException {
+        return params(document).findFirst().orElse(null);
+    }
+
+    /**
+     * Find the first matching param under an element
+     * @param element the element, the query starts from its children
+     * @return the param found or null
+     * @throws IllegalStateException if the query selects elements
+     */
+    public MDNParam firstParam(MDNElement element) throws IllegalStateException {
+        return params(element).findFirst().orElse(null);
+    }
+
+    @Override
+    public String toString() {
+        return query;
+    }
+
+    private void checkElements() {
+        if(selectsParams()) throw new IllegalStateException("The query '" + query + "' selects params");
+    }
+
+    private void checkParams() {
+        if(!selectsParams()) throw new IllegalStateException("The query '" + query + "' selects elements");
+    }
+
+    private long rootMask() {
+        return steps.length == 0 ? 0 : 1;
+    }
+
+    /**
+     * Select the children that can match the steps of <code>mask</code>, through the name index of the parent
+     * when only one named step is left
+     * @param children the children
+     * @param mask the steps to try on the children
+     * @return the children to visit
+     */
+    private List<MDNElement> children(ArrayList<MDNElement> children, long mask) {
+        if(children.size() < INDEX_THRESHOLD || Long.bitCount(mask) != 1) return children;
+        Step step = steps[Long.numberOfTrailingZeros(mask)];
+        if(step.descendant || step.name == null || !(children instanceof MDNNamedList)) return children;
+        return Arrays.asList(((MDNNamedList<MDNElement>) children).all(step.name, new MDNElement[0]));
+    }
+
+    private static <T> Stream<T> stream(Iterator<T> iterator) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * A step of the query, matching the name and the params of an element
+     */
+    private static final class Step {
+
+        /**
+         * {@code true} if the step matches at any depth, after <code>//</code>
+         */
+        private final boolean descendant;
+
+        /**
+         * The name of the element, null for <code>*</code>
+         */
+        private final String name;
+        private final String[] predicateNames;
+
+        /**
+         * The value of each predicate, null when the param only has to exist
+         */
+        private final String[] predicateValues;
+
+        private Step(boolean descendant, String name, String[] predicateNames, String[] predicateValues) {
+            this.descendant = descendant;
+            this.name = name;
+            this.predicateNames = predicateNames;
+            this.predicateValues = predicateValues;
+        }
+
+        private boolean matches(MDNElement element) {
+            if(name != null && !name.equals(element.getName())) return false;
+            for(int i = 0; i < predicateNames.length; i++) {
+                if(!matches(element.getParams(), predicateNames[i], predicateValues[i])) return false;
+            }
+            return true;
+        }
+
+        private static boolean matches(ArrayList<MDNParam> params, String name, String value) {
+            for(int i = 0; i < params.size(); i++) {
+                MDNParam param = params.get(i);
+                if(!name.equals(param.getName())) continue;
+                if(value == null || param.getValues().contains(value)) return true;
+            }
+            return false;
+        }
+
+    }
+
+    /**
+     * The depth first walk over the elements, each element is visited with the set of steps it may match
+     */
+    private final class Matches implements Iterator<MDNElement> {
+
+        private List<?>[] lists = new List<?>[8];
+        private int[] positions = new int[8];
+        private long[] masks = new long[8];
+        private int depth = -1;
+        private MDNElement next;
+
+        /**
+         * @param children the elements the query starts from
+         * @param mask the steps the elements may match, bit <code>i</code> is set for <code>steps[i]</code>
+         * @param next the first element returned, without being matched
+         */
+        private Matches(List<MDNElement> children, long mask, MDNElement next) {
+            this.next = next;
+            if(children != null && mask != 0) push(children, mask);
+        }
+
+        private void push(List<MDNElement> children, long mask) {
+            if(children.isEmpty()) return;
+            if(++depth == lists.length) {
+                lists = Arrays.copyOf(lists, depth * 2);
+                positions = Arrays.copyOf(positions, depth * 2);
+                masks = Arrays.copyOf(masks, depth * 2);
+            }
+            lists[depth] = children;
+            positions[depth] = 0;
+            masks[depth] = mask;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while(next == null && depth >= 0) {
+                List<?> list = lists[depth];
+                int position = positions[depth];
+                if(position == list.size()) {
+                    lists[depth--] = null;
+                    continue;
+                }
+                positions[depth] = position + 1;
+                MDNElement element = (MDNElement) list.get(position);
+                long mask = masks[depth];
+                long childMask = 0;
+                boolean found = false;
+                for(long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+                    int s = Long.numberOfTrailingZeros(remaining);
+                    Step step = steps[s];
+                    if(step.descendant) childMask |= 1L << s;
+                    if(!step.matches(element)) continue;
+                    if(s == steps.length - 1) found = true;
+                    else childMask |= 1L << (s + 1);
+                }
+                if(childMask != 0) push(children(element.getElements(), childMask), childMask);
+                if(found) next = element;
+            }
+            return next != null;
+        }
+
+        @Override
+        public MDNElement next() {
+            if(!hasNext()) throw new NoSuchElementException();
+            MDNElement element = next;
+            next = null;
+            return element;
+        }
+
+    }
+
+    /**
+     * The selected params of the matching elements
+     */
+    private final class Params implements Iterator<MDNParam> {
+
+        private final Matches matches;
+        private ArrayList<MDNParam> params = null;
+        private int position = 0;
+        private MDNParam next = null;
+
+        private Params(Matches matches) {
+            this.matches = matches;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while(next == null) {
+                if(params != null && position < params.size()) {
+                    MDNParam param = params.get(position++);
+                    if(allParams || MDNQuery.this.param.equals(param.getName())) next = param;
+                } else if(matches.hasNext()) {
+                    params = matches.next().getParams();
+                    position = 0;
+                } else return false;
+            }
+            return true;
+        }
+
+        @Override
+        public MDNParam next() {
+            if(!hasNext()) throw new NoSuchElementException();
+            MDNParam param = next;
+            next = null;
+            return param;
+        }
+
+    }
+
+    /**
+     * The parser of the queries
+     */
+    private static final class Compiler {
+
+        private final String query;
+        private int ptr = 0;
+
+        private Compiler(String query) {
+            this.query = query;
+        }
+
+        private MDNQuery compile() {
+            ArrayList<Step> steps = new ArrayList<>();
+            String param = null;
+            boolean allParams = false;
+            if(query.isEmpty()) throw error("empty query");
+            boolean descendant = false;
+            if(query.startsWith("//")) {
+                descendant = true;
+                ptr = 2;
+            } else if(query.startsWith("/")) ptr = 1;
+            while(true) {
+                if(peek() == '@') {
+                    ptr++;
+                    if(descendant) throw error("'//' before a param");
+                    if(peek() == '*') {
+                        ptr++;
+                        allParams = true;
+                    } else param = name();
+                    if(ptr < query.length()) throw error("unexpected '" + query.charAt(ptr) + "' after the param");
+                    break;
+                }
+                steps.add(step(descendant));
+                if(steps.size() > 64) throw error("too many steps");
+                if(ptr == query.length()) break;
+                if(query.charAt(ptr) != '/') throw error("unexpected '" + query.charAt(ptr) + "'");
+                ptr++;
+                descendant = peek() == '/';
+                if(descendant) ptr++;
+            }
+            return new MDNQuery(query, steps.toArray(new Step[0]), param, allParams);
+        }
+
+        private Step step(boolean descendant) {
+            String name = null;
+            if(peek() == '*') ptr++;
+            else name = name();
+            ArrayList<String> names = new ArrayList<>();
+            ArrayList<String> values = new ArrayList<>();
+            while(peek() == '[') {
+                ptr++;
+                skipSpaces();
+                names.add(name());
+                skipSpaces();
+                String value = null;
+                if(peek() == '=') {
+                    ptr++;
+                    skipSpaces();
+                    value = peek() == '"' ? quoted() : identifier("value");
+                    skipSpaces();
+                }
+                values.add(value);
+                if(peek() != ']') throw error("missing ']'");
+                ptr++;
+            }
+            return new Step(descendant, name, names.toArray(new String[0]), values.toArray(new String[0]));
+        }
+
+        private String name() {
+            return peek() == '"' ? quoted() : identifier("name");
+        }
+
+        private String identifier(String what) {
+            int start = ptr;
+            while(ptr < query.length() && isIdentifier(query.charAt(ptr))) ptr++;
+            if(start == ptr) throw error("missing " + what);
+            return query.substring(start, ptr);
+        }
+
+        private String quoted() {
+            StringBuilder builder = new StringBuilder();
+            ptr++;
+            while(true) {
+                if(ptr == query.length()) throw error("missing '\"'");
+                char c = query.charAt(ptr++);
+                if(c == '"') return builder.toString();
+                if(c == '\\' && ptr < query.length()) c = query.charAt(ptr++);
+                builder.append(c);
+            }
+        }
+
+        private void skipSpaces() {
+            while(ptr < query.length() && query.charAt(ptr) == ' ') ptr++;
+        }
+
+        private char peek() {
+            return ptr < query.length() ? query.charAt(ptr) : '\0';
+        }
+
+        private static boolean isIdentifier(char c) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '-';
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid query '" + query + "' at " + ptr + ", " + message);
+        }
+
+    }
+
+}
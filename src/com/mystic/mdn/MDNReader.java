@@ -0,0 +1,257 @@
+package com.mystic.mdn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+/**
+ * This class is used to read a MDN source one event at a time without building a {@link MDNDocument}. <br>
+ * The source is pulled through a {@link MDNLexer} so only a small buffer is kept in memory. <br>
+ * <br>
+ * Events:<br>
+ * <pre>
+ * &lt;Element[param1("125", "135")]&gt;     START_ELEMENT(Element) PARAM(param1) VALUE(125) VALUE(135)
+ *      &lt;Sub-Element[]/&gt;               START_ELEMENT(Sub-Element) END_ELEMENT
+ * &lt;/&gt;                                END_ELEMENT
+ *                                     END_DOCUMENT
+ * </pre>
+ * The reader reports the same errors as {@link MDNParser}, it is only stricter about unclosed brackets
+ * and parentheses ('[' must be closed before '&gt;' or '/&gt;' and '(' before ']'). Like the parser, it accepts
+ * the name of an element after its '[' (<code>&lt;[Element param1("125")]/&gt;</code>). <br>
+ * Elements that are still open at the end of the source are closed with {@link MDNEventType#END_ELEMENT}.
+ */
+public class MDNReader implements Closeable {
+
+    private final MDNLexer lexer;
+    private final Reader reader;
+
+    private MDNEventType event = null;
+    private String name = null;
+    private String value = null;
+    private int line = 0, column = 0;
+    private int depth = 0;
+
+    private boolean inTag = false;
+    private boolean named = false;
+    private boolean inParam = false;
+    private boolean paramNamed = false;
+    private boolean inValues = false;
+    private boolean valueExpected = false;
+
+    /**
+     * Constructor for MDNReader
+     * @param src the string you want to read
+     * @throws NullPointerException if {@code src} is null
+     */
+    public MDNReader(String src) throws NullPointerException {
+        this.lexer = new MDNLexer(src);
+        this.reader = null;
+    }
+
+    /**
+     * Constructor for MDNReader
+     * @param reader the reader you want to read, it is closed by {@link #close()}
+     * @throws NullPointerException if {@code reader} is null
+     */
+    public MDNReader(Reader reader) throws NullPointerException {
+        this.lexer = new MDNLexer(reader);
+        this.reader = reader;
+    }
+
+    /**
+     * Constructor for MDNReader, the stream is decoded as UTF-8
+     * @param in the stream you want to read, it is closed by {@link #close()}
+     * @throws NullPointerException if {@code in} is null
+     */
+    public MDNReader(InputStream in) throws NullPointerException {
+        this(new InputStreamReader(checkNotNull(in), StandardCharsets.UTF_8));
+    }
+
+    private static InputStream checkNotNull(InputStream in) {
+        if(in == null) throw new NullPointerException("Failed to create MDNReader");
+        return in;
+    }
+
+    /**
+     * @return {@code true} if {@link MDNEventType#END_DOCUMENT} hasn't been returned yet otherwise {@code false}
+     */
+    public boolean hasNext() {
+        return event != MDNEventType.END_DOCUMENT;
+    }
+
+    /**
+     * Read the next event
+     * @return the type of the event
+     * @throws NoSuchElementException if {@link MDNEventType#END_DOCUMENT} has already been returned
+     * @throws MDNLexerError if any error occurs during {@link MDNLexer#nextToken()}
+     * @throws MDNParseError if there is an unexpected token
+     */
+    public MDNEventType next() throws NoSuchElementException, MDNLexerError, MDNParseError {
+        if(event == MDNEventType.END_DOCUMENT) throw new NoSuchElementException("No more events!");
+        name = null;
+        value = null;
+
+        while(true) {
+            MDNTokenType type = lexer.nextToken();
+            line = lexer.getLine();
+            column = lexer.getStart();
+            if(type == null) return end();
+
+            switch (type) {
+                case IDENTIFIER:
+                    if(!inTag) throw error("missing '<'");
+                    if(!named) {
+                        named = true;
+                        name = lexer.getValue();
+                        return event = MDNEventType.START_ELEMENT;
+                    }
+                    if(!inParam) throw error("missing '['");
+                    if(paramNamed) throw error("duplicate 'IDENTIFIER'");
+                    paramNamed = true;
+                    name = lexer.getValue();
+                    return event = MDNEventType.PARAM;
+                case VALUE:
+                    if(!inTag) throw error("missing '<'");
+                    if(!inParam) throw error("missing '['");
+                    if(!inValues) throw error("missing '('");
+                    if(!valueExpected) throw error("missing ','");
+                    valueExpected = false;
+                    value = lexer.getValue();
+                    return event = MDNEventType.VALUE;
+                case L_BRACKET:
+                    if(!inTag) throw error("missing '<'");
+                    if(inParam) throw error("missing '['");
+                    inParam = true;
+                    paramNamed = false;
+                    break;
+                case R_BRACKET:
+                    if(!inTag) throw error("missing '<'");
+                    if(!inParam) throw error("missing '['");
+                    if(!paramNamed) throw error("missing 'IDENTIFIER'");
+                    if(inValues) throw error("missing ')'");
+                    inParam = false;
+                    break;
+                case COMMA:
+                    if(!inTag) throw error("missing '<'");
+                    if(!inParam) throw error("missing '['");
+                    if(!paramNamed) throw error("missing 'IDENTIFIER'");
+                    if(inValues) {
+                        if(valueExpected) throw error("duplicate or unused ','");
+                        valueExpected = true;
+                    } else paramNamed = false;
+                    break;
+                case L_PARENT:
+                    if(!inParam) throw error("missing '['");
+                    if(!paramNamed) throw error("missing 'IDENTIFIER'");
+                    if(inValues) throw error("missing '['");
+                    inValues = true;
+                    valueExpected = true;
+                    break;
+                case R_PARENT:
+                    if(!inParam) throw error("missing '['");
+                    if(!inValues) throw error("missing '('");
+                    inValues = false;
+                    valueExpected = false;
+                    break;
+                case L_ANGLE:
+                    if(inTag) throw error("missing '>'");
+                    inTag = true;
+                    named = false;
+                    break;
+                case R_ANGLE:
+                    if(inTag) {
+                        if(!named) throw error("missing 'IDENTIFIER'");
+                        if(inParam) throw error("missing ']'");
+                        inTag = false;
+                        depth++;
+                    }
+                    break;
+                case MARK_END:
+                    if(inTag) {
+                        if(!named) throw error("missing 'IDENTIFIER'");
+                        if(inParam) throw error("missing ']'");
+                        inTag = false;
+                        return event = MDNEventType.END_ELEMENT;
+                    }
+                    if(depth == 0) throw error("duplicate '</>' or '/>'");
+                    depth--;
+                    return event = MDNEventType.END_ELEMENT;
+            }
+        }
+    }
+
+    private MDNEventType end() throws MDNParseError {
+        if(inTag) {
+            if(!named) throw new MDNParseError("Unexpected EOF, missing 'IDENTIFIER' at " + line + ":" + column + "!");
+            if(inParam) throw new MDNParseError("Unexpected EOF, missing ']' at " + line + ":" + column + "!");
+            inTag = false;
+            return event = MDNEventType.END_ELEMENT;
+        }
+        if(depth > 0) {
+            depth--;
+            return event = MDNEventType.END_ELEMENT;
+        }
+        return event = MDNEventType.END_DOCUMENT;
+    }
+
+    private MDNParseError error(String reason) {
+        return new MDNParseError("Unexpected Token, '" + lexer.toToken() + "', " + reason + "!");
+    }
+
+    /**
+     * @return the type of the last event or null if {@link #next()} hasn't been called yet
+     */
+    public MDNEventType getEvent() {
+        return event;
+    }
+
+    /**
+     * @return the name of the element for {@link MDNEventType#START_ELEMENT}, the name of the param for
+     * {@link MDNEventType#PARAM} otherwise null
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the value for {@link MDNEventType#VALUE} otherwise null
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * @return the number of elements containing the element of the last event (0 for top level elements)
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return the line of the last event
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * @return the index of the start of the last event on its line
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    /**
+     * Close the underlying reader, if any
+     * @throws IOException if the reader failed to close
+     */
+    @Override
+    public void close() throws IOException {
+        if(reader != null) reader.close();
+    }
+
+}
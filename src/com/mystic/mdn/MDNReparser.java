@@ -0,0 +1,141 @@
+package com.mystic.mdn;
+
+import java.util.ArrayList;
+
+/**
+ * This class is used to update a {@link MDNDocument} after an edit of its source without parsing the whole source. <br>
+ * Only the smallest element whose span encloses the edit is parsed again and put in place of the old one. The
+ * spans of the elements and params after it aren't updated one by one: each list on the path to the element records
+ * that the elements after it have moved by the length of the edit (see {@link MDNElement.Children}), so an edit only
+ * costs the size of the element parsed again and the depth of the document. When no element encloses the
+ * edit, or when the new content of the span doesn't parse into exactly one element on its own, the whole source
+ * is parsed again, so the result is always the same as {@link MDN#parse(String)}.
+ * @see MDN#reparse(MDNDocument, String, int, int, String)
+ */
+final class MDNReparser {
+
+    private MDNReparser() {
+    }
+
+    /**
+     * See {@link MDN#reparse(MDNDocument, String, int, int, String)}
+     */
+    static MDNDocument reparse(MDNDocument document, String oldSrc, int offset, int removedLength, String insertedText) throws MDNLexerError, MDNParseError {
+        if(offset < 0 || removedLength < 0 || offset > oldSrc.length() - removedLength) {
+            throw new IndexOutOfBoundsException("Invalid edit: " + offset + " + " + removedLength + " for a source of " + oldSrc.length());
+        }
+        int delta = insertedText.length() - removedLength;
+
+        // The elements enclosing the edit, from the top level down, and the lists containing them
+        ArrayList<MDNElement> path = new ArrayList<>();
+        ArrayList<MDNElement.Children> lists = new ArrayList<>();
+        MDNElement.Children children = (MDNElement.Children) document.getElements();
+        int shift = 0, index = -1;
+        while(true) {
+            int found = enclosing(children, shift, offset, removedLength);
+            if(found < 0) break;
+            MDNElement child = children.get(found);
+            shift += children.shift(child.sourceStart);
+            path.add(child);
+            lists.add(children);
+            index = found;
+            children = (MDNElement.Children) child.getElements();
+        }
+
+        if(!path.isEmpty()) {
+            MDNElement old = path.get(path.size() - 1);
+            int start = old.sourceStart + shift, end = old.sourceEnd + shift;
+            String text = oldSrc.substring(start, offset) + insertedText + oldSrc.substring(offset + removedLength, end);
+            MDNElement element = parseElement(text);
+            if(element != null) {
+                move(element, old.sourceStart);
+                for(int i = 0; i < path.size(); i++) {
+                    MDNElement enclosing = path.get(i);
+                    lists.get(i).addShift(enclosing.sourceStart, delta);
+                    if(enclosing != old) enclosing.sourceEnd += delta;
+                }
+                lists.get(lists.size() - 1).set(index, element);
+                return document;
+            }
+        }
+
+        MDNDocument parsed = MDN.parse(oldSrc.substring(0, offset) + insertedText + oldSrc.substring(offset + removedLength));
+        document.getElements().clear();
+        document.getElements().addAll(MDNList.take(parsed.getElements()));
+        return document;
+    }
+
+    /**
+     * Find the element of <code>children</code> whose span encloses the edit, the elements are sorted by their
+     * spans so it is searched by bisection
+     * @param shift the number of characters the element owning <code>children</code> has moved
+     * @return the index of the element or -1 if there is none
+     */
+    private static int enclosing(MDNElement.Children children, int shift, int offset, int removedLength) {
+        int low = 0, high = children.size() - 1;
+        while(low <= high) {
+            int middle = (low + high) >>> 1;
+            MDNElement child = children.get(middle);
+            // An element opened inside a param has no span, the list can't be bisected
+            if(child.sourceStart < 0) return scan(children, shift, offset, removedLength);
+            if(child.sourceStart + shift + children.shift(child.sourceStart) < offset) low = middle + 1;
+            else high = middle - 1;
+        }
+        return high >= 0 && encloses(children, high, shift, offset, removedLength) ? high : -1;
+    }
+
+    private static int scan(MDNElement.Children children, int shift, int offset, int removedLength) {
+        for(int i = 0; i < children.size(); i++) {
+            if(encloses(children, i, shift, offset, removedLength)) return i;
+        }
+        return -1;
+    }
+
+    private static boolean encloses(MDNElement.Children children, int index, int shift, int offset, int removedLength) {
+        MDNElement child = children.get(index);
+        if(child.sourceStart < 0 || child.sourceEnd < 0) return false;
+        shift += children.shift(child.sourceStart);
+        return child.sourceStart + shift < offset && offset + removedLength < child.sourceEnd + shift;
+    }
+
+    /**
+     * Parse the new text of the span of an element on its own
+     * @return the element or null if the text isn't exactly one element
+     */
+    private static MDNElement parseElement(String text) {
+        MDNLexer lexer = new MDNLexer(text);
+        lexer.setPool(MDN.defaultPool(text.length()));
+        MDNParser parser = new MDNParser(lexer);
+        MDNDocument document;
+        try {
+            document = parser.parseDocument();
+        } catch (MDNLexerError | MDNParseError e) {
+            return null;
+        }
+        if(!parser.isComplete() || document.getElements().size() != 1) return null;
+        MDNElement element = document.getElements().get(0);
+        if(element.sourceStart != 0 || element.sourceEnd != text.length()) return null;
+        document.getElements().clear();
+        return element;
+    }
+
+    /**
+     * Move the spans of an element parsed on its own, and of its params and children, to its place in the document
+     * @param delta the parsed start of the element it replaces
+     */
+    private static void move(MDNElement element, int delta) {
+        if(element.sourceStart >= 0) element.sourceStart += delta;
+        if(element.sourceEnd >= 0) element.sourceEnd += delta;
+        ArrayList<MDNParam> params = element.getParams();
+        for(int i = 0; i < params.size(); i++) {
+            MDNParam param = params.get(i);
+            if(param.sourceStart >= 0) param.sourceStart += delta;
+            if(param.sourceEnd >= 0) param.sourceEnd += delta;
+        }
+        ArrayList<MDNElement> children = element.getElements();
+        for(int i = 0; i < children.size(); i++) {
+            move(children.get(i), delta);
+        }
+    }
+
+}
@@ -0,0 +1,226 @@
+package com.mystic.mdn;
+
+/**
+ * This class is used to find where the elements of a MDN source start and end without creating tokens. <br>
+ * It follows the rules of {@link MDNLexer} (values, escape sequences, comments) and the nesting of {@link MDNParser},
+ * and keeps track of the line and column like {@link MDNLexer} does, so a {@link MDNLexer} can be started at
+ * any element it finds. <br>
+ * The scanner stops at the first thing it can't be sure about (a syntax error, an element closed while one of its
+ * params is still open, a token outside of the tag of an element, a null character), everything after that point
+ * has to be parsed in one piece.
+ */
+final class MDNScanner {
+
+    private final String src;
+    private final int end;
+
+    private int pos;
+    private int line;
+    private int lineStart;
+    private boolean stopped = false;
+
+    private int elementStart = -1, elementEnd = -1;
+    private int elementLine = 0, elementColumn = 0;
+    private int nameStart = -1, nameEnd = -1;
+
+    /**
+     * Constructor for MDNScanner, the range must start outside of any element
+     * @param src the source you want to scan
+     * @param start the index of the first character to scan
+     * @param end the index after the last character to scan
+     * @param line the number of linebreaks before <code>start</code>
+     * @param column the index of the character at <code>start</code> on its line
+     */
+    MDNScanner(String src, int start, int end, int line, int column) {
+        this.src = src;
+        this.end = end;
+        this.pos = start;
+        this.line = line;
+        this.lineStart = start - column;
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    private static boolean isIdentifierBody(char c) {
+        return isIdentifierStart(c) || (c >= '0' && c <= '9') || c == '-';
+    }
+
+    private char charAt(int index) {
+        return index < end ? src.charAt(index) : 0;
+    }
+
+    /**
+     * Find the next element of the range
+     * @return {@code true} if an element was found, {@code false} at the end of the range or if the scanner stopped
+     */
+    boolean nextElement() {
+        if(stopped) return false;
+        int depth = 0;
+        boolean inTag = false, inParam = false, inValues = false;
+        while(pos < end) {
+            char c = src.charAt(pos);
+            if(isIdentifierStart(c)) {
+                if(!inTag) return stop();
+                if(depth == 0 && nameStart < 0 && !inParam) nameStart = pos;
+                do pos++; while(pos < end && isIdentifierBody(src.charAt(pos)));
+                if(nameStart >= 0 && nameEnd < 0) nameEnd = pos;
+                if(charAt(pos) == '"') pos++;
+                continue;
+            }
+            if(c == '<' && charAt(pos + 1) == '/') {
+                pos++;
+                c = '/';
+            }
+            switch (c) {
+                case 0:
+                    return stop();
+                case '\n':
+                    line++;
+                    lineStart = pos;
+                    break;
+                case '#':
+                    while(pos + 1 < end && src.charAt(pos + 1) != '\n' && src.charAt(pos + 1) != 0) pos++;
+                    break;
+                case '"':
+                    if(!inTag || !skipValue()) return stop();
+                    break;
+                case '[':
+                    if(!inTag) return stop();
+                    inParam = true;
+                    break;
+                case ']':
+                    if(!inTag) return stop();
+                    inParam = false;
+                    break;
+                case '(':
+                    if(!inTag) return stop();
+                    inValues = true;
+                    break;
+                case ')':
+                    if(!inTag) return stop();
+                    inValues = false;
+                    break;
+                case ',':
+                    if(!inTag) return stop();
+                    break;
+                case '>':
+                    if(inTag) {
+                        inTag = false;
+                        depth++;
+                    }
+                    break;
+                case '<':
+                    if(inTag) return stop();
+                    if(depth == 0) {
+                        elementStart = pos;
+                        elementLine = line;
+                        elementColumn = pos - lineStart;
+                        nameStart = nameEnd = -1;
+                    }
+                    inTag = true;
+                    break;
+                case '/':
+                    if(charAt(pos + 1) != '>') return stop();
+                    pos += 2;
+                    if(inTag) inTag = false;
+                    else if(depth > 0) depth--;
+                    else return stop();
+                    if(depth == 0) {
+                        if(inParam || inValues) return stop();
+                        elementEnd = pos;
+                        return true;
+                    }
+                    continue;
+            }
+            pos++;
+        }
+        return false;
+    }
+
+    /**
+     * Skip the value starting at the current '"'
+     * @return {@code true} if the value is closed on the same line
+     */
+    private boolean skipValue() {
+        boolean skip = false;
+        while(++pos < end) {
+            char c = src.charAt(pos);
+            if(c == '\n' || c == 0) return false;
+            if(skip) skip = false;
+            else if(c == '\\') skip = true;
+            else if(c == '"') return true;
+        }
+        return false;
+    }
+
+    private boolean stop() {
+        stopped = true;
+        return false;
+    }
+
+    /**
+     * @return {@code true} if the scanner stopped before the end of the range
+     */
+    boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * @return the index of the '&lt;' of the last element found
+     */
+    int getElementStart() {
+        return elementStart;
+    }
+
+    /**
+     * @return the index after the '&gt;' closing the last element found
+     */
+    int getElementEnd() {
+        return elementEnd;
+    }
+
+    /**
+     * @return the number of linebreaks before {@link #getElementStart()}
+     */
+    int getElementLine() {
+        return elementLine;
+    }
+
+    /**
+     * @return the index of {@link #getElementStart()} on its line
+     */
+    int getElementColumn() {
+        return elementColumn;
+    }
+
+    /**
+     * @return the index of the first identifier of the tag of the last element found, or -1 if there is none
+     */
+    int getNameStart() {
+        return nameStart;
+    }
+
+    /**
+     * @return the index after the first identifier of the tag of the last element found
+     */
+    int getNameEnd() {
+        return nameEnd;
+    }
+
+    /**
+     * @return the number of linebreaks before {@link #getElementEnd()}
+     */
+    int getLine() {
+        return line;
+    }
+
+    /**
+     * @return the index of {@link #getElementEnd()} on its line
+     */
+    int getColumn() {
+        return elementEnd - lineStart;
+    }
+
+}
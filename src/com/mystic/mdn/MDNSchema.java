@@ -0,0 +1,346 @@
+package com.mystic.mdn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * This class holds the expected shape of a {@link MDNDocument}: the allowed names of the elements, and for each kind of
+ * element the allowed names of its children and the rules of its params. <br>
+ * A schema is written in MDN and compiled once into lookup tables, it is then checked either over a built document
+ * ({@link #validate(MDNDocument)}), over a source while it is read without building a document ({@link #validate(String)},
+ * {@link #check(String)}) or while a document is parsed ({@link #parse(String)}). <br>
+ * <br>
+ * Format:<br>
+ * <pre>
+ * &lt;Schema[root("Server", "Logging")]&gt;                  root: the allowed top-level elements, any if missing
+ *      &lt;Element[name("Server"), children("Route"), closed()]&gt;
+ *          &lt;Param[name("port"), type("int"), required(), count("1")]/&gt;
+ *          &lt;Param[name("mode"), type("enum"), values("fast", "slow")]/&gt;
+ *          &lt;Param[name("tags"), count("0", "*")]/&gt;
+ *      &lt;/&gt;
+ * &lt;/&gt;
+ * </pre>
+ * Element rules: <code>name</code> the name of the elements the rule applies to, <code>children</code> the allowed
+ * names of their children (any if missing, none if empty), <code>closed</code> only the params of the rule are
+ * allowed. The elements without a rule are only checked against the allowed children of their parent. <br>
+ * Param rules: <code>name</code> the name of the param, <code>required</code> the param must be there,
+ * <code>count</code> the number of values (exactly <code>n</code>, or from <code>min</code> to <code>max</code>, "*"
+ * for no maximum), <code>type</code> the type of the values: string (the default), int, long, short, byte, float,
+ * double, hex, bin, char, as read by the typed accessors of {@link MDNParam}, or enum with the allowed names in
+ * <code>values</code>.
+ * @see MDNViolation
+ */
+public final class MDNSchema {
+
+    static final int STRING = 0, INT = 1, LONG = 2, SHORT = 3, BYTE = 4, FLOAT = 5, DOUBLE = 6, HEX = 7, BIN = 8,
+            CHAR = 9, ENUM = 10;
+
+    static final List<String> TYPES = Arrays.asList("string", "int", "long", "short", "byte", "float", "double",
+            "hex", "bin", "char", "enum");
+
+    /**
+     * The allowed top-level elements, null if any element is allowed
+     */
+    final HashSet<String> root;
+
+    /**
+     * The rules of the elements by name
+     */
+    final HashMap<String, ElementRule> elements = new HashMap<>();
+
+    private MDNSchema(HashSet<String> root) {
+        this.root = root;
+    }
+
+    /**
+     * Compile a schema written in MDN, see {@link MDNSchema}
+     * @param src the source of the schema
+     * @return the schema
+     * @throws NullPointerException if <code>src</code> is null
+     * @throws MDNLexerError if any error occurs during {@link MDNLexer#nextToken()}
+     * @throws MDNParseError if any error occurs during {@link MDNParser#parse()}
+     * @throws IllegalArgumentException if the schema is invalid
+     */
+    public static MDNSchema compile(String src) throws NullPointerException, MDNLexerError, MDNParseError, IllegalArgumentException {
+        if(src == null) throw new NullPointerException("Failed to compile schema");
+        return compile(MDN.parse(src));
+    }
+
+    /**
+     * Compile a schema, see {@link MDNSchema}
+     * @param document the schema
+     * @return the schema
+     * @throws NullPointerException if <code>document</code> is null
+     * @throws IllegalArgumentException if the schema is invalid
+     */
+    public static MDNSchema compile(MDNDocument document) throws NullPointerException, IllegalArgumentException {
+        if(document == null) throw new NullPointerException("Failed to compile schema");
+        if(document.getElements().size() != 1 || !"Schema".equals(document.getElements().get(0).getName())) {
+            throw new IllegalArgumentException("Invalid schema, it must have one top-level 'Schema' element!");
+        }
+        MDNElement schema = document.getElements().get(0);
+        options(schema, "root");
+        MDNSchema compiled = new MDNSchema(names(schema.getParamByName("root")));
+        for(MDNElement element : schema.getElements()) {
+            if(!"Element".equals(element.getName())) throw new IllegalArgumentException("Invalid schema, unexpected '" + element.getName() + "'!");
+            ElementRule rule = compileElement(element);
+            if(compiled.elements.put(rule.name, rule) != null) throw new IllegalArgumentException("Invalid schema, duplicate rule for '" + rule.name + "'!");
+        }
+        return compiled;
+    }
+
+    private static ElementRule compileElement(MDNElement element) throws IllegalArgumentException {
+        options(element, "name", "children", "closed");
+        String name = single(element, "name");
+        if(name == null) throw new IllegalArgumentException("Invalid schema, an 'Element' has no name!");
+        ElementRule rule = new ElementRule(name, names(element.getParamByName("children")), element.getParamByName("closed") != null);
+        ArrayList<ParamRule> params = new ArrayList<>();
+        for(MDNElement param : element.getElements()) {
+            if(!"Param".equals(param.getName())) throw new IllegalArgumentException("Invalid schema, unexpected '" + param.getName() + "' in '" + name + "'!");
+            ParamRule paramRule = compileParam(param, name, params.size());
+            if(rule.params.put(paramRule.name, paramRule) != null) {
+                throw new IllegalArgumentException("Invalid schema, duplicate rule for '" + paramRule.name + "' in '" + name + "'!");
+            }
+            params.add(paramRule);
+        }
+        rule.rules = params.toArray(new ParamRule[0]);
+        return rule;
+    }
+
+    private static ParamRule compileParam(MDNElement param, String element, int index) throws IllegalArgumentException {
+        options(param, "name", "required", "count", "type", "values");
+        String name = single(param, "name");
+        if(name == null) throw new IllegalArgumentException("Invalid schema, a 'Param' of '" + element + "' has no name!");
+        String typeName = single(param, "type");
+        int type = typeName == null ? STRING : TYPES.indexOf(typeName);
+        if(type < 0) throw new IllegalArgumentException("Invalid schema, unknown type '" + typeName + "' for '" + name + "'!");
+        HashSet<String> values = names(param.getParamByName("values"));
+        if((type == ENUM) != (values != null)) {
+            throw new IllegalArgumentException("Invalid schema, 'values' must be given for the type 'enum' and only for it, for '" + name + "'!");
+        }
+        int min = 0, max = -1;
+        MDNParam count = param.getParamByName("count");
+        if(count != null) {
+            if(count.getValueCount() < 1 || count.getValueCount() > 2) throw new IllegalArgumentException("Invalid schema, 'count' of '" + name + "' needs 1 or 2 values!");
+            min = count.getInt(0, -1);
+            max = count.getValueCount() == 1 ? min : "*".equals(count.getValue(1, null)) ? -1 : count.getInt(1, -2);
+            if(min < 0 || max < -1 || (max >= 0 && max < min)) throw new IllegalArgumentException("Invalid schema, invalid 'count' for '" + name + "'!");
+        }
+        return new ParamRule(name, index, param.getParamByName("required") != null, min, max, type, values);
+    }
+
+    /**
+     * Make sure the element only has the given params
+     */
+    private static void options(MDNElement element, String... names) throws IllegalArgumentException {
+        List<String> allowed = Arrays.asList(names);
+        for(MDNParam param : element.getParams()) {
+            if(!allowed.contains(param.getName())) {
+                throw new IllegalArgumentException("Invalid schema, unknown option '" + param.getName() + "' in '" + element.getName() + "'!");
+            }
+        }
+    }
+
+    private static String single(MDNElement element, String name) throws IllegalArgumentException {
+        MDNParam param = element.getParamByName(name);
+        if(param == null) return null;
+        if(param.getValueCount() != 1) throw new IllegalArgumentException("Invalid schema, '" + name + "' needs one value!");
+        return param.getValue(0, null);
+    }
+
+    private static HashSet<String> names(MDNParam param) {
+        return param == null ? null : new LinkedHashSet<>(param.getValues());
+    }
+
+    /**
+     * Check a built document
+     * @param document the document you want to check
+     * @return all the violations, in the order of the document, without line and column
+     * @throws NullPointerException if <code>document</code> is null
+     */
+    public List<MDNViolation> validate(MDNDocument document) throws NullPointerException {
+        if(document == null) throw new NullPointerException("Failed to validate");
+        MDNValidator validator = new MDNValidator(this, new ArrayList<>());
+        try {
+            for(MDNElement element : document.getElements()) {
+                validate(validator, element);
+            }
+            validator.end();
+        } catch (MDNParseError e) {
+            throw new IllegalStateException(e);
+        }
+        return validator.getViolations();
+    }
+
+    private static void validate(MDNValidator validator, MDNElement element) throws MDNParseError {
+        validator.startElement(element.getName(), -1, -1);
+        for(MDNParam param : element.getParams()) {
+            validator.param(param.getName(), -1, -1);
+            for(String value : param.getValues()) {
+                validator.value(value, -1, -1);
+            }
+        }
+        for(MDNElement child : element.getElements()) {
+            validate(validator, child);
+        }
+        validator.endElement();
+    }
+
+    /**
+     * Check a source while it is read by a {@link MDNReader}, no document is built
+     * @param src the source you want to check
+     * @return all the violations, in the order of the source, with their line and column
+     * @throws NullPointerException if <code>src</code> is null
+     * @throws MDNLexerError if any error occurs during {@link MDNLexer#nextToken()}
+     * @throws MDNParseError if any error occurs during {@link MDNReader#next()}
+     */
+    public List<MDNViolation> validate(String src) throws NullPointerException, MDNLexerError, MDNParseError {
+        if(src == null) throw new NullPointerException("Failed to validate");
+        MDNValidator validator = new MDNValidator(this, new ArrayList<>());
+        read(new MDNReader(src), validator);
+        return validator.getViolations();
+    }
+
+    /**
+     * Check a source while it is read by a {@link MDNReader}, no document is built and the reading stops at the first
+     * violation
+     * @param src the source you want to check
+     * @throws NullPointerException if <code>src</code> is null
+     * @throws MDNLexerError if any error occurs during {@link MDNLexer#nextToken()}
+     * @throws MDNParseError if any error occurs during {@link MDNReader#next()} or at the first violation
+     */
+    public void check(String src) throws NullPointerException, MDNLexerError, MDNParseError {
+        if(src == null) throw new NullPointerException("Failed to validate");
+        read(new MDNReader(src), new MDNValidator(this, null));
+    }
+
+    /**
+     * Parse a string into a {@link MDNDocument} and check it while it is parsed, the parse stops at the first violation
+     * @param src the string you want to parse
+     * @return the {@link MDNDocument} created, see {@link MDN#parse(String)}
+     * @throws NullPointerException if <code>src</code> is null
+     * @throws MDNLexerError if any error occurs during {@link MDNLexer#nextToken()}
+     * @throws MDNParseError if any error occurs during {@link MDNParser#parse()} or at the first violation
+     */
+    public MDNDocument parse(String src) throws NullPointerException, MDNLexerError, MDNParseError {
+        if(src == null) throw new NullPointerException("Failed to parse");
+        return MDN.parseValidated(src, new MDNValidator(this, null));
+    }
+
+    private static void read(MDNReader reader, MDNValidator validator) throws MDNLexerError, MDNParseError {
+        while(true) {
+            switch (reader.next()) {
+                case START_ELEMENT:
+                    validator.startElement(reader.getName(), reader.getLine(), reader.getColumn());
+                    break;
+                case PARAM:
+                    validator.param(reader.getName(), reader.getLine(), reader.getColumn());
+                    break;
+                case VALUE:
+                    validator.value(reader.getValue(), reader.getLine(), reader.getColumn());
+                    break;
+                case END_ELEMENT:
+                    validator.endElement();
+                    break;
+                case END_DOCUMENT:
+                    validator.end();
+                    return;
+            }
+        }
+    }
+
+    /**
+     * The rule of the elements with a name
+     */
+    static final class ElementRule {
+
+        final String name;
+
+        /**
+         * The allowed names of the children, null if any name is allowed
+         */
+        final HashSet<String> children;
+        final boolean closed;
+        final HashMap<String, ParamRule> params = new HashMap<>();
+
+        /**
+         * The rules of the params by index
+         */
+        ParamRule[] rules;
+
+        private ElementRule(String name, HashSet<String> children, boolean closed) {
+            this.name = name;
+            this.children = children;
+            this.closed = closed;
+        }
+
+    }
+
+    /**
+     * The rule of a param of an element
+     */
+    static final class ParamRule {
+
+        final String name;
+        final int index;
+        final boolean required;
+
+        /**
+         * The number of values, max is -1 if there is no maximum
+         */
+        final int min, max;
+        final int type;
+
+        /**
+         * The allowed values for {@link #ENUM}
+         */
+        final HashSet<String> values;
+
+        private ParamRule(String name, int index, boolean required, int min, int max, int type, HashSet<String> values) {
+            this.name = name;
+            this.index = index;
+            this.required = required;
+            this.min = min;
+            this.max = max;
+            this.type = type;
+            this.values = values;
+        }
+
+        /**
+         * @param value a value of the param
+         * @return {@code true} if the value has the type of the param, the same way the typed accessors of
+         * {@link MDNParam} read it
+         */
+        boolean accepts(String value) {
+            switch (type) {
+                case INT:
+                    return MDNValues.isInteger(value, 10, Integer.MIN_VALUE, Integer.MAX_VALUE);
+                case LONG:
+                    return MDNValues.isInteger(value, 10, Long.MIN_VALUE, Long.MAX_VALUE);
+                case SHORT:
+                    return MDNValues.isInteger(value, 10, Short.MIN_VALUE, Short.MAX_VALUE);
+                case BYTE:
+                    return MDNValues.isInteger(value, 10, Byte.MIN_VALUE, Byte.MAX_VALUE);
+                case HEX:
+                    return MDNValues.isInteger(value, 16, Long.MIN_VALUE, Long.MAX_VALUE);
+                case BIN:
+                    return MDNValues.isInteger(value, 2, Long.MIN_VALUE, Long.MAX_VALUE);
+                case FLOAT:
+                case DOUBLE:
+                    return MDNValues.isDecimal(value);
+                case CHAR:
+                    return value != null && !value.isEmpty();
+                case ENUM:
+                    return values.contains(value);
+                default:
+                    return true;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,186 @@
+package com.mystic.mdn;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * This class is used to share the Strings of the names and values that are repeated in a document. <br>
+ * The pool has a fixed number of slots, a String can be replaced by another one with the same slot, so the pool
+ * never grows. The lookups are done on the characters of the source, a String is only created when the
+ * characters aren't in the pool. <br>
+ * A pool can be given to several parses and used by several threads, it isn't synchronized: two threads
+ * interning the same characters at the same time may only create two Strings.
+ * @see MDN#parse(String, MDNStringPool)
+ */
+public final class MDNStringPool {
+
+    /**
+     * Number of slots of a pool created by {@link #MDNStringPool()}
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * Length of the longest String kept by a pool created by {@link #MDNStringPool()}
+     */
+    public static final int DEFAULT_MAX_LENGTH = 32;
+
+    private final String[] table;
+    private final int mask;
+    private final int maxLength;
+
+    /**
+     * Constructor for MDNStringPool, with {@link #DEFAULT_CAPACITY} slots and Strings of at most {@link #DEFAULT_MAX_LENGTH} characters
+     */
+    public MDNStringPool() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * Constructor for MDNStringPool
+     * @param capacity the number of slots, rounded up to a power of two
+     * @param maxLength the length of the longest String kept, longer Strings are created but not pooled
+     * @throws IllegalArgumentException if <code>capacity</code> is not between 2 and 2^30 or <code>maxLength</code> is negative
+     */
+    public MDNStringPool(int capacity, int maxLength) throws IllegalArgumentException {
+        if(capacity < 2 || capacity > 1 << 30) throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        if(maxLength < 0) throw new IllegalArgumentException("Invalid max length: " + maxLength);
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.table = new String[size];
+        this.mask = (size - 1) & ~1;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * @return the length of the longest String kept by the pool
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Get the pooled String equal to <code>value</code>
+     * @param value the String you want to share
+     * @return the pooled String, or <code>value</code> (which is then pooled) if there is none
+     * @throws NullPointerException if <code>value</code> is null
+     */
+    public String intern(String value) throws NullPointerException {
+        int length = value.length();
+        if(length > maxLength) return value;
+        int hash = value.hashCode();
+        int index = index(hash);
+        String first = table[index];
+        if(first != null && first.hashCode() == hash && first.equals(value)) return first;
+        String second = table[index + 1];
+        if(second != null && second.hashCode() == hash && second.equals(value)) return second;
+        return put(index, first, value);
+    }
+
+    /**
+     * Get the pooled String made of the characters of <code>chars</code> from <code>offset</code>
+     * @param chars the array holding the characters
+     * @param offset the index of the first character
+     * @param length the number of characters
+     * @return the pooled String, or a new one (which is then pooled) if there is none
+     */
+    public String intern(char[] chars, int offset, int length) {
+        if(length > maxLength) return new String(chars, offset, length);
+        int hash = 0;
+        for(int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        int index = index(hash);
+        String first = table[index];
+        if(first != null && first.hashCode() == hash && matches(first, chars, offset, length)) return first;
+        String second = table[index + 1];
+        if(second != null && second.hashCode() == hash && matches(second, chars, offset, length)) return second;
+        return put(index, first, new String(chars, offset, length));
+    }
+
+    /**
+     * Get the pooled String made of the characters of <code>src</code> from <code>offset</code>
+     * @param src the string holding the characters
+     * @param offset the index of the first character
+     * @param length the number of characters
+     * @return the pooled String, or a new one (which is then pooled) if there is none
+     */
+    String intern(String src, int offset, int length) {
+        if(length > maxLength) return src.substring(offset, offset + length);
+        int hash = 0;
+        for(int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + src.charAt(i);
+        }
+        int index = index(hash);
+        String first = table[index];
+        if(first != null && first.hashCode() == hash && first.length() == length && first.regionMatches(0, src, offset, length)) return first;
+        String second = table[index + 1];
+        if(second != null && second.hashCode() == hash && second.length() == length && second.regionMatches(0, src, offset, length)) return second;
+        return put(index, first, src.substring(offset, offset + length));
+    }
+
+    /**
+     * Get the pooled String made of the ASCII bytes of <code>bytes</code> from <code>offset</code>
+     * @param bytes the buffer holding the bytes
+     * @param offset the index of the first byte
+     * @param length the number of bytes
+     * @return the pooled String, or null if the bytes are too long or aren't all ASCII
+     */
+    String internAscii(ByteBuffer bytes, int offset, int length) {
+        if(length > maxLength) return null;
+        int hash = 0;
+        for(int i = offset; i < offset + length; i++) {
+            byte b = bytes.get(i);
+            if(b < 0) return null;
+            hash = 31 * hash + b;
+        }
+        int index = index(hash);
+        String first = table[index];
+        if(first != null && first.hashCode() == hash && matches(first, bytes, offset, length)) return first;
+        String second = table[index + 1];
+        if(second != null && second.hashCode() == hash && matches(second, bytes, offset, length)) return second;
+        char[] chars = new char[length];
+        for(int i = 0; i < length; i++) {
+            chars[i] = (char) bytes.get(offset + i);
+        }
+        return put(index, first, new String(chars));
+    }
+
+    /**
+     * Remove every String from the pool
+     */
+    public void clear() {
+        Arrays.fill(table, null);
+    }
+
+    /**
+     * @return the index of the first of the two slots where a String with this hash can be
+     */
+    private int index(int hash) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * Put a String in the first of its two slots, the String that was there is moved to the second slot
+     */
+    private String put(int index, String first, String value) {
+        table[index + 1] = first;
+        table[index] = value;
+        return value;
+    }
+
+    private static boolean matches(String value, char[] chars, int offset, int length) {
+        if(value.length() != length) return false;
+        for(int i = 0; i < length; i++) {
+            if(value.charAt(i) != chars[offset + i]) return false;
+        }
+        return true;
+    }
+
+    private static boolean matches(String value, ByteBuffer bytes, int offset, int length) {
+        if(value.length() != length) return false;
+        for(int i = 0; i < length; i++) {
+            if(value.charAt(i) != bytes.get(offset + i)) return false;
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.mystic.mdn;
+
+/**
+ * A source of {@link MDNToken} that can be pulled one token at a time by the {@link MDNParser}
+ * @see MDNLexer
+ */
+interface MDNTokenSource {
+
+    /**
+     * Read the next token
+     * @return the type of the token or null if there are no more tokens
+     * @throws MDNLexerError if there is a syntax error
+     */
+    MDNTokenType nextToken() throws MDNLexerError;
+
+    /**
+     * @return the value of the last token read by {@link #nextToken()}
+     */
+    String getValue();
+
+    /**
+     * @return the line of the last token read by {@link #nextToken()}
+     */
+    int getLine();
+
+    /**
+     * @return the index of the start of the last token read by {@link #nextToken()} on its line
+     */
+    int getStart();
+
+    /**
+     * @return the index of the end of the last token read by {@link #nextToken()} on its line
+     */
+    int getEnd();
+
+    /**
+     * @return the index in the source of the first character of the last token read by {@link #nextToken()},
+     * or -1 if the source doesn't count characters
+     */
+    int getOffset();
+
+    /**
+     * @return the index in the source after the last character of the last token read by {@link #nextToken()},
+     * or -1 if the source doesn't count characters
+     */
+    int getEndOffset();
+
+    /**
+     * @return the last token read by {@link #nextToken()} as a {@link MDNToken}
+     */
+    MDNToken toToken();
+
+}
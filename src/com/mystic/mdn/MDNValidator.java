@@ -0,0 +1,167 @@
+package com.mystic.mdn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class checks a stream of elements, params and values against a {@link MDNSchema}. <br>
+ * The same events are given by a walk over a built document, by a {@link MDNReader} or by a {@link MDNParser}, so a
+ * document is checked the same way in all three cases. The tag of an element is complete when its first child starts
+ * or when it ends, its params are checked at that point. <br>
+ * The violations are either collected or, without a list to collect them, thrown as a {@link MDNParseError} at the
+ * first one.
+ * @see MDNSchema
+ */
+final class MDNValidator {
+
+    private final MDNSchema schema;
+    private final ArrayList<MDNViolation> violations;
+
+    /**
+     * The open elements: their rule (null if there is none), name and position, and the number of times each param
+     * of the rule has been seen. The arrays are reused by the next elements at the same depth.
+     */
+    private MDNSchema.ElementRule[] rules = new MDNSchema.ElementRule[16];
+    private String[] names = new String[16];
+    private int[] lines = new int[16], columns = new int[16];
+    private int[][] seen = new int[16][];
+    private int depth = 0;
+
+    /**
+     * {@code true} while the params of the innermost open element can still come
+     */
+    private boolean inTag = false;
+
+    /**
+     * The current param: its rule (null if there is none), its name, position and number of values
+     */
+    private MDNSchema.ParamRule param = null;
+    private String paramName = null;
+    private int paramLine = 0, paramColumn = 0, valueCount = 0;
+    private boolean inParam = false;
+
+    /**
+     * Constructor for MDNValidator
+     * @param schema the schema
+     * @param violations where the violations are collected, or null to throw the first one
+     */
+    MDNValidator(MDNSchema schema, ArrayList<MDNViolation> violations) {
+        this.schema = schema;
+        this.violations = violations;
+    }
+
+    /**
+     * @return the violations collected
+     */
+    List<MDNViolation> getViolations() {
+        return violations;
+    }
+
+    void startElement(String name, int line, int column) throws MDNParseError {
+        if(inTag) endTag();
+        if(depth == 0) {
+            if(schema.root != null && !schema.root.contains(name)) report("Element '" + name + "' isn't allowed at the top level", name, line, column);
+        } else {
+            MDNSchema.ElementRule parent = rules[depth - 1];
+            if(parent != null && parent.children != null && !parent.children.contains(name)) {
+                report("Element '" + name + "' isn't allowed in '" + names[depth - 1] + "'", name, line, column);
+            }
+        }
+        if(depth == rules.length) {
+            rules = Arrays.copyOf(rules, depth * 2);
+            names = Arrays.copyOf(names, depth * 2);
+            lines = Arrays.copyOf(lines, depth * 2);
+            columns = Arrays.copyOf(columns, depth * 2);
+            seen = Arrays.copyOf(seen, depth * 2);
+        }
+        MDNSchema.ElementRule rule = schema.elements.get(name);
+        rules[depth] = rule;
+        names[depth] = name;
+        lines[depth] = line;
+        columns[depth] = column;
+        if(rule != null) {
+            int[] counts = seen[depth];
+            if(counts == null || counts.length < rule.rules.length) seen[depth] = new int[Math.max(rule.rules.length, 4)];
+            else Arrays.fill(counts, 0, rule.rules.length, 0);
+        }
+        depth++;
+        inTag = true;
+    }
+
+    void param(String name, int line, int column) throws MDNParseError {
+        if(inParam) endParam();
+        MDNSchema.ElementRule rule = rules[depth - 1];
+        param = rule == null ? null : rule.params.get(name);
+        paramName = name;
+        paramLine = line;
+        paramColumn = column;
+        valueCount = 0;
+        inParam = true;
+        if(param != null) seen[depth - 1][param.index]++;
+        else if(rule != null && rule.closed) report("Param '" + name + "' isn't allowed in '" + rule.name + "'", null, line, column);
+    }
+
+    void value(String value, int line, int column) throws MDNParseError {
+        valueCount++;
+        if(param != null && !param.accepts(value)) {
+            report("Value '" + value + "' of '" + param.name + "' isn't " + (param.type == MDNSchema.ENUM ? "one of " + param.values : "a valid " + MDNSchema.TYPES.get(param.type)), null, line, column);
+        }
+    }
+
+    void endElement() throws MDNParseError {
+        if(inTag) endTag();
+        depth--;
+        rules[depth] = null;
+        names[depth] = null;
+    }
+
+    /**
+     * Close the elements still open at the end of the source
+     */
+    void end() throws MDNParseError {
+        while(depth > 0) {
+            endElement();
+        }
+    }
+
+    private void endParam() throws MDNParseError {
+        inParam = false;
+        if(param == null) return;
+        if(valueCount < param.min || (param.max >= 0 && valueCount > param.max)) {
+            String expected = param.max == param.min ? Integer.toString(param.min) : param.max < 0 ? "at least " + param.min : param.min + " to " + param.max;
+            report("Param '" + paramName + "' has " + valueCount + " values, expected " + expected, null, paramLine, paramColumn);
+        }
+        param = null;
+    }
+
+    private void endTag() throws MDNParseError {
+        inTag = false;
+        if(inParam) endParam();
+        MDNSchema.ElementRule rule = rules[depth - 1];
+        if(rule == null) return;
+        int[] counts = seen[depth - 1];
+        for(MDNSchema.ParamRule paramRule : rule.rules) {
+            if(paramRule.required && counts[paramRule.index] == 0) {
+                report("Missing param '" + paramRule.name + "' in '" + rule.name + "'", null, lines[depth - 1], columns[depth - 1]);
+            }
+        }
+    }
+
+    /**
+     * Collect or throw a violation
+     * @param element the name of an element being opened, which isn't on the stack yet, or null
+     */
+    private void report(String message, String element, int line, int column) throws MDNParseError {
+        StringBuilder path = new StringBuilder();
+        for(int i = 0; i < depth; i++) {
+            path.append('/').append(names[i]);
+        }
+        if(element != null) path.append('/').append(element);
+        if(violations == null) {
+            throw new MDNParseError("Invalid document, " + message + (line < 0 ? " in " + path : " at " + line + ":" + column) + "!");
+        }
+        violations.add(new MDNViolation(message, path.toString(), line, column));
+    }
+
+}
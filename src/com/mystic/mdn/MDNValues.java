@@ -0,0 +1,157 @@
+package com.mystic.mdn;
+
+/**
+ * This class is used to convert values without throwing exceptions. <br>
+ * The accepted formats are the same as {@link Long#parseLong(String, int)} and {@link Double#parseDouble(String)}.
+ */
+final class MDNValues {
+
+    private MDNValues() {
+    }
+
+    /**
+     * Parse an integer the same way {@link Long#parseLong(String, int)} does
+     * @param value the string you want to parse
+     * @param radix the radix of the integer
+     * @param min the smallest accepted value
+     * @param max the largest accepted value
+     * @param defaultValue the value returned if <code>value</code> isn't an integer between <code>min</code> and <code>max</code>
+     * @return the integer or <code>defaultValue</code>
+     */
+    static long parseInteger(String value, int radix, long min, long max, long defaultValue) {
+        if(value == null) return defaultValue;
+        int length = value.length();
+        if(length == 0) return defaultValue;
+        int i = 0;
+        boolean negative = false;
+        long limit = -Long.MAX_VALUE;
+        char first = value.charAt(0);
+        if(first < '0') {
+            if(first == '-') {
+                negative = true;
+                limit = Long.MIN_VALUE;
+            } else if(first != '+') return defaultValue;
+            if(length == 1) return defaultValue;
+            i++;
+        }
+        long multmin = limit / radix;
+        long result = 0;
+        while(i < length) {
+            int digit = Character.digit(value.charAt(i++), radix);
+            if(digit < 0 || result < multmin) return defaultValue;
+            result *= radix;
+            if(result < limit + digit) return defaultValue;
+            result -= digit;
+        }
+        result = negative ? result : -result;
+        if(result < min || result > max) return defaultValue;
+        return result;
+    }
+
+    /**
+     * @param value the string you want to check
+     * @param radix the radix of the integer
+     * @param min the smallest accepted value
+     * @param max the largest accepted value
+     * @return {@code true} if {@link #parseInteger(String, int, long, long, long)} would accept <code>value</code>
+     */
+    static boolean isInteger(String value, int radix, long min, long max) {
+        return parseInteger(value, radix, min, max, 0) != 0 || parseInteger(value, radix, min, max, 1) != 1;
+    }
+
+    /**
+     * @param value the string you want to check
+     * @return {@code true} if {@link Double#parseDouble(String)} and {@link Float#parseFloat(String)} accept <code>value</code>
+     */
+    static boolean isDecimal(String value) {
+        if(value == null) return false;
+        int start = 0;
+        int end = value.length();
+        while(start < end && value.charAt(start) <= ' ') start++;
+        while(end > start && value.charAt(end - 1) <= ' ') end--;
+        if(start == end) return false;
+
+        int i = start;
+        char c = value.charAt(i);
+        if(c == '+' || c == '-') i++;
+        if(value.startsWith("NaN", i)) return i + 3 == end;
+        if(value.startsWith("Infinity", i)) return i + 8 == end;
+
+        boolean hex = i + 1 < end && value.charAt(i) == '0' && (value.charAt(i + 1) == 'x' || value.charAt(i + 1) == 'X');
+        if(hex) i += 2;
+        int radix = hex ? 16 : 10;
+        int digits = 0;
+        while(i < end && isDigit(value.charAt(i), radix)) {
+            i++;
+            digits++;
+        }
+        if(i < end && value.charAt(i) == '.') {
+            i++;
+            while(i < end && isDigit(value.charAt(i), radix)) {
+                i++;
+                digits++;
+            }
+        }
+        if(digits == 0) return false;
+
+        boolean exponent = i < end && (hex ? (value.charAt(i) == 'p' || value.charAt(i) == 'P') : (value.charAt(i) == 'e' || value.charAt(i) == 'E'));
+        if(hex && !exponent) return false;
+        if(exponent) {
+            i++;
+            if(i < end && (value.charAt(i) == '+' || value.charAt(i) == '-')) i++;
+            int exponentDigits = 0;
+            while(i < end && isDigit(value.charAt(i), 10)) {
+                i++;
+                exponentDigits++;
+            }
+            if(exponentDigits == 0) return false;
+        }
+        if(i < end) {
+            c = value.charAt(i);
+            if(c == 'f' || c == 'F' || c == 'd' || c == 'D') i++;
+        }
+        return i == end;
+    }
+
+    private static boolean isDigit(char c, int radix) {
+        return (c >= '0' && c <= '9') || (radix == 16 && ((c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F')));
+    }
+
+    /**
+     * Parse a double the same way {@link Double#parseDouble(String)} does
+     * @param value the string you want to parse
+     * @param defaultValue the value returned if <code>value</code> isn't a decimal number
+     * @return the double or <code>defaultValue</code>
+     */
+    static double parseDouble(String value, double defaultValue) {
+        return isDecimal(value) ? Double.parseDouble(value) : defaultValue;
+    }
+
+    /**
+     * Parse a float the same way {@link Float#parseFloat(String)} does
+     * @param value the string you want to parse
+     * @param defaultValue the value returned if <code>value</code> isn't a decimal number
+     * @return the float or <code>defaultValue</code>
+     */
+    static float parseFloat(String value, float defaultValue) {
+        return isDecimal(value) ? Float.parseFloat(value) : defaultValue;
+    }
+
+    /**
+     * Find the constant of an enum by its name, the same way {@link Enum#valueOf(Class, String)} does
+     * @param value the name of the constant
+     * @param enumClass the class of the enum
+     * @param <E> generic of the enum
+     * @return the constant or null if there is none with this name
+     */
+    static <E extends Enum<E>> E parseEnum(String value, Class<E> enumClass) {
+        if(value == null || enumClass == null) return null;
+        E[] constants = enumClass.getEnumConstants();
+        if(constants == null) return null;
+        for(E constant : constants) {
+            if(constant.name().equals(value)) return constant;
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.mystic.mdn;
+
+/**
+ * This class represent a place where a document doesn't match a {@link MDNSchema}
+ * @see MDNSchema#validate(String)
+ */
+public final class MDNViolation {
+
+    private final String message;
+    private final String path;
+    private final int line, column;
+
+    MDNViolation(String message, String path, int line, int column) {
+        this.message = message;
+        this.path = path;
+        this.line = line;
+        this.column = column;
+    }
+
+    /**
+     * @return what doesn't match the schema
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * @return the names of the element where the violation is and of the elements containing it, separated by '/'
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return the line of the violation or -1 if it is unknown (when a built document is validated)
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * @return the index of the violation on its line or -1 if it is unknown
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    @Override
+    public String toString() {
+        return message + (line < 0 ? " in " + path : " at " + line + ":" + column);
+    }
+
+}